@@ -0,0 +1,113 @@
+package building;
+
+import java.util.Arrays;
+
+
+/**
+ * A solver for the assignment problem: given a matrix of costs with no more rows than columns,
+ * give every row its own column so the sum of the costs is as low as it can be.
+ * It is the Hungarian method with potentials, which takes rows * rows * columns steps,
+ * and keeps its arrays between calls so solving again does not allocate.
+ */
+class AssignmentSolver {
+
+  private static final long INFINITY = Long.MAX_VALUE / 4;
+
+  //the potentials of the rows and columns, and the row given each column, all from 1
+  private long[] rowPotential = new long[1];
+  private long[] columnPotential = new long[1];
+  private int[] rowOfColumn = new int[1];
+  private int[] previousColumn = new int[1];
+  private long[] slack = new long[1];
+  private boolean[] visited = new boolean[1];
+
+
+  /**
+   * Solve an assignment problem.
+   *
+   * @param cost    the costs, row after row, with columns entries in every row.
+   *                The costs must be far enough below Long.MAX_VALUE / 4 to be added up.
+   * @param rows    the number of rows.
+   * @param columns the number of columns, at least rows.
+   * @param into    the array to put the column given to every row into.
+   * @return the lowest sum of the costs.
+   * @throws IllegalArgumentException if there are more rows than columns.
+   */
+  long solve(long[] cost, int rows, int columns, int[] into) throws IllegalArgumentException {
+    if (rows > columns) {
+      throw new IllegalArgumentException("Assignment should have no more rows than columns.");
+    }
+    ensureCapacity(rows, columns);
+    Arrays.fill(this.rowPotential, 0, rows + 1, 0);
+    Arrays.fill(this.columnPotential, 0, columns + 1, 0);
+    Arrays.fill(this.rowOfColumn, 0, columns + 1, 0);
+    for (int row = 1; row <= rows; row++) {
+      //find the cheapest way to give the new row a column, moving rows along a path
+      this.rowOfColumn[0] = row;
+      int column = 0;
+      Arrays.fill(this.slack, 0, columns + 1, INFINITY);
+      Arrays.fill(this.visited, 0, columns + 1, false);
+      do {
+        this.visited[column] = true;
+        int from = this.rowOfColumn[column];
+        int base = (from - 1) * columns - 1;
+        long delta = INFINITY;
+        int next = 0;
+        for (int j = 1; j <= columns; j++) {
+          if (this.visited[j]) {
+            continue;
+          }
+          long reduced = cost[base + j] - this.rowPotential[from] - this.columnPotential[j];
+          if (reduced < this.slack[j]) {
+            this.slack[j] = reduced;
+            this.previousColumn[j] = column;
+          }
+          if (this.slack[j] < delta) {
+            delta = this.slack[j];
+            next = j;
+          }
+        }
+        for (int j = 0; j <= columns; j++) {
+          if (this.visited[j]) {
+            this.rowPotential[this.rowOfColumn[j]] += delta;
+            this.columnPotential[j] -= delta;
+          } else {
+            this.slack[j] -= delta;
+          }
+        }
+        column = next;
+      } while (this.rowOfColumn[column] != 0);
+      //move the rows along the path
+      do {
+        int previous = this.previousColumn[column];
+        this.rowOfColumn[column] = this.rowOfColumn[previous];
+        column = previous;
+      } while (column != 0);
+    }
+    long total = 0;
+    for (int j = 1; j <= columns; j++) {
+      int row = this.rowOfColumn[j];
+      if (row != 0) {
+        into[row - 1] = j - 1;
+        total += cost[(row - 1) * columns + j - 1];
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Make the arrays big enough for a problem.
+   */
+  private void ensureCapacity(int rows, int columns) {
+    if (this.rowPotential.length <= rows) {
+      this.rowPotential = new long[rows + 1];
+    }
+    if (this.columnPotential.length <= columns) {
+      this.columnPotential = new long[columns + 1];
+      this.rowOfColumn = new int[columns + 1];
+      this.previousColumn = new int[columns + 1];
+      this.slack = new long[columns + 1];
+      this.visited = new boolean[columns + 1];
+    }
+  }
+}
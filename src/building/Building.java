@@ -1,15 +1,31 @@
 package building;
 
 import building.enums.Direction;
+import building.enums.DispatchPolicy;
+import building.enums.DwellPolicy;
 import building.enums.ElevatorSystemStatus;
-import elevator.Elevator;
-import elevator.ElevatorInterface;
+import building.enums.RequestRejection;
+import building.enums.SimulationEngine;
+import building.enums.StepPhase;
+import building.enums.TravelMode;
+import elevator.ElevatorFleet;
 import elevator.ElevatorReport;
-import java.util.ArrayList;
-import java.util.List;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import elevator.FleetInterface;
+import elevator.FleetView;
+import elevator.FleetState;
+import elevator.SpeedProfile;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import metrics.Histogram;
+import scanerzus.PackedRequest;
 import scanerzus.Request;
+import scanerzus.RequestCache;
 
 
 /**
@@ -20,18 +36,63 @@ import scanerzus.Request;
  */
 public class Building implements BuildingInterface {
 
+  /**
+   * The default number of elevators a building needs before they are stepped in parallel.
+   */
+  public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+  //the steps an elevator waits at the bottom or top floor when the dwell is fixed
+  private static final int FIXED_END_WAIT = 5;
+  //the longest step the step time histogram tells apart from longer ones, a minute
+  private static final long HIGHEST_STEP_NANOS = 60_000_000_000L;
 
   private final int numberOfFloors;
   private final int numberOfElevators;
   private final int elevatorCapacity;
-  private List<Request> upRequests = new ArrayList<>();
-  private List<Request> downRequests = new ArrayList<>();
-  private final List<Elevator> elevators = new ArrayList<>();
-  private ElevatorSystemStatus elevatorSystemStatus;
+  private final BuildingLimits limits;
+  private final RequestCache requestCache;
+  private final RequestQueue upRequests;
+  private final RequestQueue downRequests;
+  private final FleetInterface elevators;
+  //read by the threads submitting requests, so it is volatile
+  private volatile ElevatorSystemStatus elevatorSystemStatus;
+  //the requests submitted from other threads, taken at the start of every step
+  private final MpscRequestQueue submittedRequests = new MpscRequestQueue();
+
+  //the number of steps the building has taken since it was built
+  private long tick;
+  //the events of the elevators and how far each elevator has been run, used by advanceTo
+  private final TickEventQueue events = new TickEventQueue();
+  private final long[] syncedTicks;
+
+  //how requests are handed to the elevators, and what the strategy sees of the building
+  private DispatchStrategy dispatchStrategy;
+  private final DispatchContext dispatchContext = new Context();
+  //how the elevators travel between their stops
+  private TravelMode travelMode = TravelMode.FULL_SWEEP;
+  //how long the elevators wait at the bottom and top floors, fixed unless this is set
+  private DwellControl dwellControl;
+  //measures how long riders wait when it is turned on
+  private WaitTracker waitTracker;
+  //measures how long every step takes on the wall clock when it is turned on,
+  //it can be switched from another thread, so it is volatile
+  private volatile Histogram stepTimes;
+  //adds up how long every phase of a step takes when it is turned on,
+  //it can be switched from another thread, so it is volatile
+  private volatile PhaseTimers phaseTimers;
+  //counts what the building does for JMX consoles while it is registered,
+  //requests are counted on the threads submitting them, so it is volatile
+  private volatile BuildingMonitor monitor;
+  private ObjectName monitorName;
+
+  //stepping the elevators in parallel, off by default
+  private boolean parallelStepping = false;
+  private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
 
 
   /**
    * The constructor for the building.
+   * The elevators are kept as Elevator objects.
    *
    * @param numberOfFloors    the number of floors in the building.
    * @param numberOfElevators the number of elevators in the building.
@@ -41,29 +102,97 @@ public class Building implements BuildingInterface {
    */
   public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity)
       throws IllegalArgumentException {
-    if (numberOfFloors <= 2 || numberOfFloors > 30) {
-      throw new IllegalArgumentException("Number of floors should be in [3,30].");
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, SimulationEngine.ELEVATOR_OBJECTS);
+  }
+
+  /**
+   * The constructor for the building with a choice of simulation engine.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity  the capacity of the elevators in the building.
+   * @param engine            the way the building keeps the state of its elevators.
+   * @throws IllegalArgumentException if the number of floors, number of elevators,
+   *                                  or elevator capacity is invalid.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  SimulationEngine engine) throws IllegalArgumentException {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, engine, BuildingLimits.DEFAULT);
+  }
+
+  /**
+   * The constructor for the building with a choice of simulation engine and limits.
+   * The default limits are 30 floors, 10 elevators and a capacity of 20,
+   * larger towers need a larger profile.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity  the capacity of the elevators in the building.
+   * @param engine            the way the building keeps the state of its elevators.
+   * @param limits            the largest building allowed.
+   * @throws IllegalArgumentException if the number of floors, number of elevators,
+   *                                  or elevator capacity is invalid.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  SimulationEngine engine, BuildingLimits limits)
+      throws IllegalArgumentException {
+    this(numberOfFloors, numberOfElevators, elevatorCapacity, engine, limits,
+        new TerminalDispatch());
+  }
+
+  /**
+   * The constructor for the building with a choice of simulation engine, limits
+   * and dispatch strategy. The strategy must not be used by another building.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfElevators the number of elevators in the building.
+   * @param elevatorCapacity  the capacity of the elevators in the building.
+   * @param engine            the way the building keeps the state of its elevators.
+   * @param limits            the largest building allowed.
+   * @param dispatchStrategy  the way waiting requests are handed to the elevators.
+   * @throws IllegalArgumentException if the number of floors, number of elevators,
+   *                                  or elevator capacity is invalid, or there is no strategy.
+   */
+  public Building(int numberOfFloors, int numberOfElevators, int elevatorCapacity,
+                  SimulationEngine engine, BuildingLimits limits,
+                  DispatchStrategy dispatchStrategy) throws IllegalArgumentException {
+    if (dispatchStrategy == null) {
+      throw new IllegalArgumentException("Dispatch strategy cannot be null.");
     }
-    if (numberOfElevators <= 0 || numberOfElevators > 10) {
-      throw new IllegalArgumentException("Number of elevators should be in [1,10].");
+    if (numberOfFloors <= 2 || numberOfFloors > limits.getMaxFloors()) {
+      throw new IllegalArgumentException(
+          "Number of floors should be in [3," + limits.getMaxFloors() + "].");
     }
-    if (elevatorCapacity < 3 || elevatorCapacity > 20) {
-      throw new IllegalArgumentException("Elevator capacity should be in [3,20].");
+    if (numberOfElevators <= 0 || numberOfElevators > limits.getMaxElevators()) {
+      throw new IllegalArgumentException(
+          "Number of elevators should be in [1," + limits.getMaxElevators() + "].");
+    }
+    if (elevatorCapacity < 3 || elevatorCapacity > limits.getMaxCapacity()) {
+      throw new IllegalArgumentException(
+          "Elevator capacity should be in [3," + limits.getMaxCapacity() + "].");
     }
     this.numberOfFloors = numberOfFloors;
     this.numberOfElevators = numberOfElevators;
     this.elevatorCapacity = elevatorCapacity;
+    this.limits = limits;
+    this.dispatchStrategy = dispatchStrategy;
+    this.requestCache = new RequestCache(numberOfFloors);
+    this.upRequests = new RequestQueue(this.requestCache);
+    this.downRequests = new RequestQueue(this.requestCache);
 
     // we initialize the building's elevator system status to out of service
     this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
+    this.tick = 0;
+    this.syncedTicks = new long[this.numberOfElevators];
 
     // add elevators to the building
-    for (int i = 0; i < this.numberOfElevators; i++) {
-      elevators.add(new Elevator(this.numberOfFloors, this.elevatorCapacity));
+    if (engine == SimulationEngine.FLEET_STATE) {
+      this.elevators = new FleetState(this.numberOfElevators, this.numberOfFloors,
+          this.elevatorCapacity, this.limits);
+    } else {
+      this.elevators = new ElevatorFleet(this.numberOfElevators, this.numberOfFloors,
+          this.elevatorCapacity, this.limits);
     }
-
-
-
   }
 
 
@@ -74,16 +203,30 @@ public class Building implements BuildingInterface {
    * @param request the request to be added.
    */
   private void distributingRequests(Request request) {
+    distributingRequests(request.getStartFloor(), request.getEndFloor());
+  }
+
+  /**
+   * This method is used when adding a new request, given as its floors, to the building.
+   * The request is packed with the current tick as its arrival tick.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   */
+  private void distributingRequests(int startFloor, int endFloor) {
 
     //we assume the public add request method check the building's status
     //so this method just separate the valid requests
-    if (request.getStartFloor() < request.getEndFloor()) {
-      upRequests.add(request);
+    if (startFloor < endFloor) {
+      upRequests.add(PackedRequest.pack(startFloor, endFloor, this.tick));
 
-    } else if (request.getStartFloor() > request.getEndFloor()) {
-      downRequests.add(request);
+    } else if (startFloor > endFloor) {
+      downRequests.add(PackedRequest.pack(startFloor, endFloor, this.tick));
 
     }
+    if (dwellControl != null) {
+      dwellControl.arrived(startFloor < endFloor, this.tick);
+    }
 
   }
 
@@ -91,6 +234,7 @@ public class Building implements BuildingInterface {
    * This method is used to add requests to the building.
    * It will check of the request floors are valid.
    * It will not succeed if the building is not in the running status.
+   * It must be called from the thread that steps the building, see submitRequest for other threads.
    *
    * @param request the request to be added.
    * @return true if the request was added successfully, otherwise throw an exception.
@@ -100,25 +244,243 @@ public class Building implements BuildingInterface {
   @Override
   public boolean addRequests(Request request)
       throws IllegalArgumentException, IllegalStateException {
-    //check the building's status, only in "running" status can accept requests
-    if (elevatorSystemStatus == ElevatorSystemStatus.running) {
-      //check if the request is valid
-      // from the jar file, we know floors starts from 0
-      if (request.getStartFloor() < 0 || request.getStartFloor() > this.numberOfFloors - 1
-          || request.getEndFloor() < 0 || request.getEndFloor() > this.numberOfFloors - 1) {
-        throw new IllegalArgumentException("Requests out of range.");
+    checkRequest(request);
+    distributingRequests(request);
+    return true;
+  }
+
+  /**
+   * This method is used to add a request to the building from any thread,
+   * while another thread is stepping the building.
+   * The request is checked straight away, queued without taking a lock,
+   * and handed to the up or down requests at the start of the next step.
+   * If the building stops before that step the request is dropped,
+   * just like the requests that were already waiting.
+   *
+   * @param request the request to be added.
+   * @throws IllegalArgumentException if the request is invalid.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  @Override
+  public void submitRequest(Request request)
+      throws IllegalArgumentException, IllegalStateException {
+    checkRequest(request);
+    submittedRequests.offer(request);
+  }
+
+  /**
+   * This method is used to check a request before it is added to the building.
+   * The number of floors never changes, so this can be called from any thread.
+   *
+   * @param request the request to be checked.
+   * @throws IllegalArgumentException if the request is invalid.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  private void checkRequest(Request request)
+      throws IllegalArgumentException, IllegalStateException {
+    BuildingMonitor monitor = this.monitor;
+    if (monitor != null && elevatorSystemStatus != ElevatorSystemStatus.running) {
+      monitor.rejected(1);
+    }
+    checkRunning();
+    RequestRejection rejection = request == null ? RequestRejection.MISSING
+        : rejectionOf(request.getStartFloor(), request.getEndFloor());
+    if (monitor != null) {
+      if (rejection == null) {
+        monitor.accepted(1);
       } else {
-        if (request.getStartFloor() == request.getEndFloor()) {
-          throw new IllegalArgumentException("Start floor and end floor cannot be the same.");
-        }
-        distributingRequests(request);
-        return true;
+        monitor.rejected(1);
       }
-    } else {
+    }
+    if (rejection != null) {
+      throw new IllegalArgumentException(rejection.toString());
+    }
+  }
+
+  /**
+   * This method is used to check that the building can accept requests.
+   *
+   * @throws IllegalStateException if the building is not running.
+   */
+  private void checkRunning() throws IllegalStateException {
+    //check the building's status, only in "running" status can accept requests
+    if (elevatorSystemStatus != ElevatorSystemStatus.running) {
       //when the building is not running, it cannot accept requests
       throw new IllegalStateException("Elevator system is not running, cannot accept requests.");
     }
+  }
 
+  /**
+   * This method is used to check that the building can accept a batch of requests,
+   * counting the whole batch as rejected if it cannot.
+   *
+   * @param count the number of requests in the batch.
+   * @throws IllegalStateException if the building is not running.
+   */
+  private void checkRunning(int count) throws IllegalStateException {
+    BuildingMonitor monitor = this.monitor;
+    if (monitor != null && elevatorSystemStatus != ElevatorSystemStatus.running) {
+      monitor.rejected(count);
+    }
+    checkRunning();
+  }
+
+  /**
+   * This method is used to count the requests of a batch that were added and that were not.
+   *
+   * @param accepted the number of requests added.
+   * @param rejected the number of requests not added.
+   */
+  private void countBatch(int accepted, int rejected) {
+    BuildingMonitor monitor = this.monitor;
+    if (monitor != null) {
+      monitor.accepted(accepted);
+      monitor.rejected(rejected);
+    }
+  }
+
+  /**
+   * This method is used to check the floors of a request.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @return why the request is invalid, or null if it is valid.
+   */
+  private RequestRejection rejectionOf(int startFloor, int endFloor) {
+    // from the jar file, we know floors starts from 0
+    if (startFloor < 0 || startFloor > this.numberOfFloors - 1
+        || endFloor < 0 || endFloor > this.numberOfFloors - 1) {
+      return RequestRejection.OUT_OF_RANGE;
+    }
+    if (startFloor == endFloor) {
+      return RequestRejection.SAME_FLOOR;
+    }
+    return null;
+  }
+
+  /**
+   * This method is used to add a batch of requests to the building.
+   * The building status is checked once for the whole batch, the requests are checked in one
+   * pass, and the valid ones are added to the up and down requests in the order of the batch.
+   * An invalid request does not stop the batch, it is reported instead.
+   *
+   * @param requests the requests to be added.
+   * @return how many requests were added, and which were not and why.
+   * @throws IllegalStateException if the building is not running.
+   */
+  @Override
+  public RequestBatchReport addRequests(Collection<Request> requests)
+      throws IllegalStateException {
+    checkRunning(requests.size());
+    BatchRejections rejections = new BatchRejections();
+    int up = 0;
+    int index = 0;
+    for (Request request : requests) {
+      RequestRejection rejection = request == null ? RequestRejection.MISSING
+          : rejectionOf(request.getStartFloor(), request.getEndFloor());
+      if (rejection != null) {
+        rejections.add(index, rejection);
+      } else if (request.getStartFloor() < request.getEndFloor()) {
+        up++;
+      }
+      index++;
+    }
+    int accepted = index - rejections.count;
+    upRequests.ensureRoomFor(up);
+    downRequests.ensureRoomFor(accepted - up);
+
+    index = 0;
+    int nextRejection = 0;
+    for (Request request : requests) {
+      if (nextRejection < rejections.count && rejections.indices[nextRejection] == index) {
+        nextRejection++;
+      } else {
+        distributingRequests(request);
+      }
+      index++;
+    }
+    countBatch(accepted, rejections.count);
+    return rejections.toReport(accepted);
+  }
+
+  /**
+   * This method is used to add a batch of requests, given as their start and end floors,
+   * to the building. See addRequests(Collection).
+   *
+   * @param startFloors the start floor of every request.
+   * @param endFloors   the end floor of every request.
+   * @return how many requests were added, and which were not and why.
+   * @throws IllegalArgumentException if there is not one end floor for every start floor.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  @Override
+  public RequestBatchReport addRequests(int[] startFloors, int[] endFloors)
+      throws IllegalArgumentException, IllegalStateException {
+    if (startFloors.length != endFloors.length) {
+      throw new IllegalArgumentException("There should be one end floor for every start floor.");
+    }
+    checkRunning(startFloors.length);
+    BatchRejections rejections = new BatchRejections();
+    int up = 0;
+    for (int i = 0; i < startFloors.length; i++) {
+      RequestRejection rejection = rejectionOf(startFloors[i], endFloors[i]);
+      if (rejection != null) {
+        rejections.add(i, rejection);
+      } else if (startFloors[i] < endFloors[i]) {
+        up++;
+      }
+    }
+    int accepted = startFloors.length - rejections.count;
+    upRequests.ensureRoomFor(up);
+    downRequests.ensureRoomFor(accepted - up);
+
+    int nextRejection = 0;
+    for (int i = 0; i < startFloors.length; i++) {
+      if (nextRejection < rejections.count && rejections.indices[nextRejection] == i) {
+        nextRejection++;
+      } else {
+        distributingRequests(startFloors[i], endFloors[i]);
+      }
+    }
+    countBatch(accepted, rejections.count);
+    return rejections.toReport(accepted);
+  }
+
+  /**
+   * The requests of a batch that were not added, in the order of the batch.
+   */
+  private static final class BatchRejections {
+    private int[] indices = new int[0];
+    private RequestRejection[] reasons = new RequestRejection[0];
+    private int count;
+
+    private void add(int index, RequestRejection reason) {
+      if (this.count == this.indices.length) {
+        int capacity = Math.max(8, this.count * 2);
+        this.indices = Arrays.copyOf(this.indices, capacity);
+        this.reasons = Arrays.copyOf(this.reasons, capacity);
+      }
+      this.indices[this.count] = index;
+      this.reasons[this.count] = reason;
+      this.count++;
+    }
+
+    private RequestBatchReport toReport(int accepted) {
+      return new RequestBatchReport(accepted, Arrays.copyOf(this.indices, this.count),
+          Arrays.copyOf(this.reasons, this.count));
+    }
+  }
+
+  /**
+   * This method is used to hand the submitted requests to the up and down requests.
+   * Requests submitted while the building was running but taken after it stopped are dropped.
+   */
+  private void takeSubmittedRequests() {
+    if (this.elevatorSystemStatus == ElevatorSystemStatus.running) {
+      submittedRequests.drain(this::distributingRequests);
+    } else {
+      submittedRequests.drain(request -> { });
+    }
   }
 
 
@@ -129,8 +491,9 @@ public class Building implements BuildingInterface {
    */
   @Override
   public boolean removeAllRequests() {
-    this.upRequests = new ArrayList<Request>();
-    this.downRequests = new ArrayList<Request>();
+    submittedRequests.drain(request -> { });
+    this.upRequests.clear();
+    this.downRequests.clear();
     return true;
   }
 
@@ -155,9 +518,7 @@ public class Building implements BuildingInterface {
       this.elevatorSystemStatus = ElevatorSystemStatus.running;
       //for every elevator, start them
       //they should be in the ground floor , doors open
-      for (Elevator elevator : elevators) {
-        elevator.start();
-      }
+      elevators.start();
     }
 
   }
@@ -182,8 +543,14 @@ public class Building implements BuildingInterface {
 
     this.elevatorSystemStatus = ElevatorSystemStatus.stopping;
     this.removeAllRequests();
-    for (Elevator elevator : elevators) {
-      elevator.takeOutOfService();
+    elevators.takeOutOfService();
+    if (waitTracker != null) {
+      //the riders still waiting will not be picked up
+      waitTracker.clearWaiting();
+    }
+    BuildingMonitor monitor = this.monitor;
+    if (monitor != null) {
+      monitor.clearWaiting();
     }
   }
 
@@ -196,7 +563,7 @@ public class Building implements BuildingInterface {
   private ElevatorReport[] getElevatorReports() {
     ElevatorReport[] elevatorReports = new ElevatorReport[this.numberOfElevators];
     for (int i = 0; i < this.numberOfElevators; i++) {
-      elevatorReports[i] = elevators.get(i).getElevatorStatus();
+      elevatorReports[i] = elevators.getElevatorStatus(i);
     }
     return elevatorReports;
   }
@@ -208,15 +575,99 @@ public class Building implements BuildingInterface {
    */
   @Override
   public BuildingReport getBuildingReport() {
-    return new BuildingReport(numberOfFloors, numberOfElevators, elevatorCapacity,
-        getElevatorReports(), upRequests, downRequests, elevatorSystemStatus);
+    PhaseTimers timers = this.phaseTimers;
+    long mark = timers == null ? 0 : PhaseTimers.mark();
+    BuildingReport report = new BuildingReport(numberOfFloors, numberOfElevators,
+        elevatorCapacity, getElevatorReports(), upRequests.asList(), downRequests.asList(),
+        elevatorSystemStatus, limits);
+    if (timers != null) {
+      timers.lap(StepPhase.REPORT, mark);
+    }
+    return report;
+  }
+
+  /**
+   * This method is used to get the table of requests of the building,
+   * to make requests for it without making a new object for each.
+   *
+   * @return the request cache of the building.
+   */
+  public RequestCache getRequestCache() {
+    return this.requestCache;
+  }
+
+  /**
+   * This method is used to get the limits the building was built with.
+   *
+   * @return the limits of the building.
+   */
+  public BuildingLimits getLimits() {
+    return this.limits;
+  }
+
+  /**
+   * This method is used to get the number of steps the building has taken.
+   *
+   * @return the current tick of the building.
+   */
+  public long getTick() {
+    return this.tick;
+  }
+
+  /**
+   * This method is used to get the status of the elevator system
+   * without making a whole building report.
+   *
+   * @return the status of the elevator system.
+   */
+  public ElevatorSystemStatus getElevatorSystemStatus() {
+    return this.elevatorSystemStatus;
   }
 
   /**
    * This method is used to step the building.
+   * While a flight recording is on, every step is recorded as an elevator.BuildingStep event
+   * with its tick and the requests left waiting, and every batch the dispatch strategy hands
+   * out as an elevator.Dispatch event.
    */
   @Override
   public void step() {
+    //the event is only filled in while a flight recording takes it,
+    //otherwise the JIT drops it and the step costs the same as without it
+    StepEvent event = new StepEvent();
+    event.begin();
+    Histogram stepTimes = this.stepTimes;
+    if (stepTimes == null) {
+      stepOnce();
+    } else {
+      long start = System.nanoTime();
+      stepOnce();
+      stepTimes.record(System.nanoTime() - start);
+    }
+    BuildingMonitor monitor = this.monitor;
+    if (monitor != null) {
+      monitor.stepped(elevators);
+    }
+    if (event.shouldCommit()) {
+      event.tick = this.tick;
+      event.upRequests = this.upRequests.size();
+      event.downRequests = this.downRequests.size();
+      event.commit();
+    }
+  }
+
+  /**
+   * This method is used to take one step of the building.
+   */
+  private void stepOnce() {
+    this.tick++;
+    //every phase is timed as a lap from the end of the one before, when timing is on
+    PhaseTimers timers = this.phaseTimers;
+    long mark = timers == null ? 0 : PhaseTimers.mark();
+    takeSubmittedRequests();
+    if (timers != null) {
+      mark = timers.lap(StepPhase.DRAIN, mark);
+    }
 
     //use switch to check the building's status
 
@@ -227,14 +678,15 @@ public class Building implements BuildingInterface {
       case stopping:
 
         //if the elevators are on their way back to ground floor or the door is not open, step them
-        for (Elevator elevator : elevators) {
-          elevator.step();
+        stepElevators();
+        if (timers != null) {
+          mark = timers.lap(StepPhase.STEP_ELEVATORS, mark);
         }
 
         //check if all elevators are at the ground floor and doors open
         boolean allElevatorsAtGroundFloorAndDoorsOpen = true;
-        for (Elevator elevator : elevators) {
-          if (elevator.getCurrentFloor() != 0 || elevator.isDoorClosed()) {
+        for (int i = 0; i < this.numberOfElevators; i++) {
+          if (elevators.getCurrentFloor(i) != 0 || elevators.isDoorClosed(i)) {
             allElevatorsAtGroundFloorAndDoorsOpen = false;
             break;
           }
@@ -244,55 +696,740 @@ public class Building implements BuildingInterface {
         if (allElevatorsAtGroundFloorAndDoorsOpen) {
           this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
         }
+        if (timers != null) {
+          timers.lap(StepPhase.STOPPING_CHECK, mark);
+        }
         break;
       default:
         //if the building's status is running, we have to step the elevators
-        //for every elevator, assign them requests, and step them
-        for (Elevator elevator : elevators) {
-          if (elevator.isTakingRequests() && elevator.getCurrentFloor() == 0
-              && !upRequests.isEmpty()) {
-            assignRequestsToElevator(elevator, upRequests);
-            elevator.step();
-          } else {
-            if (elevator.isTakingRequests() && elevator.getCurrentFloor() == this.numberOfFloors - 1
-                && !downRequests.isEmpty()) {
-              assignRequestsToElevator(elevator, downRequests);
-              elevator.step();
-            } else {
-              elevator.step();
-            }
-          }
+        //first the dispatch strategy assigns requests to the elevators,
+        //the elevators do not share anything once they have their requests,
+        //so we can then step them all together
+        if (dwellControl != null) {
+          dwellControl.beforeDispatch(elevators, upRequests, downRequests, this.tick);
+        }
+        dispatchStrategy.dispatch(dispatchContext);
+        if (timers != null) {
+          mark = timers.lap(StepPhase.DISPATCH, mark);
+        }
+        stepElevators();
+        if (timers != null) {
+          mark = timers.lap(StepPhase.STEP_ELEVATORS, mark);
+        }
+        if (waitTracker != null) {
+          waitTracker.afterStep(elevators, this.tick);
+        }
+        BuildingMonitor monitor = this.monitor;
+        if (monitor != null) {
+          monitor.followRiders(elevators, this.tick);
+        }
+        if (dwellControl != null) {
+          dwellControl.afterStep(elevators);
+        }
+        if (timers != null) {
+          timers.lap(StepPhase.TRACKING, mark);
         }
 
+    }
+
+  }
 
+  /**
+   * This method is used to step all the elevators once their requests are assigned.
+   * Large fleets are split across the common fork-join pool when parallel stepping is on,
+   * smaller ones are stepped on the calling thread.
+   */
+  private void stepElevators() {
+    if (this.parallelStepping && this.numberOfElevators >= this.parallelThreshold) {
+      ForkJoinPool pool = ForkJoinPool.commonPool();
+      int pieceSize = Math.max(1, this.numberOfElevators / (4 * pool.getParallelism()));
+      pool.invoke(new FleetStepTask(elevators, 0, this.numberOfElevators, pieceSize));
+    } else {
+      elevators.step();
     }
+  }
+
+  /**
+   * This method is used to turn parallel stepping of the elevators on or off.
+   * Requests are always assigned on the calling thread first,
+   * so the result of a step does not depend on this setting.
+   *
+   * @param parallelStepping true to step the elevators in parallel.
+   */
+  public void setParallelStepping(boolean parallelStepping) {
+    this.parallelStepping = parallelStepping;
+  }
 
+  /**
+   * This method is used to check if parallel stepping of the elevators is on.
+   *
+   * @return true if the elevators are stepped in parallel.
+   */
+  public boolean isParallelStepping() {
+    return this.parallelStepping;
   }
 
   /**
-   * This method is used to assign requests to an elevator.
-   * The requests will be assigned to the elevator until the elevator is full
-   * or there are no more requests.
-   * We will remove the requests from the list of requests after assigning them to the elevator.
-   * The requests are to the right direction of the elevator.
+   * This method is used to choose how waiting requests are handed to the elevators.
+   * It can only be changed while the elevator system is out of service.
+   * The strategy must not be used by another building.
    *
-   * @param elevator the elevator to assign requests to.
-   * @param requests the requests to assign to the elevator.
+   * @param dispatchStrategy the dispatch strategy.
+   * @throws IllegalArgumentException if there is no strategy.
+   * @throws IllegalStateException    if the elevator system is not out of service.
    */
-  private void assignRequestsToElevator(Elevator elevator, List<Request> requests) {
-    List<Request> requestsToElevator = new ArrayList<>();
-    int requestCount = 0;
-    while (requestCount < elevatorCapacity && !requests.isEmpty()) {
-      Request request = requests.get(0);
+  public void setDispatchStrategy(DispatchStrategy dispatchStrategy)
+      throws IllegalArgumentException, IllegalStateException {
+    if (dispatchStrategy == null) {
+      throw new IllegalArgumentException("Dispatch strategy cannot be null.");
+    }
+    if (this.elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException(
+          "Elevator system is not out of service, cannot change dispatch strategy.");
+    }
+    this.dispatchStrategy = dispatchStrategy;
+  }
 
-      requestsToElevator.add(request);
-      requestCount++;
-      requests.remove(0);
+  /**
+   * This method is used to get how waiting requests are handed to the elevators.
+   *
+   * @return the dispatch strategy.
+   */
+  public DispatchStrategy getDispatchStrategy() {
+    return this.dispatchStrategy;
+  }
 
+  /**
+   * This method is used to choose one of the built in dispatch strategies,
+   * see setDispatchStrategy.
+   *
+   * @param dispatchPolicy the dispatch policy.
+   * @throws IllegalArgumentException if the policy is null.
+   * @throws IllegalStateException    if the elevator system is not out of service.
+   */
+  public void setDispatchPolicy(DispatchPolicy dispatchPolicy)
+      throws IllegalArgumentException, IllegalStateException {
+    if (dispatchPolicy == null) {
+      throw new IllegalArgumentException("Dispatch policy cannot be null.");
+    }
+    switch (dispatchPolicy) {
+      case COLLECTIVE:
+        setDispatchStrategy(new CollectiveDispatch());
+        break;
+      case NEAREST_CAR:
+        setDispatchStrategy(new NearestCarDispatch());
+        break;
+      case OPTIMAL:
+        setDispatchStrategy(new OptimalDispatch());
+        break;
+      case DESTINATION:
+        setDispatchStrategy(new DestinationDispatch());
+        break;
+      default:
+        setDispatchStrategy(new TerminalDispatch());
+        break;
     }
-    elevator.processRequests(requestsToElevator);
   }
-}
 
+  /**
+   * This method is used to choose how the elevators travel between their stops.
+   * Under LOOK an elevator given a batch at the bottom or top floor turns around
+   * after its last stop, unless there are requests waiting to go the other way
+   * when it sets off. It can only be changed while the elevator system is out of service.
+   *
+   * @param travelMode the travel mode.
+   * @throws IllegalStateException if the elevator system is not out of service.
+   */
+  public void setTravelMode(TravelMode travelMode) throws IllegalStateException {
+    if (this.elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException(
+          "Elevator system is not out of service, cannot change travel mode.");
+    }
+    this.travelMode = travelMode;
+  }
 
+  /**
+   * This method is used to get how the elevators travel between their stops.
+   *
+   * @return the travel mode.
+   */
+  public TravelMode getTravelMode() {
+    return this.travelMode;
+  }
 
+  /**
+   * This method is used to choose how long the elevators wait at the bottom and top floors.
+   * Under ADAPTIVE an elevator nobody is waiting for sets off at once, and a part-full elevator
+   * is held while requests for its direction are still arriving, at most for the fixed wait.
+   * Choosing a policy starts new dwell statistics.
+   * It can only be changed while the elevator system is out of service.
+   * While the policy is ADAPTIVE, advanceTo and step(n) go through every step.
+   *
+   * @param dwellPolicy the dwell policy.
+   * @throws IllegalStateException if the elevator system is not out of service.
+   */
+  public void setDwellPolicy(DwellPolicy dwellPolicy) throws IllegalStateException {
+    if (this.elevatorSystemStatus != ElevatorSystemStatus.outOfService) {
+      throw new IllegalStateException(
+          "Elevator system is not out of service, cannot change dwell policy.");
+    }
+    this.dwellControl = dwellPolicy == DwellPolicy.ADAPTIVE
+        ? new DwellControl(this.numberOfElevators, this.elevatorCapacity, FIXED_END_WAIT) : null;
+  }
+
+  /**
+   * This method is used to get how long the elevators wait at the bottom and top floors.
+   *
+   * @return the dwell policy.
+   */
+  public DwellPolicy getDwellPolicy() {
+    return this.dwellControl == null ? DwellPolicy.FIXED : DwellPolicy.ADAPTIVE;
+  }
+
+  /**
+   * This method is used to get how long an elevator waited at the bottom and top floors
+   * since the adaptive dwell policy was chosen.
+   *
+   * @param elevator the index of the elevator.
+   * @return the dwell statistics of the elevator, all 0 under the fixed dwell policy.
+   * @throws IllegalArgumentException if there is no elevator with that index.
+   */
+  public DwellStatistics getDwellStatistics(int elevator) throws IllegalArgumentException {
+    if (elevator < 0 || elevator >= this.numberOfElevators) {
+      throw new IllegalArgumentException(
+          "Elevator should be in [0," + (this.numberOfElevators - 1) + "].");
+    }
+    return this.dwellControl == null ? new DwellStatistics(0, 0, 0, 0)
+        : this.dwellControl.statistics(elevator);
+  }
+
+  /**
+   * This method is used to choose how fast every elevator travels between its stops,
+   * see setSpeedProfile(int, SpeedProfile).
+   *
+   * @param speedProfile the speed profile.
+   * @throws IllegalArgumentException if there is no profile.
+   */
+  public void setSpeedProfile(SpeedProfile speedProfile) throws IllegalArgumentException {
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      setSpeedProfile(i, speedProfile);
+    }
+  }
+
+  /**
+   * This method is used to choose how fast an elevator travels between its stops.
+   * A fast elevator runs several floors a step past the floors it does not stop at,
+   * and still stops at every floor it was asked to. It can be changed at any time,
+   * an elevator already moving speeds up or slows down from the speed it has.
+   *
+   * @param elevator     the index of the elevator.
+   * @param speedProfile the speed profile.
+   * @throws IllegalArgumentException if there is no elevator with that index or no profile.
+   */
+  public void setSpeedProfile(int elevator, SpeedProfile speedProfile)
+      throws IllegalArgumentException {
+    if (elevator < 0 || elevator >= this.numberOfElevators) {
+      throw new IllegalArgumentException(
+          "Elevator should be in [0," + (this.numberOfElevators - 1) + "].");
+    }
+    this.elevators.setSpeedProfile(elevator, speedProfile);
+  }
+
+  /**
+   * This method is used to get how fast an elevator travels between its stops.
+   *
+   * @param elevator the index of the elevator.
+   * @return the speed profile of the elevator.
+   * @throws IllegalArgumentException if there is no elevator with that index.
+   */
+  public SpeedProfile getSpeedProfile(int elevator) throws IllegalArgumentException {
+    if (elevator < 0 || elevator >= this.numberOfElevators) {
+      throw new IllegalArgumentException(
+          "Elevator should be in [0," + (this.numberOfElevators - 1) + "].");
+    }
+    return this.elevators.getSpeedProfile(elevator);
+  }
+
+  /**
+   * This method is used to turn measuring how long riders wait on or off.
+   * A rider waits from the tick its request is added to the step the elevator given
+   * the request opens its door at its start floor. Turning it off forgets what was measured.
+   * While it is on, advanceTo and step(n) go through every step.
+   *
+   * @param recording true to measure wait times.
+   */
+  public void setRecordingWaitTimes(boolean recording) {
+    if (!recording) {
+      this.waitTracker = null;
+    } else if (this.waitTracker == null) {
+      this.waitTracker = new WaitTracker(this.numberOfElevators, this.numberOfFloors);
+    }
+  }
+
+  /**
+   * This method is used to check if the building measures how long riders wait.
+   *
+   * @return true if wait times are measured.
+   */
+  public boolean isRecordingWaitTimes() {
+    return this.waitTracker != null;
+  }
+
+  /**
+   * This method is used to get the number of riders picked up since wait times were turned on.
+   *
+   * @return the number of riders picked up, 0 if wait times are not measured.
+   */
+  public long getBoardedCount() {
+    return this.waitTracker == null ? 0 : this.waitTracker.getBoardedCount();
+  }
+
+  /**
+   * This method is used to get the average number of ticks the riders picked up waited.
+   *
+   * @return the average wait, 0 if no rider was picked up or wait times are not measured.
+   */
+  public double getAverageWaitTicks() {
+    long boarded = getBoardedCount();
+    return boarded == 0 ? 0 : (double) this.waitTracker.getTotalWaitTicks() / boarded;
+  }
+
+  /**
+   * This method is used to get the longest number of ticks a rider picked up waited.
+   *
+   * @return the longest wait, 0 if no rider was picked up or wait times are not measured.
+   */
+  public long getLongestWaitTicks() {
+    return this.waitTracker == null ? 0 : this.waitTracker.getLongestWaitTicks();
+  }
+
+  /**
+   * This method is used to get the average number of ticks the riders who got off rode,
+   * from the step the door opened at their start floor to the step it opened at their end floor.
+   * Rides are measured along with wait times.
+   *
+   * @return the average ride, 0 if no rider got off or wait times are not measured.
+   */
+  public double getAverageRideTicks() {
+    long arrived = this.waitTracker == null ? 0 : this.waitTracker.getArrivedCount();
+    return arrived == 0 ? 0 : (double) this.waitTracker.getTotalRideTicks() / arrived;
+  }
+
+  /**
+   * This method is used to get how long the riders picked up waited, with the percentiles
+   * of their waits. Waits are measured along with wait times.
+   *
+   * @return the wait latency, all 0 if wait times are not measured.
+   */
+  public LatencyStatistics getWaitLatency() {
+    return LatencyStatistics.of(getWaitTimes());
+  }
+
+  /**
+   * This method is used to get how long the riders who got off rode, with the percentiles
+   * of their rides. Rides are measured along with wait times.
+   *
+   * @return the ride latency, all 0 if wait times are not measured.
+   */
+  public LatencyStatistics getRideLatency() {
+    return LatencyStatistics.of(getRideTimes());
+  }
+
+  /**
+   * This method is used to get the histogram of how many ticks the riders picked up waited.
+   * It keeps filling while the building runs, and can be read from any thread
+   * without pausing the building, see Histogram.
+   *
+   * @return the histogram of waits, an empty one if wait times are not measured.
+   */
+  public Histogram getWaitTimes() {
+    WaitTracker tracker = this.waitTracker;
+    return tracker == null ? new Histogram(WaitTracker.HIGHEST_TICKS) : tracker.getWaitTimes();
+  }
+
+  /**
+   * This method is used to get the histogram of how many ticks the riders who got off rode.
+   * It keeps filling while the building runs, and can be read from any thread
+   * without pausing the building, see Histogram.
+   *
+   * @return the histogram of rides, an empty one if wait times are not measured.
+   */
+  public Histogram getRideTimes() {
+    WaitTracker tracker = this.waitTracker;
+    return tracker == null ? new Histogram(WaitTracker.HIGHEST_TICKS) : tracker.getRideTimes();
+  }
+
+  /**
+   * This method is used to turn measuring how long every step takes on the wall clock
+   * on or off. Turning it off forgets what was measured.
+   * Steps that advanceTo and step(n) run over at once are not measured.
+   *
+   * @param recording true to measure step times.
+   */
+  public void setRecordingStepTimes(boolean recording) {
+    if (!recording) {
+      this.stepTimes = null;
+    } else if (this.stepTimes == null) {
+      this.stepTimes = new Histogram(HIGHEST_STEP_NANOS);
+    }
+  }
+
+  /**
+   * This method is used to get the histogram of how many nanoseconds every step took.
+   * It keeps filling while the building runs, and can be read from any thread
+   * without pausing the building, see Histogram.
+   *
+   * @return the histogram of step times, an empty one if step times are not measured.
+   */
+  public Histogram getStepTimes() {
+    Histogram stepTimes = this.stepTimes;
+    return stepTimes == null ? new Histogram(HIGHEST_STEP_NANOS) : stepTimes;
+  }
+
+  /**
+   * This method is used to turn timing the phases of every step and of building reports
+   * on or off, see StepPhase. It can be turned on and off while the building runs,
+   * when it is off a step does not read the clock at all.
+   * Steps that advanceTo and step(n) run over at once are not timed.
+   * Turning it off forgets what was timed.
+   *
+   * @param timing true to time the phases.
+   */
+  public void setTimingPhases(boolean timing) {
+    if (!timing) {
+      this.phaseTimers = null;
+    } else if (this.phaseTimers == null) {
+      this.phaseTimers = new PhaseTimers();
+    }
+  }
+
+  /**
+   * This method is used to get how long the building spent in every phase of its work
+   * since timing the phases was turned on.
+   *
+   * @return the phase times, all 0 if the phases are not timed.
+   */
+  public PhaseTimes getPhaseTimes() {
+    PhaseTimers timers = this.phaseTimers;
+    return timers == null ? new PhaseTimes(new long[StepPhase.values().length],
+        new long[StepPhase.values().length]) : timers.times();
+  }
+
+  /**
+   * This method is used to register the building with the platform MBean server,
+   * so JMX consoles can watch its step rate, requests, queues, elevators and status,
+   * see BuildingMonitorMBean. The counts start now. While it is registered, advanceTo
+   * and step(n) go through every step, so the utilization of the elevators is sampled
+   * on every tick. The monitor follows the riders on its own to count completed requests,
+   * whether or not wait times are recorded.
+   *
+   * @param name the name of the building, shown by the consoles.
+   * @return the object name the building is registered under.
+   * @throws IllegalArgumentException if the name is empty or not a valid object name.
+   * @throws IllegalStateException    if the building is already registered,
+   *                                  or the name is taken.
+   */
+  public ObjectName registerMBean(String name)
+      throws IllegalArgumentException, IllegalStateException {
+    if (name == null || name.isEmpty()) {
+      throw new IllegalArgumentException("Name cannot be empty.");
+    }
+    if (this.monitorName != null) {
+      throw new IllegalStateException("Building is already registered as " + this.monitorName);
+    }
+    ObjectName objectName;
+    try {
+      objectName = new ObjectName("building", "name", name);
+    } catch (MalformedObjectNameException e) {
+      throw new IllegalArgumentException("Name is not valid: " + e.getMessage());
+    }
+    BuildingMonitor monitor = new BuildingMonitor(this, this.upRequests, this.downRequests,
+        this.numberOfElevators, this.numberOfFloors);
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(monitor, objectName);
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register " + objectName + ": " + e.getMessage());
+    }
+    this.monitorName = objectName;
+    this.monitor = monitor;
+    return objectName;
+  }
+
+  /**
+   * This method is used to take the building off the platform MBean server.
+   * It does nothing if the building is not registered.
+   *
+   * @throws IllegalStateException if the MBean server cannot take the building off.
+   */
+  public void unregisterMBean() throws IllegalStateException {
+    if (this.monitorName == null) {
+      return;
+    }
+    this.monitor = null;
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(this.monitorName)) {
+        server.unregisterMBean(this.monitorName);
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot unregister " + this.monitorName + ": "
+          + e.getMessage());
+    } finally {
+      this.monitorName = null;
+    }
+  }
+
+  /**
+   * This method is used to get what the building shows JMX consoles while it is registered.
+   *
+   * @return the monitor, or null if the building is not registered.
+   */
+  public BuildingMonitorMBean getMonitor() {
+    return this.monitor;
+  }
+
+  /**
+   * This method is used to set the number of elevators a building needs
+   * before parallel stepping is used. Smaller buildings are always stepped in turn.
+   *
+   * @param parallelThreshold the smallest number of elevators stepped in parallel.
+   * @throws IllegalArgumentException if the threshold is less than 1.
+   */
+  public void setParallelThreshold(int parallelThreshold) throws IllegalArgumentException {
+    if (parallelThreshold < 1) {
+      throw new IllegalArgumentException("Parallel threshold should be at least 1.");
+    }
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * This method is used to step the building several times in one call.
+   * The result is the same as calling step() n times,
+   * but the elevators are run forward through the steps where nothing can happen to them
+   * without going through them one at a time. See advanceTo.
+   *
+   * @param n the number of steps, must not be negative.
+   * @throws IllegalArgumentException if n is negative or would run the tick past Long.MAX_VALUE.
+   */
+  @Override
+  public void step(long n) throws IllegalArgumentException {
+    if (n < 0) {
+      throw new IllegalArgumentException("Number of steps cannot be negative.");
+    }
+    if (n > Long.MAX_VALUE - this.tick) {
+      throw new IllegalArgumentException(
+          "Number of steps would run the tick past " + Long.MAX_VALUE + ".");
+    }
+    advanceTo(this.tick + n);
+  }
+
+  /**
+   * This method is used to run the building up to a tick.
+   * The result is the same as calling step() until getTick() returns targetTick.
+   * While the building is running, an elevator only has to be looked at on the steps
+   * where it may be given requests: when it is taking requests at the bottom floor
+   * while there are up requests, or at the top floor while there are down requests.
+   * Those steps are kept in a priority queue and the elevators jump straight from one
+   * to the next, counting down doors and waits and running between stops in one go.
+   * While the building is stopping, the elevators run down to the ground floor in one go.
+   * While the building is registered with the MBean server, every step is taken.
+   *
+   * @param targetTick the tick to run the building to.
+   * @throws IllegalArgumentException if the tick is before the current tick.
+   */
+  public void advanceTo(long targetTick) throws IllegalArgumentException {
+    if (targetTick < this.tick) {
+      throw new IllegalArgumentException("Cannot advance to a tick that has already passed.");
+    }
+    if (targetTick == this.tick) {
+      return;
+    }
+    //requests submitted during the advance wait for the next call
+    takeSubmittedRequests();
+    if (this.monitor != null) {
+      //a registered building samples its elevators on every tick, see registerMBean
+      while (this.tick < targetTick) {
+        step();
+      }
+      return;
+    }
+    if (this.elevatorSystemStatus == ElevatorSystemStatus.stopping) {
+      advanceWhileStopping(targetTick);
+    }
+    if (this.elevatorSystemStatus != ElevatorSystemStatus.running) {
+      //either still stopping at the target tick,
+      //or out of service, where nothing moves
+      this.tick = targetTick;
+      return;
+    }
+
+    if (!canFastForward()) {
+      while (this.tick < targetTick) {
+        step();
+      }
+      return;
+    }
+
+    //the event queue only holds ticks up to MAX_SPAN from where it starts,
+    //so a longer advance is run in windows of that many ticks
+    while (this.tick < targetTick) {
+      advanceEvents(targetTick - this.tick < TickEventQueue.MAX_SPAN
+          ? targetTick : this.tick + TickEventQueue.MAX_SPAN - 1);
+    }
+  }
+
+  /**
+   * This method is used to run a running building up to a tick from event to event,
+   * for a dispatch strategy that can be fast forwarded.
+   * The tick must be less than TickEventQueue.MAX_SPAN ticks ahead of the current tick.
+   *
+   * @param targetTick the tick to run the building to.
+   */
+  private void advanceEvents(long targetTick) {
+    //no requests arrive while we advance, so the queues can only get shorter,
+    //and an elevator that cannot be given requests now will not be given any
+    //until it next takes requests at the end of the building whose queue is not empty
+    events.clear(this.tick);
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      syncedTicks[i] = this.tick;
+      scheduleNextEvent(i, targetTick);
+    }
+    TerminalDispatch terminalDispatch = (TerminalDispatch) dispatchStrategy;
+    while (!events.isEmpty()) {
+      long eventTick = events.peekTick();
+      int elevator = events.poll();
+      elevators.advance(elevator, eventTick - syncedTicks[elevator]);
+      //the strategy sees the tick of the step it would have been called on
+      this.tick = eventTick + 1;
+      terminalDispatch.dispatch(dispatchContext, elevator);
+      elevators.advance(elevator, 1);
+      syncedTicks[elevator] = eventTick + 1;
+      scheduleNextEvent(elevator, targetTick);
+    }
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      elevators.advance(i, targetTick - syncedTicks[i]);
+    }
+    this.tick = targetTick;
+  }
+
+  /**
+   * This method is used to check if a running building can be run forward without stepping
+   * through every tick. Only terminal batching with a fixed dwell can be jumped over,
+   * and measuring wait times needs to look at every elevator on every step.
+   *
+   * @return true if advanceTo can jump over the steps where nothing happens.
+   */
+  private boolean canFastForward() {
+    return this.dispatchStrategy instanceof TerminalDispatch
+        && this.dispatchStrategy.canFastForward() && this.waitTracker == null
+        && this.dwellControl == null;
+  }
+
+  /**
+   * This method is used to run a stopping building up to a tick.
+   * The elevators are out of service and only run down to the ground floor and open their doors,
+   * so we can tell when the last one will get there. The building goes out of service
+   * at the end of the first step after which every elevator is there.
+   *
+   * @param targetTick the tick to run the building to.
+   */
+  private void advanceWhileStopping(long targetTick) {
+    long lastAtRest = 1;
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      lastAtRest = Math.max(lastAtRest, elevators.ticksUntilAtRest(i));
+    }
+    long ticks = Math.min(lastAtRest, targetTick - this.tick);
+    for (int i = 0; i < this.numberOfElevators; i++) {
+      elevators.advance(i, ticks);
+    }
+    this.tick += ticks;
+    if (ticks == lastAtRest) {
+      this.elevatorSystemStatus = ElevatorSystemStatus.outOfService;
+    }
+  }
+
+  /**
+   * This method is used to put the next step where an elevator may be given requests
+   * in the event queue, if it comes before the target tick.
+   *
+   * @param elevator   the index of the elevator.
+   * @param targetTick the tick the building is advancing to.
+   */
+  private void scheduleNextEvent(int elevator, long targetTick) {
+    long wait = Long.MAX_VALUE;
+    if (!upRequests.isEmpty()) {
+      wait = elevators.ticksUntilTakingRequestsAt(elevator, 0);
+    }
+    if (!downRequests.isEmpty()) {
+      wait = Math.min(wait,
+          elevators.ticksUntilTakingRequestsAt(elevator, this.numberOfFloors - 1));
+    }
+    if (wait < targetTick - syncedTicks[elevator]) {
+      events.add(syncedTicks[elevator] + wait, elevator);
+    }
+  }
+
+  /**
+   * What the dispatch strategy sees of the building.
+   */
+  private class Context implements DispatchContext {
+
+    @Override
+    public int getNumberOfFloors() {
+      return numberOfFloors;
+    }
+
+    @Override
+    public int getElevatorCapacity() {
+      return elevatorCapacity;
+    }
+
+    @Override
+    public long getTick() {
+      return tick;
+    }
+
+    @Override
+    public FleetView getFleet() {
+      return elevators;
+    }
+
+    @Override
+    public RequestQueue getUpRequests() {
+      return upRequests;
+    }
+
+    @Override
+    public RequestQueue getDownRequests() {
+      return downRequests;
+    }
+
+    @Override
+    public boolean isHolding(int elevator) {
+      return dwellControl != null && dwellControl.isHolding(elevator);
+    }
+
+    @Override
+    public void assign(int elevator, long[] requests, int count) throws IllegalStateException {
+      DispatchEvent.record(tick, elevators.getElevatorId(elevator), count,
+          elevators.getCurrentFloor(elevator));
+      elevators.processRequests(elevator, requests, count);
+      if (travelMode == TravelMode.LOOK) {
+        //an elevator that turns early only comes back for the requests it set off for,
+        //so it runs to the far end while anybody is waiting to go the other way
+        RequestQueue otherWay = elevators.getDirection(elevator) == Direction.UP
+            ? downRequests : upRequests;
+        if (otherWay.isEmpty()) {
+          elevators.turnAtLastStop(elevator);
+        }
+      }
+      if (waitTracker != null) {
+        waitTracker.assigned(elevator, requests, count, tick);
+      }
+      BuildingMonitor buildingMonitor = monitor;
+      if (buildingMonitor != null) {
+        buildingMonitor.assigned(elevator, requests, count, tick);
+      }
+    }
+  }
+}
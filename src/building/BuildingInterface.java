@@ -1,5 +1,6 @@
 package building;
 
+import java.util.Collection;
 import scanerzus.Request;
 
 /**
@@ -15,6 +16,33 @@ public interface BuildingInterface {
    */
   public boolean addRequests(Request request);
 
+  /**
+   * This method is used to add a batch of requests to the building.
+   * Invalid requests are reported instead of stopping the batch.
+   *
+   * @param requests the requests to be added.
+   * @return how many requests were added, and which were not and why.
+   */
+  public RequestBatchReport addRequests(Collection<Request> requests);
+
+  /**
+   * This method is used to add a batch of requests, given as their start and end floors.
+   * Invalid requests are reported instead of stopping the batch.
+   *
+   * @param startFloors the start floor of every request.
+   * @param endFloors   the end floor of every request.
+   * @return how many requests were added, and which were not and why.
+   */
+  public RequestBatchReport addRequests(int[] startFloors, int[] endFloors);
+
+  /**
+   * This method is used to add a request to the building from any thread.
+   * The request is taken by the building at the start of its next step.
+   *
+   * @param request the request to be added.
+   */
+  public void submitRequest(Request request);
+
   /**
    * This method is used to remove all requests from the building.
    *
@@ -43,5 +71,13 @@ public interface BuildingInterface {
    */
   public void step();
 
+  /**
+   * This method is used to step the building several times in one call.
+   * The result is the same as calling step() n times.
+   *
+   * @param n the number of steps, must not be negative.
+   */
+  public void step(long n);
+
 
 }
@@ -0,0 +1,99 @@
+package building;
+
+import scanerzus.PackedRequest;
+
+
+/**
+ * This class holds the largest building the simulation accepts.
+ * The default limits are the city bylaws and fire code the simulation was written for:
+ * 30 floors, 10 elevators and 20 people per elevator.
+ * Larger towers can be modelled by building with a larger profile.
+ */
+public final class BuildingLimits {
+
+  /**
+   * The limits of the city bylaws and fire code: 30 floors, 10 elevators, capacity 20.
+   */
+  public static final BuildingLimits DEFAULT = new BuildingLimits(30, 10, 20);
+
+  /**
+   * The most floors any profile can allow, set by the packed requests of the building.
+   */
+  public static final int MAX_SUPPORTED_FLOORS = PackedRequest.MAX_FLOOR + 1;
+
+  /**
+   * The most elevators any profile can allow, set by the event queue of the building.
+   */
+  public static final int MAX_SUPPORTED_ELEVATORS = 1 << TickEventQueue.ELEVATOR_BITS;
+
+  private final int maxFloors;
+  private final int maxElevators;
+  private final int maxCapacity;
+
+
+  /**
+   * The constructor for a limits profile.
+   *
+   * @param maxFloors    the largest number of floors of a building.
+   * @param maxElevators the largest number of elevators of a building.
+   * @param maxCapacity  the largest capacity of an elevator.
+   * @throws IllegalArgumentException if a limit is below the smallest building
+   *                                  (3 floors, 1 elevator, capacity 3)
+   *                                  or above what the simulation supports.
+   */
+  public BuildingLimits(int maxFloors, int maxElevators, int maxCapacity)
+      throws IllegalArgumentException {
+    if (maxFloors < 3 || maxFloors > MAX_SUPPORTED_FLOORS) {
+      throw new IllegalArgumentException(
+          "Floor limit should be in [3," + MAX_SUPPORTED_FLOORS + "].");
+    }
+    if (maxElevators < 1 || maxElevators > MAX_SUPPORTED_ELEVATORS) {
+      throw new IllegalArgumentException(
+          "Elevator limit should be in [1," + MAX_SUPPORTED_ELEVATORS + "].");
+    }
+    if (maxCapacity < 3) {
+      throw new IllegalArgumentException("Capacity limit should be at least 3.");
+    }
+    this.maxFloors = maxFloors;
+    this.maxElevators = maxElevators;
+    this.maxCapacity = maxCapacity;
+  }
+
+  /**
+   * This method is used to get the largest number of floors of a building.
+   *
+   * @return the largest number of floors.
+   */
+  public int getMaxFloors() {
+    return this.maxFloors;
+  }
+
+  /**
+   * This method is used to get the largest number of elevators of a building.
+   *
+   * @return the largest number of elevators.
+   */
+  public int getMaxElevators() {
+    return this.maxElevators;
+  }
+
+  /**
+   * This method is used to get the largest capacity of an elevator.
+   *
+   * @return the largest capacity of an elevator.
+   */
+  public int getMaxCapacity() {
+    return this.maxCapacity;
+  }
+
+  /**
+   * This method is used to get a string representation of the limits.
+   *
+   * @return the string representation of the limits.
+   */
+  @Override
+  public String toString() {
+    return "Limits[floors " + this.maxFloors + ", elevators " + this.maxElevators
+        + ", capacity " + this.maxCapacity + "]";
+  }
+}
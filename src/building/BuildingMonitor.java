@@ -0,0 +1,218 @@
+package building;
+
+import elevator.FleetInterface;
+import elevator.FleetView;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * This class counts what a building does for JMX consoles, see BuildingMonitorMBean.
+ * The building adds to the counters as it steps and takes requests, which takes no lock
+ * and makes no garbage, and the requests submitted from other threads are counted
+ * on those threads, so the counters are striped. A console reads them from its own thread
+ * while the building runs, and the queue depths and status it reads may be a step behind.
+ * Reading does not change anything, so any number of consoles can watch the same building.
+ * The monitor follows the riders of the requests given out while it watches on its own,
+ * whether or not the building records wait times, to count the ones who got off.
+ */
+public final class BuildingMonitor implements BuildingMonitorMBean {
+
+  //the length of the window the tick rate is measured over, a second
+  private static final long WINDOW_NANOS = 1_000_000_000L;
+
+  private final Building building;
+  private final RequestQueue upRequests;
+  private final RequestQueue downRequests;
+
+  private final LongAdder ticks = new LongAdder();
+  private final LongAdder accepted = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  //the ticks every elevator had stops to make or its door open
+  private final LongAdder[] busyTicks;
+  //the riders of the requests given out since the building was registered
+  private final WaitTracker riders;
+
+  //the window the tick rate is being measured over, only moved on by the building
+  private volatile RateWindow window = new RateWindow(System.nanoTime(), 0, Double.NaN);
+
+
+  /**
+   * The constructor for the monitor of a building.
+   *
+   * @param building          the building.
+   * @param upRequests        the requests of the building waiting to go up.
+   * @param downRequests      the requests of the building waiting to go down.
+   * @param numberOfElevators the number of elevators of the building.
+   * @param numberOfFloors    the number of floors of the building.
+   */
+  BuildingMonitor(Building building, RequestQueue upRequests, RequestQueue downRequests,
+                  int numberOfElevators, int numberOfFloors) {
+    this.building = building;
+    this.upRequests = upRequests;
+    this.downRequests = downRequests;
+    this.busyTicks = new LongAdder[numberOfElevators];
+    for (int i = 0; i < numberOfElevators; i++) {
+      this.busyTicks[i] = new LongAdder();
+    }
+    this.riders = new WaitTracker(numberOfElevators, numberOfFloors);
+  }
+
+  /**
+   * Count a step of the building, and the elevators that were busy at the end of it.
+   *
+   * @param fleet the elevators of the building.
+   */
+  void stepped(FleetView fleet) {
+    for (int i = 0; i < this.busyTicks.length; i++) {
+      if (fleet.getStopCount(i) > 0 || !fleet.isDoorClosed(i)) {
+        this.busyTicks[i].increment();
+      }
+    }
+    advanced(1);
+  }
+
+  /**
+   * Count ticks the building ran, and move the window of the tick rate on
+   * once it is a second long. Only the thread running the building calls this.
+   *
+   * @param count the number of ticks.
+   */
+  private void advanced(long count) {
+    this.ticks.add(count);
+    RateWindow window = this.window;
+    long now = System.nanoTime();
+    if (now - window.startNanos >= WINDOW_NANOS) {
+      long ticks = this.ticks.sum();
+      this.window = new RateWindow(now, ticks, window.rateSince(now, ticks));
+    }
+  }
+
+  /**
+   * Count requests the building took.
+   *
+   * @param count the number of requests.
+   */
+  void accepted(int count) {
+    this.accepted.add(count);
+  }
+
+  /**
+   * Count requests the building turned down.
+   *
+   * @param count the number of requests.
+   */
+  void rejected(int count) {
+    this.rejected.add(count);
+  }
+
+  /**
+   * Start following the riders of the requests given to an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @param requests the packed requests.
+   * @param count    the number of requests at the start of the array.
+   * @param tick     the current tick of the building.
+   */
+  void assigned(int elevator, long[] requests, int count, long tick) {
+    this.riders.assigned(elevator, requests, count, tick);
+  }
+
+  /**
+   * Board and let off the riders where the elevators have their doors open after a step,
+   * and count the riders who got off at their end floor.
+   *
+   * @param fleet the elevators of the building.
+   * @param tick  the tick of the step.
+   */
+  void followRiders(FleetInterface fleet, long tick) {
+    long arrived = this.riders.getArrivedCount();
+    this.riders.afterStep(fleet, tick);
+    this.completed.add(this.riders.getArrivedCount() - arrived);
+  }
+
+  /**
+   * Stop following the riders still waiting, when their requests are dropped.
+   */
+  void clearWaiting() {
+    this.riders.clearWaiting();
+  }
+
+  @Override
+  public double getTicksPerSecond() {
+    RateWindow window = this.window;
+    long now = System.nanoTime();
+    if (now - window.startNanos < WINDOW_NANOS && !Double.isNaN(window.lastRate)) {
+      return window.lastRate;
+    }
+    //in the first second there is no last rate yet, and once the window is over
+    //the building has not run since, so the rate falls as it waits
+    return window.rateSince(now, this.ticks.sum());
+  }
+
+  @Override
+  public long getTicks() {
+    return this.ticks.sum();
+  }
+
+  @Override
+  public long getRequestsAccepted() {
+    return this.accepted.sum();
+  }
+
+  @Override
+  public long getRequestsRejected() {
+    return this.rejected.sum();
+  }
+
+  @Override
+  public long getRequestsCompleted() {
+    return this.completed.sum();
+  }
+
+  @Override
+  public int getUpRequests() {
+    return this.upRequests.size();
+  }
+
+  @Override
+  public int getDownRequests() {
+    return this.downRequests.size();
+  }
+
+  @Override
+  public double[] getElevatorUtilization() {
+    long sampled = this.ticks.sum();
+    double[] utilization = new double[this.busyTicks.length];
+    for (int i = 0; i < utilization.length; i++) {
+      utilization[i] = sampled == 0 ? 0
+          : Math.min(1, (double) this.busyTicks[i].sum() / sampled);
+    }
+    return utilization;
+  }
+
+  @Override
+  public String getSystemStatus() {
+    return this.building.getElevatorSystemStatus().toString();
+  }
+
+  /**
+   * The start of the window the tick rate is measured over, and the rate of the last one,
+   * NaN for the first window.
+   */
+  private static final class RateWindow {
+    private final long startNanos;
+    private final long startTicks;
+    private final double lastRate;
+
+    private RateWindow(long startNanos, long startTicks, double lastRate) {
+      this.startNanos = startNanos;
+      this.startTicks = startTicks;
+      this.lastRate = lastRate;
+    }
+
+    private double rateSince(long now, long ticks) {
+      return now == this.startNanos ? 0 : (ticks - this.startTicks) * 1e9 / (now - this.startNanos);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package building;
+
+
+/**
+ * What a building shows of itself to JMX consoles, see Building.registerMBean.
+ * The counts start when the building is registered.
+ */
+public interface BuildingMonitorMBean {
+
+  /**
+   * Returns the number of ticks the building ran a second, over the last whole second
+   * it ran, or since it was registered during the first second. If the building has not run
+   * for more than a second, the rate since the last whole second, which falls as it waits.
+   *
+   * @return the steps a second.
+   */
+  double getTicksPerSecond();
+
+  /**
+   * Returns the number of ticks the building ran since it was registered,
+   * stepped one at a time or by advanceTo and step(n).
+   *
+   * @return the number of ticks.
+   */
+  long getTicks();
+
+  /**
+   * Returns the number of requests the building took since it was registered.
+   *
+   * @return the number of requests accepted.
+   */
+  long getRequestsAccepted();
+
+  /**
+   * Returns the number of requests the building turned down since it was registered,
+   * because their floors were not valid or the building was not running.
+   *
+   * @return the number of requests rejected.
+   */
+  long getRequestsRejected();
+
+  /**
+   * Returns the number of riders who got off at their end floor since the building was
+   * registered, of the requests given to the elevators since then.
+   *
+   * @return the number of requests completed.
+   */
+  long getRequestsCompleted();
+
+  /**
+   * Returns the number of requests waiting to go up.
+   *
+   * @return the number of up requests.
+   */
+  int getUpRequests();
+
+  /**
+   * Returns the number of requests waiting to go down.
+   *
+   * @return the number of down requests.
+   */
+  int getDownRequests();
+
+  /**
+   * Returns the share of the steps since the building was registered
+   * that every elevator had stops to make or its door open.
+   *
+   * @return the utilization of every elevator, from 0 to 1.
+   */
+  double[] getElevatorUtilization();
+
+  /**
+   * Returns the status of the elevator system.
+   *
+   * @return the system status.
+   */
+  String getSystemStatus();
+}
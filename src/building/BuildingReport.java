@@ -41,14 +41,42 @@ public class BuildingReport {
                         List<Request> upRequests,
                         List<Request> downRequests,
                         ElevatorSystemStatus systemStatus) {
-    if (numFloors < 3 || numFloors > 30) {
-      throw new IllegalArgumentException("Number of floors must be between 3 and 30");
+    this(numFloors, numElevators, elevatorCapacity, elevatorsReports, upRequests, downRequests,
+        systemStatus, BuildingLimits.DEFAULT);
+  }
+
+  /**
+   * This constructor is used to create a new BuildingReport object
+   * for a building with its own limits.
+   *
+   * @param numFloors        The number of floors in the building.
+   * @param numElevators     The number of elevators in the building.
+   * @param elevatorCapacity The capacity of the elevators.
+   * @param elevatorsReports The status of the elevators.
+   * @param upRequests       The up requests for the elevators.
+   * @param downRequests     The down requests for the elevators.
+   * @param systemStatus     The status of the elevator system.
+   * @param limits           The limits of the building.
+   */
+  public BuildingReport(int numFloors,
+                        int numElevators,
+                        int elevatorCapacity,
+                        ElevatorReport[] elevatorsReports,
+                        List<Request> upRequests,
+                        List<Request> downRequests,
+                        ElevatorSystemStatus systemStatus,
+                        BuildingLimits limits) {
+    if (numFloors < 3 || numFloors > limits.getMaxFloors()) {
+      throw new IllegalArgumentException(
+          "Number of floors must be between 3 and " + limits.getMaxFloors());
     }
-    if (numElevators < 1 || numElevators > 10) {
-      throw new IllegalArgumentException("Number of elevators must be between 1 and 10");
+    if (numElevators < 1 || numElevators > limits.getMaxElevators()) {
+      throw new IllegalArgumentException(
+          "Number of elevators must be between 1 and " + limits.getMaxElevators());
     }
-    if (elevatorCapacity < 3 || elevatorCapacity > 20) {
-      throw new IllegalArgumentException("Elevator capacity must be between 1 and 20");
+    if (elevatorCapacity < 3 || elevatorCapacity > limits.getMaxCapacity()) {
+      throw new IllegalArgumentException(
+          "Elevator capacity must be between 1 and " + limits.getMaxCapacity());
     }
     this.numFloors = numFloors;
     this.numElevators = numElevators;
@@ -0,0 +1,114 @@
+package building;
+
+import building.enums.Direction;
+import elevator.FleetView;
+import java.util.function.LongPredicate;
+import scanerzus.PackedRequest;
+
+
+/**
+ * The dispatch strategy for collective control.
+ * Elevators are given batches at the bottom and top floors like in terminal batching,
+ * and on their way they also pick up the waiting requests ahead of them going the same way,
+ * as long as they have room for them (see RunLoad).
+ */
+public class CollectiveDispatch extends TerminalDispatch {
+
+  private int numberOfFloors;
+  private int capacity;
+  //the riders of every run, made the first time the strategy sees the building
+  private RunLoad load;
+  //the requests picked up on the way
+  private long[] picked;
+
+  //the elevator being picked for, read by the test of the requests
+  private int elevator;
+  private boolean up;
+  private int nearest;
+  private final LongPredicate fits = this::fits;
+
+
+  @Override
+  protected void startedRun(DispatchContext context, int elevator, long[] requests, int count) {
+    ensureState(context);
+    this.load.startRun(elevator, context.getFleet().getDirection(elevator), requests, count);
+  }
+
+  /**
+   * Give an elevator moving between the bottom and top floor the waiting requests
+   * it can pick up on its way, oldest first.
+   * The requests must be going the same way as the elevator, start at or ahead of it,
+   * at least its stopping distance away, and fit in the elevator with the riders of its run.
+   * At most capacity requests are picked at a time, the rest can be picked on the next step.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param elevator the index of the elevator.
+   */
+  @Override
+  protected void dispatchOnTheWay(DispatchContext context, int elevator) {
+    ensureState(context);
+    FleetView fleet = context.getFleet();
+    Direction direction = fleet.getDirection(elevator);
+    int floor = fleet.getCurrentFloor(elevator);
+    if (floor == 0 || floor == this.numberOfFloors - 1
+        || (direction != Direction.UP && direction != Direction.DOWN)) {
+      return;
+    }
+    this.load.follow(elevator, direction);
+    RequestQueue queue = direction == Direction.UP
+        ? context.getUpRequests() : context.getDownRequests();
+    if (queue.isEmpty()) {
+      return;
+    }
+    this.elevator = elevator;
+    this.up = direction == Direction.UP;
+    //a floor whose door is open now cannot be stopped at again on this run,
+    //and a moving elevator cannot stop closer than its stopping distance
+    int step = fleet.isDoorClosed(elevator) ? fleet.getStoppingDistance(elevator) : 1;
+    this.nearest = this.up ? floor + step : floor - step;
+    int count = queue.pollMatching(this.fits, this.capacity, this.picked);
+    if (count > 0) {
+      context.assign(elevator, this.picked, count);
+    }
+  }
+
+  /**
+   * Collective control looks at every elevator on every step.
+   *
+   * @return false.
+   */
+  @Override
+  public boolean canFastForward() {
+    return false;
+  }
+
+  /**
+   * Make the state of the runs the first time the strategy sees the building.
+   *
+   * @param context the elevators and waiting requests of the building.
+   */
+  private void ensureState(DispatchContext context) {
+    if (this.load != null) {
+      return;
+    }
+    this.numberOfFloors = context.getNumberOfFloors();
+    this.capacity = context.getElevatorCapacity();
+    this.load = new RunLoad(context.getFleet().size(), this.numberOfFloors, this.capacity);
+    this.picked = new long[this.capacity];
+  }
+
+  /**
+   * Test if a request can be picked up by the elevator being picked for,
+   * and count its rider on board if it can.
+   *
+   * @param request the packed request.
+   * @return true if the request is picked up.
+   */
+  private boolean fits(long request) {
+    int start = PackedRequest.startFloor(request);
+    if (this.up ? start < this.nearest : start > this.nearest) {
+      return false;
+    }
+    return this.load.tryBoard(this.elevator, request);
+  }
+}
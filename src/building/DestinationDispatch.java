@@ -0,0 +1,138 @@
+package building;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+import scanerzus.PackedRequest;
+
+
+/**
+ * The dispatch strategy for destination dispatch.
+ * Elevators are given batches at the bottom and top floors like in terminal batching,
+ * but a batch is made of riders that share stops instead of the oldest ones.
+ * The oldest waiting request always goes, so nobody is passed over for ever,
+ * and the elevator is then filled from the oldest lookahead full elevators of requests
+ * with the ones that add the fewest new stops, and of those the ones closest
+ * to the stops it has, so every elevator serves a small run of floors next to each other.
+ */
+public class DestinationDispatch extends TerminalDispatch {
+
+  /**
+   * The number of full elevators of waiting requests a batch is picked from,
+   * unless chosen otherwise.
+   */
+  public static final int DEFAULT_LOOKAHEAD = 4;
+
+  private final int lookahead;
+
+  //the floors the batch being made stops at, and the requests picked for it
+  private boolean[] stop = new boolean[0];
+  private boolean[] picked = new boolean[0];
+  private int lowest;
+  private int highest;
+  private int next;
+  private final LongPredicate wasPicked = request -> this.picked[this.next++];
+
+
+  /**
+   * The constructor for destination dispatch with the default lookahead.
+   */
+  public DestinationDispatch() {
+    this(DEFAULT_LOOKAHEAD);
+  }
+
+  /**
+   * The constructor for destination dispatch.
+   *
+   * @param lookahead the number of full elevators of waiting requests a batch is picked from.
+   * @throws IllegalArgumentException if the lookahead is less than 1.
+   */
+  public DestinationDispatch(int lookahead) throws IllegalArgumentException {
+    if (lookahead < 1) {
+      throw new IllegalArgumentException("Lookahead should be at least 1.");
+    }
+    this.lookahead = lookahead;
+  }
+
+  /**
+   * This method is used to get the number of full elevators of waiting requests
+   * a batch is picked from.
+   *
+   * @return the lookahead.
+   */
+  public int getLookahead() {
+    return this.lookahead;
+  }
+
+  /**
+   * This method is used to take the batch of an elevator leaving the bottom or top floor:
+   * the oldest request, then the requests adding the fewest stops to the batch.
+   * The batch keeps the order of the queue.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param requests the queue of requests in the direction the elevator will leave in.
+   * @param into     the array to put the packed requests into, with room for a full elevator.
+   * @return the number of requests taken.
+   */
+  @Override
+  protected int takeBatch(DispatchContext context, RequestQueue requests, long[] into) {
+    int capacity = context.getElevatorCapacity();
+    int window = (int) Math.min(requests.size(), (long) capacity * this.lookahead);
+    if (window <= capacity) {
+      //they all fit
+      return requests.pollBatch(capacity, into);
+    }
+    int numberOfFloors = context.getNumberOfFloors();
+    if (this.stop.length < numberOfFloors) {
+      this.stop = new boolean[numberOfFloors];
+    }
+    if (this.picked.length < window) {
+      this.picked = new boolean[window];
+    }
+    this.lowest = PackedRequest.startFloor(requests.get(0));
+    this.highest = this.lowest;
+    pick(requests, 0);
+    for (int count = 1; count < capacity; count++) {
+      int best = -1;
+      long bestKey = Long.MAX_VALUE;
+      for (int i = 1; i < window && bestKey > 0; i++) {
+        if (this.picked[i]) {
+          continue;
+        }
+        long request = requests.get(i);
+        int start = PackedRequest.startFloor(request);
+        int end = PackedRequest.endFloor(request);
+        int newStops = (this.stop[start] ? 0 : 1) + (this.stop[end] ? 0 : 1);
+        int spread = Math.max(this.highest, Math.max(start, end))
+            - Math.min(this.lowest, Math.min(start, end)) - (this.highest - this.lowest);
+        long key = (long) newStops * numberOfFloors + spread;
+        if (key < bestKey) {
+          best = i;
+          bestKey = key;
+        }
+      }
+      pick(requests, best);
+    }
+    this.next = 0;
+    int count = requests.pollMatching(this.wasPicked, capacity, into);
+    for (int i = 0; i < count; i++) {
+      this.stop[PackedRequest.startFloor(into[i])] = false;
+      this.stop[PackedRequest.endFloor(into[i])] = false;
+    }
+    Arrays.fill(this.picked, 0, window, false);
+    return count;
+  }
+
+  /**
+   * Pick a request of the queue for the batch being made and add its stops.
+   */
+  private void pick(RequestQueue requests, int index) {
+    long request = requests.get(index);
+    int start = PackedRequest.startFloor(request);
+    int end = PackedRequest.endFloor(request);
+    this.picked[index] = true;
+    this.stop[start] = true;
+    this.stop[end] = true;
+    this.lowest = Math.min(this.lowest, Math.min(start, end));
+    this.highest = Math.max(this.highest, Math.max(start, end));
+  }
+}
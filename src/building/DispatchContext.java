@@ -0,0 +1,77 @@
+package building;
+
+import elevator.FleetView;
+
+
+/**
+ * An interface for what a dispatch strategy sees of a building before a step:
+ * its size, its elevators, read only, and its queues of waiting requests.
+ * A strategy removes the requests it hands out from the queues and gives them to an elevator
+ * with assign, which is the only way it can change an elevator.
+ */
+public interface DispatchContext {
+
+  /**
+   * This method is used to get the number of floors of the building.
+   *
+   * @return the number of floors.
+   */
+  int getNumberOfFloors();
+
+  /**
+   * This method is used to get the capacity of the elevators of the building.
+   *
+   * @return the capacity of an elevator.
+   */
+  int getElevatorCapacity();
+
+  /**
+   * This method is used to get the current tick of the building.
+   *
+   * @return the number of steps the building has taken.
+   */
+  long getTick();
+
+  /**
+   * This method is used to look at the elevators of the building.
+   *
+   * @return a read-only view of the elevators.
+   */
+  FleetView getFleet();
+
+  /**
+   * This method is used to get the waiting up requests, oldest first.
+   *
+   * @return the queue of up requests.
+   */
+  RequestQueue getUpRequests();
+
+  /**
+   * This method is used to get the waiting down requests, oldest first.
+   *
+   * @return the queue of down requests.
+   */
+  RequestQueue getDownRequests();
+
+  /**
+   * This method is used to check if the building is holding an elevator at the bottom
+   * or top floor to wait for more requests, see DwellPolicy. A held elevator is still
+   * taking requests but must not be given any on this step.
+   *
+   * @param elevator the index of the elevator.
+   * @return true if the elevator is held.
+   */
+  boolean isHolding(int elevator);
+
+  /**
+   * This method is used to give requests taken from the queues to an elevator.
+   * At the bottom or top floor they replace the stops of the elevator and send it off,
+   * anywhere else they must start and end ahead of it.
+   *
+   * @param elevator the index of the elevator.
+   * @param requests the packed requests.
+   * @param count    the number of requests at the start of the array.
+   * @throws IllegalStateException if the elevator cannot take the requests.
+   */
+  void assign(int elevator, long[] requests, int count) throws IllegalStateException;
+}
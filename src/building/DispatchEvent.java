@@ -0,0 +1,50 @@
+package building;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The Java Flight Recorder event of a batch of requests handed to an elevator.
+ */
+@Name("elevator.Dispatch")
+@Label("Dispatch")
+@Category({"Elevator Simulation", "Building"})
+@Description("A batch of requests handed to an elevator.")
+final class DispatchEvent extends Event {
+
+  @Label("Tick")
+  long tick;
+
+  @Label("Elevator Id")
+  int elevatorId;
+
+  @Label("Batch Size")
+  int batchSize;
+
+  @Label("Floor")
+  @Description("The floor the elevator was at when it was given the batch.")
+  int floor;
+
+  /**
+   * Record that an elevator was given a batch of requests, if the event is being recorded.
+   *
+   * @param tick       the tick of the building.
+   * @param elevatorId the id of the elevator.
+   * @param batchSize  the number of requests in the batch.
+   * @param floor      the floor the elevator is at.
+   */
+  static void record(long tick, int elevatorId, int batchSize, int floor) {
+    DispatchEvent event = new DispatchEvent();
+    if (event.shouldCommit()) {
+      event.tick = tick;
+      event.elevatorId = elevatorId;
+      event.batchSize = batchSize;
+      event.floor = floor;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package building;
+
+
+/**
+ * An interface for the ways a building can hand its waiting requests to its elevators.
+ * Before every step of a running building the strategy looks at the elevators and the
+ * waiting requests through the dispatch context, takes the requests it hands out
+ * from the queues and gives them to the elevators with assign.
+ * A strategy can keep state between steps, so an instance belongs to a single building.
+ */
+public interface DispatchStrategy {
+
+  /**
+   * This method is used to hand out waiting requests before a step of the building.
+   *
+   * @param context the elevators and waiting requests of the building.
+   */
+  void dispatch(DispatchContext context);
+
+  /**
+   * This method is used to check if the building can jump over the steps where
+   * nothing happens, see Building.advanceTo. That is only the case for terminal batching,
+   * which only gives requests to elevators waiting at the bottom or top floor.
+   *
+   * @return true if the strategy hands out requests exactly like TerminalDispatch.
+   */
+  default boolean canFastForward() {
+    return false;
+  }
+}
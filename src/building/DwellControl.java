@@ -0,0 +1,146 @@
+package building;
+
+import elevator.FleetInterface;
+import java.util.Arrays;
+
+
+/**
+ * This class decides how long the elevators wait at the bottom and top floors
+ * under the adaptive dwell policy, and counts how long they waited.
+ * Before every step it looks at the elevators taking requests there:
+ * an elevator nobody is waiting for sets off at once, an elevator that can be filled
+ * is left to the dispatch strategy, and a part-full elevator is held back
+ * while requests for its direction are still arriving, for at most the fixed wait.
+ */
+final class DwellControl {
+
+  /**
+   * A request that arrived this many steps ago or less counts as still arriving.
+   */
+  static final int TRICKLE_TICKS = 2;
+
+  private final int capacity;
+  private final int maxHold;
+  //the tick the last up and down requests arrived at
+  private long lastUpArrival = Long.MIN_VALUE / 2;
+  private long lastDownArrival = Long.MIN_VALUE / 2;
+
+  //the elevators held on this step, and for how long on their current visit
+  private final boolean[] holding;
+  private final int[] heldThisVisit;
+  private final boolean[] visiting;
+
+  private final long[] visits;
+  private final long[] dwellTicks;
+  private final long[] savedTicks;
+  private final long[] heldTicks;
+
+
+  /**
+   * The constructor for the dwell control of a building.
+   *
+   * @param numberOfElevators the number of elevators in the building.
+   * @param capacity          the capacity of the elevators.
+   * @param maxHold           the most steps an elevator is held on one visit.
+   */
+  DwellControl(int numberOfElevators, int capacity, int maxHold) {
+    this.capacity = capacity;
+    this.maxHold = maxHold;
+    this.holding = new boolean[numberOfElevators];
+    this.heldThisVisit = new int[numberOfElevators];
+    this.visiting = new boolean[numberOfElevators];
+    this.visits = new long[numberOfElevators];
+    this.dwellTicks = new long[numberOfElevators];
+    this.savedTicks = new long[numberOfElevators];
+    this.heldTicks = new long[numberOfElevators];
+  }
+
+  /**
+   * Note that a request arrived.
+   *
+   * @param up   true for an up request.
+   * @param tick the tick it arrived at.
+   */
+  void arrived(boolean up, long tick) {
+    if (up) {
+      this.lastUpArrival = tick;
+    } else {
+      this.lastDownArrival = tick;
+    }
+  }
+
+  /**
+   * Decide which elevators at the bottom and top floors set off, wait or are held,
+   * before the dispatch strategy hands out requests.
+   *
+   * @param fleet        the elevators of the building.
+   * @param upRequests   the waiting up requests.
+   * @param downRequests the waiting down requests.
+   * @param tick         the current tick of the building.
+   */
+  void beforeDispatch(FleetInterface fleet, RequestQueue upRequests, RequestQueue downRequests,
+                      long tick) {
+    Arrays.fill(this.holding, false);
+    for (int i = 0; i < this.holding.length; i++) {
+      if (!fleet.isTakingRequests(i)) {
+        continue;
+      }
+      boolean bottom = fleet.getCurrentFloor(i) == 0;
+      RequestQueue requests = bottom ? upRequests : downRequests;
+      if (requests.isEmpty()) {
+        this.savedTicks[i] += fleet.getEndWaitTimer(i);
+        fleet.setEndWait(i, 0);
+      } else if (requests.size() < this.capacity && this.heldThisVisit[i] < this.maxHold
+          && tick - (bottom ? this.lastUpArrival : this.lastDownArrival) <= TRICKLE_TICKS) {
+        this.holding[i] = true;
+        this.heldThisVisit[i]++;
+        this.heldTicks[i]++;
+        //still waiting at the end of this step
+        if (fleet.getEndWaitTimer(i) < 2) {
+          fleet.setEndWait(i, 2);
+        }
+      }
+    }
+  }
+
+  /**
+   * Check if an elevator is held at the bottom or top floor on this step.
+   *
+   * @param elevator the index of the elevator.
+   * @return true if the elevator must not be given requests.
+   */
+  boolean isHolding(int elevator) {
+    return this.holding[elevator];
+  }
+
+  /**
+   * Count the steps the elevators spent taking requests at the bottom and top floors.
+   *
+   * @param fleet the elevators of the building.
+   */
+  void afterStep(FleetInterface fleet) {
+    for (int i = 0; i < this.visiting.length; i++) {
+      if (!fleet.isTakingRequests(i)) {
+        this.visiting[i] = false;
+        continue;
+      }
+      if (!this.visiting[i]) {
+        this.visiting[i] = true;
+        this.visits[i]++;
+        this.heldThisVisit[i] = 0;
+      }
+      this.dwellTicks[i]++;
+    }
+  }
+
+  /**
+   * Get the dwell statistics of an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @return the statistics of the elevator.
+   */
+  DwellStatistics statistics(int elevator) {
+    return new DwellStatistics(this.visits[elevator], this.dwellTicks[elevator],
+        this.savedTicks[elevator], this.heldTicks[elevator]);
+  }
+}
@@ -0,0 +1,87 @@
+package building;
+
+
+/**
+ * This is the reporting class for how long one elevator waited at the bottom and top floors
+ * under the adaptive dwell policy.
+ * A visit is one stay at the bottom or top floor while taking requests,
+ * the saved steps are the steps of the fixed wait cut short by setting off empty at once,
+ * and the held steps are the steps a part-full elevator was kept back for more requests.
+ */
+public class DwellStatistics {
+
+  private final long visits;
+  private final long dwellTicks;
+  private final long savedTicks;
+  private final long heldTicks;
+
+
+  /**
+   * The constructor for the dwell statistics of an elevator.
+   *
+   * @param visits     the number of visits to the bottom and top floors.
+   * @param dwellTicks the number of steps spent taking requests there.
+   * @param savedTicks the number of steps of the fixed wait that were cut.
+   * @param heldTicks  the number of steps the elevator was held for more requests.
+   */
+  public DwellStatistics(long visits, long dwellTicks, long savedTicks, long heldTicks) {
+    this.visits = visits;
+    this.dwellTicks = dwellTicks;
+    this.savedTicks = savedTicks;
+    this.heldTicks = heldTicks;
+  }
+
+  /**
+   * This method is used to get the number of visits to the bottom and top floors.
+   *
+   * @return the number of visits.
+   */
+  public long getVisits() {
+    return this.visits;
+  }
+
+  /**
+   * This method is used to get the number of steps spent taking requests
+   * at the bottom and top floors.
+   *
+   * @return the number of steps.
+   */
+  public long getDwellTicks() {
+    return this.dwellTicks;
+  }
+
+  /**
+   * This method is used to get the number of steps of the fixed wait that were cut
+   * by setting off at once when nobody was waiting.
+   *
+   * @return the number of steps saved.
+   */
+  public long getSavedTicks() {
+    return this.savedTicks;
+  }
+
+  /**
+   * This method is used to get the number of steps the elevator was held
+   * while requests were still arriving.
+   *
+   * @return the number of steps held.
+   */
+  public long getHeldTicks() {
+    return this.heldTicks;
+  }
+
+  /**
+   * This method is used to get the average number of steps of a visit.
+   *
+   * @return the average dwell, 0 if there were no visits.
+   */
+  public double getAverageDwellTicks() {
+    return this.visits == 0 ? 0 : (double) this.dwellTicks / this.visits;
+  }
+
+  @Override
+  public String toString() {
+    return "Visits: " + this.visits + ", Dwell: " + this.dwellTicks
+        + ", Saved: " + this.savedTicks + ", Held: " + this.heldTicks;
+  }
+}
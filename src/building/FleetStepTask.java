@@ -0,0 +1,48 @@
+package building;
+
+import elevator.FleetInterface;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * This class steps a range of the elevators of a fleet on a fork-join pool.
+ * The range is split in halves until the pieces are small enough to step directly.
+ * It is only used once every elevator has been given its requests for the step,
+ * when the elevators no longer share anything.
+ */
+final class FleetStepTask extends RecursiveAction {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient FleetInterface fleet;
+  private final int from;
+  private final int to;
+  private final int pieceSize;
+
+
+  /**
+   * The constructor for the task.
+   *
+   * @param fleet     the fleet to step.
+   * @param from      the index of the first elevator to step.
+   * @param to        the index after the last elevator to step.
+   * @param pieceSize the largest number of elevators stepped without splitting the range.
+   */
+  FleetStepTask(FleetInterface fleet, int from, int to, int pieceSize) {
+    this.fleet = fleet;
+    this.from = from;
+    this.to = to;
+    this.pieceSize = pieceSize;
+  }
+
+  @Override
+  protected void compute() {
+    if (this.to - this.from <= this.pieceSize) {
+      this.fleet.step(this.from, this.to);
+      return;
+    }
+    int middle = (this.from + this.to) >>> 1;
+    invokeAll(new FleetStepTask(this.fleet, this.from, middle, this.pieceSize),
+        new FleetStepTask(this.fleet, middle, this.to, this.pieceSize));
+  }
+}
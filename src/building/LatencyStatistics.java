@@ -0,0 +1,126 @@
+package building;
+
+import metrics.Histogram;
+
+
+/**
+ * This is the reporting class for how many ticks riders took over one part of their trip,
+ * waiting from their request to being picked up or riding from there to their end floor.
+ * The percentiles are the number of ticks that part of the trip took at most
+ * for that share of the riders, to within the precision of the histogram they were read from.
+ */
+public class LatencyStatistics {
+
+  private final long count;
+  private final double mean;
+  private final long max;
+  private final long p50;
+  private final long p90;
+  private final long p99;
+  private final long p999;
+
+
+  /**
+   * The constructor for the latency statistics.
+   *
+   * @param count the number of riders measured.
+   * @param mean  the average number of ticks.
+   * @param max   the largest number of ticks.
+   * @param p50   the number of ticks half of the riders took at most.
+   * @param p90   the number of ticks 90% of the riders took at most.
+   * @param p99   the number of ticks 99% of the riders took at most.
+   * @param p999  the number of ticks 99.9% of the riders took at most.
+   */
+  public LatencyStatistics(long count, double mean, long max, long p50, long p90, long p99,
+                           long p999) {
+    this.count = count;
+    this.mean = mean;
+    this.max = max;
+    this.p50 = p50;
+    this.p90 = p90;
+    this.p99 = p99;
+    this.p999 = p999;
+  }
+
+  /**
+   * Make the latency statistics of a snapshot of a histogram of ticks.
+   *
+   * @param histogram the histogram.
+   * @return the latency statistics.
+   */
+  static LatencyStatistics of(Histogram histogram) {
+    Histogram snapshot = histogram.snapshot();
+    return new LatencyStatistics(snapshot.getCount(), snapshot.getMean(), snapshot.getMax(),
+        snapshot.getValueAtPercentile(50), snapshot.getValueAtPercentile(90),
+        snapshot.getValueAtPercentile(99), snapshot.getValueAtPercentile(99.9));
+  }
+
+  /**
+   * This method is used to get the number of riders measured.
+   *
+   * @return the number of riders.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * This method is used to get the average number of ticks.
+   *
+   * @return the average, 0 if no rider was measured.
+   */
+  public double getMean() {
+    return this.mean;
+  }
+
+  /**
+   * This method is used to get the largest number of ticks.
+   *
+   * @return the largest, 0 if no rider was measured.
+   */
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * This method is used to get the median number of ticks.
+   *
+   * @return the 50th percentile.
+   */
+  public long getP50() {
+    return this.p50;
+  }
+
+  /**
+   * This method is used to get the number of ticks 90% of the riders took at most.
+   *
+   * @return the 90th percentile.
+   */
+  public long getP90() {
+    return this.p90;
+  }
+
+  /**
+   * This method is used to get the number of ticks 99% of the riders took at most.
+   *
+   * @return the 99th percentile.
+   */
+  public long getP99() {
+    return this.p99;
+  }
+
+  /**
+   * This method is used to get the number of ticks 99.9% of the riders took at most.
+   *
+   * @return the 99.9th percentile.
+   */
+  public long getP999() {
+    return this.p999;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Count: %d, Mean: %.1f, Max: %d, P50: %d, P90: %d, P99: %d, P99.9: %d",
+        this.count, this.mean, this.max, this.p50, this.p90, this.p99, this.p999);
+  }
+}
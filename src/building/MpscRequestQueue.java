@@ -0,0 +1,89 @@
+package building;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import scanerzus.Request;
+
+
+/**
+ * This class is a queue of requests that many threads can add to while one thread takes them out.
+ * It is a linked list where a producer swaps itself in as the newest node with one atomic
+ * exchange and then links the node it replaced to it, so producers never wait on a lock
+ * or retry a compare-and-set, however many of them there are.
+ * Only the consumer touches the oldest node, so taking requests out needs no atomics at all.
+ * <p></p>
+ * A request whose producer has swapped in its node but not linked it yet is not visible to the
+ * consumer. It is taken out by the next drain instead.
+ */
+public class MpscRequestQueue {
+
+  /**
+   * A node of the list, holding one request.
+   */
+  private static final class Node {
+    private Request request;
+    private volatile Node next;
+
+    private Node(Request request) {
+      this.request = request;
+    }
+  }
+
+  //the newest node, swapped by the producers
+  private final AtomicReference<Node> newest;
+  //the node before the oldest request, only used by the consumer
+  private Node oldest;
+
+
+  /**
+   * The constructor for an empty queue.
+   */
+  public MpscRequestQueue() {
+    Node stub = new Node(null);
+    this.newest = new AtomicReference<>(stub);
+    this.oldest = stub;
+  }
+
+  /**
+   * This method is used to add a request to the queue. It can be called from any thread.
+   *
+   * @param request the request to be added.
+   */
+  public void offer(Request request) {
+    Node node = new Node(request);
+    Node previous = this.newest.getAndSet(node);
+    previous.next = node;
+  }
+
+  /**
+   * This method is used to take all the visible requests out of the queue, oldest first.
+   * It must only be called from one thread at a time.
+   *
+   * @param sink what to do with each request.
+   * @return the number of requests taken out.
+   */
+  public int drain(Consumer<Request> sink) {
+    int count = 0;
+    Node next = this.oldest.next;
+    while (next != null) {
+      Request request = next.request;
+      //the node becomes the new stub, let go of its request
+      next.request = null;
+      this.oldest = next;
+      sink.accept(request);
+      count++;
+      next = next.next;
+    }
+    return count;
+  }
+
+  /**
+   * This method is used to check if the queue has no visible requests.
+   * It must only be called from the thread that drains the queue.
+   *
+   * @return true if there is nothing to drain.
+   */
+  public boolean isEmpty() {
+    return this.oldest.next == null;
+  }
+}
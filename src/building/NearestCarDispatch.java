@@ -0,0 +1,327 @@
+package building;
+
+import building.enums.Direction;
+import elevator.FleetView;
+import elevator.SpeedProfile;
+import java.util.function.LongPredicate;
+import scanerzus.PackedRequest;
+
+
+/**
+ * A dispatch strategy that gives every waiting request to the elevator
+ * that can get to its start floor first.
+ * On every step each waiting request, oldest first, is scored against every elevator
+ * by an estimate of how many steps that elevator needs to open its door at the start floor,
+ * from where it is, the way it is going, its door and wait timers and its stops.
+ * Elevators that could take the request now but have no room for it are left out, and
+ * if the best of the others can take the request now, it gets it: an elevator taking requests
+ * at the bottom or top floor as part of its batch, an elevator on its way if the request is
+ * ahead of it and it has room (see RunLoad). Otherwise the request waits for a later step,
+ * when the elevators are scored again.
+ * <p></p>
+ * The elevators are looked at once per step, after which scoring an elevator for a request
+ * takes the same few operations however large the building is. The estimate assumes the
+ * elevators run to the top and bottom floors, so it is on the high side for LOOK travel,
+ * and that a fast elevator runs to the floor without slowing down for the stops before it.
+ */
+public class NearestCarDispatch implements DispatchStrategy {
+
+  static final long NEVER = Long.MAX_VALUE;
+
+  private int top;
+  private int capacity;
+  private RunLoad load;
+
+  //the elevators as they are at the start of the step
+  private int[] floor;
+  private byte[] direction;
+  private boolean[] doorClosed;
+  private int[] doorLeft;
+  private int[] endWait;
+  private boolean[] taking;
+  private boolean[] holding;
+  private int[] stops;
+  private int[] lowestStop;
+  private int[] highestStop;
+  private SpeedProfile[] speed;
+  private int[] stopping;
+  //the steps a stop on the way costs: the step the door opens and the steps it stays open
+  private int[] stopTicks;
+  //the steps an elevator with no batch waits at the bottom or top floor
+  private int[] endWaitTicks;
+  //the steps a run from one end of the building to the other takes
+  private long[] fullRun;
+
+  //the requests given to every elevator on this step, capacity entries for each
+  private long[] given;
+  private int[] givenCount;
+  private long[] taken;
+  private long[] batch;
+
+  private final LongPredicate assignNearest = this::assignNearest;
+
+
+  @Override
+  public void dispatch(DispatchContext context) {
+    ensureState(context);
+    FleetView fleet = context.getFleet();
+    int size = fleet.size();
+    for (int i = 0; i < size; i++) {
+      look(context, fleet, i);
+    }
+    assignWaiting(context);
+    for (int i = 0; i < size; i++) {
+      int count = this.givenCount[i];
+      if (count == 0) {
+        continue;
+      }
+      System.arraycopy(this.given, i * this.capacity, this.batch, 0, count);
+      context.assign(i, this.batch, count);
+      if (this.taking[i]) {
+        this.load.startRun(i, fleet.getDirection(i), this.batch, count);
+      }
+      this.givenCount[i] = 0;
+    }
+  }
+
+  /**
+   * This method is used to give the waiting requests to the elevators, after they have been
+   * looked at for the step. Each request in turn, oldest first, goes to the elevator with
+   * the lowest estimate if that elevator can take it now, see give.
+   *
+   * @param context the elevators and waiting requests of the building.
+   */
+  protected void assignWaiting(DispatchContext context) {
+    if (!context.getUpRequests().isEmpty()) {
+      context.getUpRequests().pollMatching(this.assignNearest, this.taken.length, this.taken);
+    }
+    if (!context.getDownRequests().isEmpty()) {
+      context.getDownRequests().pollMatching(this.assignNearest, this.taken.length, this.taken);
+    }
+  }
+
+  /**
+   * This method is used to estimate how many steps an elevator needs to open its door
+   * at a floor for a request, as it was at the start of the step.
+   *
+   * @param elevator   the index of the elevator.
+   * @param startFloor the start floor of the request.
+   * @param up         true if the request goes up.
+   * @return the estimated number of steps, Long.MAX_VALUE if the elevator is not in service.
+   */
+  long estimate(int elevator, int startFloor, boolean up) {
+    int at = this.floor[elevator];
+    byte going = this.direction[elevator];
+    long run = this.fullRun[elevator];
+    if (this.taking[elevator]) {
+      if (up == (at == 0)) {
+        return travel(elevator, Math.abs(startFloor - at)) + 1;
+      }
+      //sets off empty when the wait is over, then comes back from the other end
+      return this.endWait[elevator] + run + 1
+          + travel(elevator, Math.abs(startFloor - (this.top - at))) + 1;
+    }
+    if (going == 0) {
+      return NEVER;
+    }
+    long prelude = this.doorLeft[elevator];
+    if ((going > 0) == up && isAhead(elevator, startFloor)) {
+      return prelude + travel(elevator, Math.abs(startFloor - at))
+          + this.stopTicks[elevator] * stopsBefore(elevator, startFloor) + 1;
+    }
+    int end = going > 0 ? this.top : 0;
+    long toEnd = prelude + travel(elevator, Math.abs(end - at))
+        + this.stopTicks[elevator] * this.stops[elevator] + 1;
+    if (up == (end == 0)) {
+      return toEnd + travel(elevator, Math.abs(startFloor - end)) + 1;
+    }
+    //behind it going the same way, a whole empty run back first
+    return toEnd + this.endWaitTicks[elevator] + run + 1
+        + travel(elevator, Math.abs(startFloor - (this.top - end))) + 1;
+  }
+
+  /**
+   * Count the steps an elevator needs to run a number of floors from rest to rest,
+   * which is the number of floors for an elevator running one floor a step.
+   */
+  private long travel(int elevator, int floors) {
+    return this.speed[elevator].ticksToTravel(floors);
+  }
+
+  /**
+   * Give a request to the elevator with the lowest estimate if it can take it now.
+   * Elevators that could take the request now but have no room for it are passed over.
+   *
+   * @param request the packed request.
+   * @return true if the request was given to an elevator.
+   */
+  private boolean assignNearest(long request) {
+    int startFloor = PackedRequest.startFloor(request);
+    boolean up = startFloor < PackedRequest.endFloor(request);
+    int best = -1;
+    long bestEstimate = NEVER;
+    boolean bestCanTake = false;
+    for (int i = 0; i < this.floor.length; i++) {
+      boolean canTake = canTakeNow(i, startFloor, up);
+      if (canTake && this.givenCount[i] == this.capacity) {
+        //full for this step, it is scored again on the next one
+        continue;
+      }
+      long estimate = estimate(i, startFloor, up);
+      if (estimate < bestEstimate || (estimate == bestEstimate && canTake && !bestCanTake)) {
+        if (canTake && !hasRoom(i, request)) {
+          //full on its way, so the next best elevator may take the request now
+          continue;
+        }
+        best = i;
+        bestEstimate = estimate;
+        bestCanTake = canTake;
+      }
+    }
+    return bestCanTake && give(best, request);
+  }
+
+  /**
+   * Give a request to an elevator that can take it now, to be handed over at the end
+   * of the step. An elevator on its way must have room for the rider when it gets there,
+   * and no elevator is given more than capacity requests on one step.
+   *
+   * @param elevator the index of the elevator.
+   * @param request  the packed request.
+   * @return true if the request was given to the elevator.
+   */
+  boolean give(int elevator, long request) {
+    if (this.givenCount[elevator] == this.capacity) {
+      return false;
+    }
+    if (!this.taking[elevator] && !this.load.tryBoard(elevator, request)) {
+      return false;
+    }
+    this.given[elevator * this.capacity + this.givenCount[elevator]++] = request;
+    return true;
+  }
+
+  /**
+   * Check if an elevator has room for the rider of a request, as it is on this step.
+   * An elevator taking requests at the bottom or top floor starts a new run, so it has room
+   * for as many riders as it can be given, and one on its way must have room for the rider
+   * from its start floor to its end floor (see RunLoad).
+   *
+   * @param elevator the index of the elevator.
+   * @param request  the packed request.
+   * @return true if the elevator has room for the rider.
+   */
+  protected boolean hasRoom(int elevator, long request) {
+    return this.taking[elevator] || this.load.hasRoom(elevator, request);
+  }
+
+  /**
+   * Check if an elevator can be given a request now: as part of its batch if it is taking
+   * requests at the end the request leaves from, or on its way if the request is ahead of it.
+   *
+   * @param elevator   the index of the elevator.
+   * @param startFloor the start floor of the request.
+   * @param up         true if the request goes up.
+   * @return true if the elevator can take the request.
+   */
+  boolean canTakeNow(int elevator, int startFloor, boolean up) {
+    int at = this.floor[elevator];
+    if (this.taking[elevator]) {
+      return !this.holding[elevator] && up == (at == 0);
+    }
+    byte going = this.direction[elevator];
+    return going != 0 && (going > 0) == up && at != 0 && at != this.top
+        && isAhead(elevator, startFloor);
+  }
+
+  /**
+   * Check if a floor is ahead of a moving elevator, so it can still stop there on this run.
+   */
+  private boolean isAhead(int elevator, int startFloor) {
+    int at = this.floor[elevator];
+    //a floor whose door is open now cannot be stopped at again on this run,
+    //and a moving elevator cannot stop closer than its stopping distance
+    int step = this.doorClosed[elevator] ? this.stopping[elevator] : 1;
+    return this.direction[elevator] > 0 ? startFloor >= at + step : startFloor <= at - step;
+  }
+
+  /**
+   * Estimate the number of stops a moving elevator makes before it gets to a floor ahead,
+   * taking its stops to be spread evenly up to its farthest one.
+   */
+  private long stopsBefore(int elevator, int startFloor) {
+    int count = this.stops[elevator];
+    if (count == 0) {
+      return 0;
+    }
+    int at = this.floor[elevator];
+    int farthest = this.direction[elevator] > 0
+        ? this.highestStop[elevator] : this.lowestStop[elevator];
+    int distance = Math.abs(startFloor - at);
+    int span = Math.abs(farthest - at);
+    if (distance > span) {
+      return count;
+    }
+    return (long) count * distance / Math.max(span, 1);
+  }
+
+  /**
+   * Look at an elevator at the start of the step.
+   */
+  private void look(DispatchContext context, FleetView fleet, int elevator) {
+    Direction going = fleet.getDirection(elevator);
+    this.floor[elevator] = fleet.getCurrentFloor(elevator);
+    this.direction[elevator] = (byte) (going == Direction.UP ? 1
+        : going == Direction.DOWN ? -1 : 0);
+    this.doorClosed[elevator] = fleet.isDoorClosed(elevator);
+    this.doorLeft[elevator] = fleet.getDoorOpenTimer(elevator);
+    this.endWait[elevator] = fleet.getEndWaitTimer(elevator);
+    this.taking[elevator] = fleet.isTakingRequests(elevator);
+    this.holding[elevator] = context.isHolding(elevator);
+    this.stops[elevator] = fleet.getStopCount(elevator);
+    this.lowestStop[elevator] = fleet.getLowestStop(elevator);
+    this.highestStop[elevator] = fleet.getHighestStop(elevator);
+    this.speed[elevator] = fleet.getSpeedProfile(elevator);
+    this.stopping[elevator] = fleet.getStoppingDistance(elevator);
+    this.stopTicks[elevator] = fleet.getDoorOpenTime(elevator) + 1;
+    this.endWaitTicks[elevator] = fleet.getEndWaitTime(elevator);
+    this.fullRun[elevator] = travel(elevator, this.top);
+    if (!this.taking[elevator] && this.direction[elevator] != 0) {
+      this.load.follow(elevator, going);
+    }
+  }
+
+  /**
+   * Make the state of the strategy the first time it sees the building.
+   *
+   * @param context the elevators and waiting requests of the building.
+   */
+  private void ensureState(DispatchContext context) {
+    if (this.load != null) {
+      return;
+    }
+    int size = context.getFleet().size();
+    this.top = context.getNumberOfFloors() - 1;
+    this.capacity = context.getElevatorCapacity();
+    this.load = new RunLoad(size, context.getNumberOfFloors(), this.capacity);
+    this.floor = new int[size];
+    this.direction = new byte[size];
+    this.doorClosed = new boolean[size];
+    this.doorLeft = new int[size];
+    this.endWait = new int[size];
+    this.taking = new boolean[size];
+    this.holding = new boolean[size];
+    this.stops = new int[size];
+    this.lowestStop = new int[size];
+    this.highestStop = new int[size];
+    this.speed = new SpeedProfile[size];
+    this.stopping = new int[size];
+    this.stopTicks = new int[size];
+    this.endWaitTicks = new int[size];
+    this.fullRun = new long[size];
+    this.given = new long[size * this.capacity];
+    this.givenCount = new int[size];
+    this.taken = new long[size * this.capacity];
+    this.batch = new long[this.capacity];
+  }
+}
@@ -0,0 +1,172 @@
+package building;
+
+import java.util.function.LongPredicate;
+import scanerzus.PackedRequest;
+
+
+/**
+ * A dispatch strategy that gives out all the requests waiting on a step together,
+ * so the elevators between them get to the requests as soon as they can.
+ * Every elevator is split into slots, one for each request it could be given on the step,
+ * and a request in the k-th slot of an elevator costs the estimate of nearest car dispatch
+ * plus k steps, for the stops the riders before it may add. The requests are then matched
+ * to the slots at the lowest total cost by an AssignmentSolver, and a request goes to its
+ * elevator if that elevator can take it now. An elevator on its way that has no room for
+ * the rider is left out for the request. The rest wait for a later step, like in
+ * nearest car dispatch.
+ * <p></p>
+ * The solver takes a time that grows with the cube of the number of waiting requests,
+ * so above maxBatch waiting requests they are given out nearest car first instead.
+ * The time spent on every step is kept, see getSolverStatistics.
+ */
+public class OptimalDispatch extends NearestCarDispatch {
+
+  /**
+   * The largest number of waiting requests given out by the solver, unless chosen otherwise.
+   */
+  public static final int DEFAULT_MAX_BATCH = 32;
+
+  //the cost of leaving a request for a later step, more than any estimate
+  private static final long WAIT_COST = 1L << 40;
+
+  private final int maxBatch;
+  private final AssignmentSolver solver = new AssignmentSolver();
+
+  //the waiting requests of the step, up ones first, and the column each one was given
+  private long[] requests;
+  private int[] column;
+  private boolean[] accepted;
+  private long[] removed;
+  private long[] cost = new long[0];
+  private int next;
+  private final LongPredicate wasAccepted = request -> this.accepted[this.next++];
+
+  private long solvedTicks;
+  private long greedyTicks;
+  private long totalNanos;
+  private long longestNanos;
+
+
+  /**
+   * The constructor for optimal dispatch with the default largest batch.
+   */
+  public OptimalDispatch() {
+    this(DEFAULT_MAX_BATCH);
+  }
+
+  /**
+   * The constructor for optimal dispatch.
+   *
+   * @param maxBatch the largest number of waiting requests given out by the solver.
+   * @throws IllegalArgumentException if the largest batch is less than 1.
+   */
+  public OptimalDispatch(int maxBatch) throws IllegalArgumentException {
+    if (maxBatch < 1) {
+      throw new IllegalArgumentException("Largest batch for the solver should be at least 1.");
+    }
+    this.maxBatch = maxBatch;
+    this.requests = new long[maxBatch];
+    this.column = new int[maxBatch];
+    this.accepted = new boolean[maxBatch];
+    this.removed = new long[maxBatch];
+  }
+
+  /**
+   * This method is used to get the largest number of waiting requests given out by the solver.
+   *
+   * @return the largest batch.
+   */
+  public int getMaxBatch() {
+    return this.maxBatch;
+  }
+
+  /**
+   * This method is used to get how many steps the waiting requests were given out by
+   * the solver or greedily, and how long it took.
+   *
+   * @return the solver statistics.
+   */
+  public SolverStatistics getSolverStatistics() {
+    return new SolverStatistics(this.solvedTicks, this.greedyTicks, this.totalNanos,
+        this.longestNanos);
+  }
+
+  /**
+   * This method is used to give the waiting requests to the elevators, by the solver
+   * if there are at most maxBatch of them, nearest car first otherwise.
+   *
+   * @param context the elevators and waiting requests of the building.
+   */
+  @Override
+  protected void assignWaiting(DispatchContext context) {
+    RequestQueue up = context.getUpRequests();
+    RequestQueue down = context.getDownRequests();
+    int count = up.size() + down.size();
+    if (count == 0) {
+      return;
+    }
+    long started = System.nanoTime();
+    if (count > this.maxBatch) {
+      super.assignWaiting(context);
+      this.greedyTicks++;
+    } else {
+      solve(context, up, down, count);
+      this.solvedTicks++;
+    }
+    long spent = System.nanoTime() - started;
+    this.totalNanos += spent;
+    this.longestNanos = Math.max(this.longestNanos, spent);
+  }
+
+  /**
+   * Match the waiting requests to the slots of the elevators and give out the ones
+   * whose elevator can take them now.
+   */
+  private void solve(DispatchContext context, RequestQueue up, RequestQueue down, int count) {
+    int size = context.getFleet().size();
+    int slots = Math.min(count, context.getElevatorCapacity());
+    int carColumns = size * slots;
+    int columns = carColumns + count;
+    if (this.cost.length < count * columns) {
+      this.cost = new long[count * columns];
+    }
+    int upCount = up.size();
+    for (int i = 0; i < count; i++) {
+      long request = i < upCount ? up.get(i) : down.get(i - upCount);
+      this.requests[i] = request;
+      int startFloor = PackedRequest.startFloor(request);
+      boolean goingUp = startFloor < PackedRequest.endFloor(request);
+      int row = i * columns;
+      for (int e = 0; e < size; e++) {
+        boolean canTake = canTakeNow(e, startFloor, goingUp);
+        //an elevator on its way with no room for the rider is passed over, as in nearest car,
+        //so the request goes to another elevator rather than waiting for this one
+        long estimate = canTake && !hasRoom(e, request) ? NEVER
+            : estimate(e, startFloor, goingUp);
+        //on equal estimates an elevator that can take the request now comes first
+        long tie = canTake ? 0 : 1;
+        for (int k = 0; k < slots; k++) {
+          this.cost[row + e * slots + k] = estimate == NEVER ? 2 * WAIT_COST
+              : 2 * (estimate + k) + tie;
+        }
+      }
+      for (int j = carColumns; j < columns; j++) {
+        this.cost[row + j] = 2 * WAIT_COST;
+      }
+    }
+    this.solver.solve(this.cost, count, columns, this.column);
+
+    for (int i = 0; i < count; i++) {
+      long request = this.requests[i];
+      int startFloor = PackedRequest.startFloor(request);
+      boolean goingUp = startFloor < PackedRequest.endFloor(request);
+      int elevator = this.column[i] < carColumns ? this.column[i] / slots : -1;
+      this.accepted[i] = elevator >= 0 && canTakeNow(elevator, startFloor, goingUp)
+          && give(elevator, request);
+    }
+    this.next = 0;
+    up.pollMatching(this.wasAccepted, upCount, this.removed);
+    this.next = upCount;
+    down.pollMatching(this.wasAccepted, count - upCount, this.removed);
+  }
+}
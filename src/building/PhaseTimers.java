@@ -0,0 +1,59 @@
+package building;
+
+import building.enums.StepPhase;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * This class adds up the wall clock time a building spends in every phase of its work,
+ * see StepPhase. A phase is timed as a lap: the time since the mark handed in,
+ * which is then the mark for the next phase, so a step reads the clock once per phase.
+ * The counters are atomic, so a building report made on another thread
+ * can be timed as well, and the times can be read while the building runs.
+ */
+final class PhaseTimers {
+
+  private static final int PHASES = StepPhase.values().length;
+
+  private final AtomicLongArray nanos = new AtomicLongArray(PHASES);
+  private final AtomicLongArray counts = new AtomicLongArray(PHASES);
+
+
+  /**
+   * Read the clock to start timing.
+   *
+   * @return the mark.
+   */
+  static long mark() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Add the time since a mark to a phase.
+   *
+   * @param phase the phase that ran since the mark.
+   * @param since the mark.
+   * @return the mark for the next phase.
+   */
+  long lap(StepPhase phase, long since) {
+    long now = System.nanoTime();
+    this.nanos.addAndGet(phase.ordinal(), now - since);
+    this.counts.incrementAndGet(phase.ordinal());
+    return now;
+  }
+
+  /**
+   * Make the times of what was timed so far.
+   *
+   * @return the phase times.
+   */
+  PhaseTimes times() {
+    long[] nanos = new long[PHASES];
+    long[] counts = new long[PHASES];
+    for (int i = 0; i < PHASES; i++) {
+      nanos[i] = this.nanos.get(i);
+      counts[i] = this.counts.get(i);
+    }
+    return new PhaseTimes(nanos, counts);
+  }
+}
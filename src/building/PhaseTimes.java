@@ -0,0 +1,102 @@
+package building;
+
+import building.enums.StepPhase;
+import java.util.Arrays;
+
+
+/**
+ * This is the reporting class for the wall clock time a building spent in every phase
+ * of its work since phase timing was turned on, see StepPhase.
+ * A phase is counted every time it runs, so a step that does not dispatch
+ * because the building is stopping does not count towards dispatch.
+ */
+public class PhaseTimes {
+
+  private final long[] nanos;
+  private final long[] counts;
+
+
+  /**
+   * The constructor for the phase times.
+   *
+   * @param nanos  the nanoseconds spent in every phase, in the order of StepPhase.
+   * @param counts the number of times every phase ran, in the order of StepPhase.
+   * @throws IllegalArgumentException if there is not one entry for every phase.
+   */
+  public PhaseTimes(long[] nanos, long[] counts) throws IllegalArgumentException {
+    if (nanos.length != StepPhase.values().length
+        || counts.length != StepPhase.values().length) {
+      throw new IllegalArgumentException("There should be one entry for every phase.");
+    }
+    this.nanos = Arrays.copyOf(nanos, nanos.length);
+    this.counts = Arrays.copyOf(counts, counts.length);
+  }
+
+  /**
+   * This method is used to get the nanoseconds spent in a phase.
+   *
+   * @param phase the phase.
+   * @return the nanoseconds.
+   */
+  public long getNanos(StepPhase phase) {
+    return this.nanos[phase.ordinal()];
+  }
+
+  /**
+   * This method is used to get the number of times a phase ran.
+   *
+   * @param phase the phase.
+   * @return the number of times.
+   */
+  public long getCount(StepPhase phase) {
+    return this.counts[phase.ordinal()];
+  }
+
+  /**
+   * This method is used to get the average nanoseconds a phase took.
+   *
+   * @param phase the phase.
+   * @return the average, 0 if the phase did not run.
+   */
+  public double getAverageNanos(StepPhase phase) {
+    long count = getCount(phase);
+    return count == 0 ? 0 : (double) getNanos(phase) / count;
+  }
+
+  /**
+   * This method is used to get the nanoseconds spent in all the phases.
+   *
+   * @return the nanoseconds.
+   */
+  public long getTotalNanos() {
+    long total = 0;
+    for (long phase : this.nanos) {
+      total += phase;
+    }
+    return total;
+  }
+
+  /**
+   * This method is used to get the share of the time spent in a phase.
+   *
+   * @param phase the phase.
+   * @return the share, from 0 to 1, 0 if nothing was timed.
+   */
+  public double getShare(StepPhase phase) {
+    long total = getTotalNanos();
+    return total == 0 ? 0 : (double) getNanos(phase) / total;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (StepPhase phase : StepPhase.values()) {
+      if (builder.length() > 0) {
+        builder.append(", ");
+      }
+      builder.append(String.format("%s: %.0fns (%.1f%%)", phase, getAverageNanos(phase),
+          100 * getShare(phase)));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,112 @@
+package building;
+
+import building.enums.RequestRejection;
+import java.util.Arrays;
+
+
+/**
+ * This is the reporting class for a batch of requests added to the building.
+ * It tells how many requests were added and, for every request that was not,
+ * its index in the batch and the reason.
+ */
+public class RequestBatchReport {
+
+  private final int acceptedCount;
+  private final int[] rejectedIndices;
+  private final RequestRejection[] rejectionReasons;
+
+  /**
+   * This constructor is used to create a new RequestBatchReport object.
+   *
+   * @param acceptedCount    the number of requests added to the building.
+   * @param rejectedIndices  the indices in the batch of the requests not added, in order.
+   * @param rejectionReasons the reason each of those requests was not added.
+   * @throws IllegalArgumentException if there is not one reason for every rejected index.
+   */
+  public RequestBatchReport(int acceptedCount, int[] rejectedIndices,
+                            RequestRejection[] rejectionReasons) {
+    if (rejectedIndices.length != rejectionReasons.length) {
+      throw new IllegalArgumentException("Every rejected request needs a reason.");
+    }
+    this.acceptedCount = acceptedCount;
+    this.rejectedIndices = rejectedIndices.clone();
+    this.rejectionReasons = rejectionReasons.clone();
+  }
+
+  /**
+   * This method is used to get the number of requests added to the building.
+   *
+   * @return the number of accepted requests.
+   */
+  public int getAcceptedCount() {
+    return this.acceptedCount;
+  }
+
+  /**
+   * This method is used to get the number of requests not added to the building.
+   *
+   * @return the number of rejected requests.
+   */
+  public int getRejectedCount() {
+    return this.rejectedIndices.length;
+  }
+
+  /**
+   * This method is used to get the indices in the batch of the requests not added.
+   *
+   * @return the indices of the rejected requests, in order.
+   */
+  public int[] getRejectedIndices() {
+    return this.rejectedIndices.clone();
+  }
+
+  /**
+   * This method is used to get the reasons the requests were not added,
+   * in the same order as the rejected indices.
+   *
+   * @return the reason for every rejected request.
+   */
+  public RequestRejection[] getRejectionReasons() {
+    return this.rejectionReasons.clone();
+  }
+
+  /**
+   * This method is used to get a string representation of the batch report.
+   *
+   * @return the string representation of the batch report.
+   */
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("Accepted: ").append(this.acceptedCount)
+        .append(", Rejected: ").append(this.rejectedIndices.length);
+    for (int i = 0; i < this.rejectedIndices.length; i++) {
+      sb.append(i == 0 ? " [" : ", ")
+          .append(this.rejectedIndices[i]).append(": ").append(this.rejectionReasons[i]);
+    }
+    if (this.rejectedIndices.length > 0) {
+      sb.append(']');
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RequestBatchReport)) {
+      return false;
+    }
+    RequestBatchReport that = (RequestBatchReport) o;
+    return this.acceptedCount == that.acceptedCount
+        && Arrays.equals(this.rejectedIndices, that.rejectedIndices)
+        && Arrays.equals(this.rejectionReasons, that.rejectionReasons);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * this.acceptedCount + Arrays.hashCode(this.rejectedIndices))
+        + Arrays.hashCode(this.rejectionReasons);
+  }
+}
@@ -0,0 +1,250 @@
+package building;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+import scanerzus.PackedRequest;
+import scanerzus.Request;
+import scanerzus.RequestCache;
+
+
+/**
+ * This class is a first-in first-out queue of requests waiting for an elevator.
+ * It is backed by a growable ring buffer, so adding a request and removing the
+ * oldest requests never shift the other requests around.
+ * The requests are kept packed into longs (see PackedRequest), eight bytes each,
+ * and Request objects are only looked up when the queue is looked at as a list.
+ * The building keeps one queue for the up requests and one for the down requests.
+ */
+public class RequestQueue {
+
+  private static final int INITIAL_CAPACITY = 16;
+  //marks a removed request while the queue is compacted,
+  //a request from a floor to the same floor is never queued
+  private static final long REMOVED = -1L;
+
+  private long[] elements;
+  private int head;
+  private int size;
+  private final RequestCache cache;
+  private final List<Request> view = new ReadOnlyView();
+
+
+  /**
+   * The constructor for an empty request queue.
+   * Requests read from the queue come from the shared table of Request.of.
+   */
+  public RequestQueue() {
+    this(RequestCache.SHARED);
+  }
+
+  /**
+   * The constructor for an empty request queue of a building.
+   *
+   * @param cache the table of requests of the building, used to read requests from the queue.
+   */
+  public RequestQueue(RequestCache cache) {
+    this.cache = cache;
+    this.elements = new long[INITIAL_CAPACITY];
+    this.head = 0;
+    this.size = 0;
+  }
+
+  /**
+   * This method is used to add a request at the end of the queue, arriving at tick 0.
+   *
+   * @param request the request to be added.
+   */
+  public void add(Request request) {
+    add(PackedRequest.pack(request, 0));
+  }
+
+  /**
+   * This method is used to add a packed request at the end of the queue.
+   *
+   * @param request the packed request to be added.
+   */
+  public void add(long request) {
+    if (this.size == this.elements.length) {
+      grow(this.elements.length * 2);
+    }
+    this.elements[(this.head + this.size) & (this.elements.length - 1)] = request;
+    this.size++;
+  }
+
+  /**
+   * This method is used to make room for a number of requests about to be added,
+   * so that adding a large batch grows the ring buffer at most once.
+   *
+   * @param count the number of requests about to be added.
+   */
+  public void ensureRoomFor(int count) {
+    int needed = this.size + count;
+    if (needed > this.elements.length) {
+      grow(Integer.highestOneBit(needed - 1) << 1);
+    }
+  }
+
+  /**
+   * This method is used to remove the oldest requests from the queue.
+   * At most maxCount requests are removed, in the order they were added.
+   *
+   * @param maxCount the maximum number of requests to remove.
+   * @return the removed requests, oldest first.
+   */
+  public List<Request> pollBatch(int maxCount) {
+    long[] packed = new long[Math.min(maxCount, this.size)];
+    int count = pollBatch(maxCount, packed);
+    List<Request> batch = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      batch.add(this.cache.get(packed[i]));
+    }
+    return batch;
+  }
+
+  /**
+   * This method is used to remove the oldest requests from the queue without making objects.
+   * At most maxCount requests are removed, in the order they were added,
+   * and copied packed to the start of the given array.
+   *
+   * @param maxCount the maximum number of requests to remove.
+   * @param into     the array to copy the requests to, at least maxCount long
+   *                 or as long as the queue.
+   * @return the number of requests removed.
+   */
+  public int pollBatch(int maxCount, long[] into) {
+    int count = Math.min(maxCount, this.size);
+    int firstPart = Math.min(count, this.elements.length - this.head);
+    System.arraycopy(this.elements, this.head, into, 0, firstPart);
+    System.arraycopy(this.elements, 0, into, firstPart, count - firstPart);
+    this.head = (this.head + count) & (this.elements.length - 1);
+    this.size -= count;
+    return count;
+  }
+
+  /**
+   * This method is used to remove the oldest requests that pass a test from the queue.
+   * The requests are tested oldest first until maxCount of them have passed,
+   * the requests that pass are copied packed to the start of the given array
+   * and the requests that fail stay in the queue in the same order.
+   * The test may keep track of the requests it lets pass.
+   *
+   * @param accept   the test, true to remove the request.
+   * @param maxCount the maximum number of requests to remove.
+   * @param into     the array to copy the requests to, at least maxCount long.
+   * @return the number of requests removed.
+   */
+  public int pollMatching(LongPredicate accept, int maxCount, long[] into) {
+    int mask = this.elements.length - 1;
+    int count = 0;
+    int scanned = 0;
+    while (scanned < this.size && count < maxCount) {
+      int index = (this.head + scanned) & mask;
+      long request = this.elements[index];
+      if (accept.test(request)) {
+        into[count++] = request;
+        this.elements[index] = REMOVED;
+      }
+      scanned++;
+    }
+    if (count == 0) {
+      return 0;
+    }
+    //slide the requests that stayed towards the end of the scanned part,
+    //so the removed ones leave a gap at the head
+    int write = scanned - 1;
+    for (int read = scanned - 1; read >= 0; read--) {
+      long request = this.elements[(this.head + read) & mask];
+      if (request != REMOVED) {
+        this.elements[(this.head + write) & mask] = request;
+        write--;
+      }
+    }
+    this.head = (this.head + count) & mask;
+    this.size -= count;
+    return count;
+  }
+
+  /**
+   * This method is used to remove all requests from the queue.
+   */
+  public void clear() {
+    this.elements = new long[INITIAL_CAPACITY];
+    this.head = 0;
+    this.size = 0;
+  }
+
+  /**
+   * This method is used to get the number of requests in the queue.
+   *
+   * @return the number of requests in the queue.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * This method is used to check if the queue is empty.
+   *
+   * @return true if there are no requests in the queue, false otherwise.
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * This method is used to get a packed request of the queue without removing it.
+   *
+   * @param index the position of the request, 0 is the oldest.
+   * @return the packed request.
+   * @throws IndexOutOfBoundsException if there is no request at the index.
+   */
+  public long get(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+    return this.elements[(this.head + index) & (this.elements.length - 1)];
+  }
+
+  /**
+   * This method is used to get a read-only view of the queue, oldest request first.
+   * The view follows the queue as requests are added and removed.
+   * The requests read from the view come from the table of requests of the queue.
+   *
+   * @return a read-only list view of the queue.
+   */
+  public List<Request> asList() {
+    return this.view;
+  }
+
+  /**
+   * Grow the ring buffer and unwrap the requests to the front.
+   *
+   * @param capacity the new capacity, a power of two larger than the current one.
+   */
+  private void grow(int capacity) {
+    long[] larger = new long[capacity];
+    int firstPart = Math.min(this.size, this.elements.length - this.head);
+    System.arraycopy(this.elements, this.head, larger, 0, firstPart);
+    System.arraycopy(this.elements, 0, larger, firstPart, this.size - firstPart);
+    this.elements = larger;
+    this.head = 0;
+  }
+
+  /**
+   * The read-only list view of the queue.
+   */
+  private class ReadOnlyView extends AbstractList<Request> {
+
+    @Override
+    public Request get(int index) {
+      return cache.get(RequestQueue.this.get(index));
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package building;
+
+import building.enums.Direction;
+import java.util.Arrays;
+import scanerzus.PackedRequest;
+
+
+/**
+ * This class keeps how many riders every elevator will have on board when it leaves
+ * each floor of its current run, so a request is only given to an elevator on its way
+ * if it has room for it all the way from its start floor to its end floor.
+ * A run starts when the elevator is given a batch at the bottom or top floor,
+ * or when it is first seen moving in a new direction.
+ */
+final class RunLoad {
+
+  private final int numberOfFloors;
+  private final int capacity;
+  //riders on board when leaving a floor, numberOfFloors entries for every elevator
+  private final int[] riders;
+  //the direction of the current run of every elevator
+  private final Direction[] runDirection;
+
+
+  /**
+   * The constructor for the loads of the elevators of a building.
+   *
+   * @param numberOfElevators the number of elevators in the building.
+   * @param numberOfFloors    the number of floors in the building.
+   * @param capacity          the capacity of the elevators.
+   */
+  RunLoad(int numberOfElevators, int numberOfFloors, int capacity) {
+    this.numberOfFloors = numberOfFloors;
+    this.capacity = capacity;
+    this.riders = new int[numberOfElevators * numberOfFloors];
+    this.runDirection = new Direction[numberOfElevators];
+    Arrays.fill(this.runDirection, Direction.STOPPED);
+  }
+
+  /**
+   * Start a new run of an elevator with the batch it was given at the bottom or top floor.
+   *
+   * @param elevator  the index of the elevator.
+   * @param direction the direction the elevator is leaving in.
+   * @param requests  the packed requests of the batch.
+   * @param count     the number of requests at the start of the array.
+   */
+  void startRun(int elevator, Direction direction, long[] requests, int count) {
+    clearRun(elevator, direction);
+    for (int i = 0; i < count; i++) {
+      board(elevator, requests[i]);
+    }
+  }
+
+  /**
+   * Start a new empty run of an elevator if it is moving in a new direction.
+   *
+   * @param elevator  the index of the elevator.
+   * @param direction the direction the elevator is moving in.
+   */
+  void follow(int elevator, Direction direction) {
+    if (this.runDirection[elevator] != direction) {
+      clearRun(elevator, direction);
+    }
+  }
+
+  /**
+   * Count the rider of a request on board an elevator if it has room for it.
+   *
+   * @param elevator the index of the elevator.
+   * @param request  the packed request.
+   * @return true if the elevator had room and the rider was counted.
+   */
+  boolean tryBoard(int elevator, long request) {
+    if (!hasRoom(elevator, request)) {
+      return false;
+    }
+    board(elevator, request);
+    return true;
+  }
+
+  /**
+   * Check if an elevator has room for the rider of a request
+   * all the way from its start floor to its end floor.
+   *
+   * @param elevator the index of the elevator.
+   * @param request  the packed request.
+   * @return true if the elevator has room.
+   */
+  boolean hasRoom(int elevator, long request) {
+    int base = elevator * this.numberOfFloors;
+    int to = base + highestFloorOnBoard(request);
+    for (int i = base + lowestFloorOnBoard(request); i <= to; i++) {
+      if (this.riders[i] >= this.capacity) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Count the rider of a request on board an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @param request  the packed request.
+   */
+  private void board(int elevator, long request) {
+    int base = elevator * this.numberOfFloors;
+    int to = base + highestFloorOnBoard(request);
+    for (int i = base + lowestFloorOnBoard(request); i <= to; i++) {
+      this.riders[i]++;
+    }
+  }
+
+  /**
+   * The lowest floor a rider is on board when the elevator leaves it.
+   * Going up that is the start floor, going down the floor above the end floor.
+   */
+  private static int lowestFloorOnBoard(long request) {
+    int start = PackedRequest.startFloor(request);
+    int end = PackedRequest.endFloor(request);
+    return start < end ? start : end + 1;
+  }
+
+  /**
+   * The highest floor a rider is on board when the elevator leaves it.
+   * Going up that is the floor below the end floor, going down the start floor.
+   */
+  private static int highestFloorOnBoard(long request) {
+    int start = PackedRequest.startFloor(request);
+    int end = PackedRequest.endFloor(request);
+    return start < end ? end - 1 : start;
+  }
+
+  /**
+   * Forget the riders of the last run of an elevator.
+   *
+   * @param elevator  the index of the elevator.
+   * @param direction the direction of the new run.
+   */
+  private void clearRun(int elevator, Direction direction) {
+    int base = elevator * this.numberOfFloors;
+    Arrays.fill(this.riders, base, base + this.numberOfFloors, 0);
+    this.runDirection[elevator] = direction;
+  }
+}
@@ -0,0 +1,89 @@
+package building;
+
+
+/**
+ * This is the reporting class for the time the optimal dispatch strategy spent
+ * giving out the waiting requests.
+ * A solved step is one where the waiting requests were few enough to be given out
+ * by the assignment solver, a greedy step is one where there were too many
+ * and they were given out nearest car first instead.
+ * The times are for the whole of giving out the requests on a step, solved or greedy.
+ */
+public class SolverStatistics {
+
+  private final long solvedTicks;
+  private final long greedyTicks;
+  private final long totalNanos;
+  private final long longestNanos;
+
+
+  /**
+   * The constructor for the solver statistics.
+   *
+   * @param solvedTicks  the number of steps the requests were given out by the solver.
+   * @param greedyTicks  the number of steps the requests were given out greedily.
+   * @param totalNanos   the nanoseconds spent over all those steps.
+   * @param longestNanos the nanoseconds spent on the longest step.
+   */
+  public SolverStatistics(long solvedTicks, long greedyTicks, long totalNanos,
+                          long longestNanos) {
+    this.solvedTicks = solvedTicks;
+    this.greedyTicks = greedyTicks;
+    this.totalNanos = totalNanos;
+    this.longestNanos = longestNanos;
+  }
+
+  /**
+   * This method is used to get the number of steps the requests were given out by the solver.
+   *
+   * @return the number of steps.
+   */
+  public long getSolvedTicks() {
+    return this.solvedTicks;
+  }
+
+  /**
+   * This method is used to get the number of steps there were too many waiting requests
+   * for the solver and they were given out greedily.
+   *
+   * @return the number of steps.
+   */
+  public long getGreedyTicks() {
+    return this.greedyTicks;
+  }
+
+  /**
+   * This method is used to get the nanoseconds spent giving out requests over all steps.
+   *
+   * @return the number of nanoseconds.
+   */
+  public long getTotalNanos() {
+    return this.totalNanos;
+  }
+
+  /**
+   * This method is used to get the nanoseconds spent on the longest step.
+   *
+   * @return the number of nanoseconds.
+   */
+  public long getLongestNanos() {
+    return this.longestNanos;
+  }
+
+  /**
+   * This method is used to get the average nanoseconds spent on a step with waiting requests.
+   *
+   * @return the average, 0 if no requests were given out yet.
+   */
+  public double getAverageNanos() {
+    long ticks = this.solvedTicks + this.greedyTicks;
+    return ticks == 0 ? 0 : (double) this.totalNanos / ticks;
+  }
+
+  @Override
+  public String toString() {
+    return "Solved: " + this.solvedTicks + ", Greedy: " + this.greedyTicks
+        + ", Average: " + Math.round(getAverageNanos()) + "ns, Longest: "
+        + this.longestNanos + "ns";
+  }
+}
@@ -0,0 +1,31 @@
+package building;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The Java Flight Recorder event of one step of a building, timed from the start of the step
+ * to its end, with the requests still waiting when it ends.
+ * Steps that advanceTo and step(n) run over at once do not make events.
+ */
+@Name("elevator.BuildingStep")
+@Label("Building Step")
+@Category({"Elevator Simulation", "Building"})
+@Description("One step of a building.")
+final class StepEvent extends Event {
+
+  @Label("Tick")
+  long tick;
+
+  @Label("Up Requests")
+  @Description("The requests waiting to go up at the end of the step.")
+  int upRequests;
+
+  @Label("Down Requests")
+  @Description("The requests waiting to go down at the end of the step.")
+  int downRequests;
+}
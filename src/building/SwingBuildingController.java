@@ -97,7 +97,7 @@ public class SwingBuildingController implements SwingBuildingControllerInterface
   @Override
   public void addRequest(int startFloor, int endFloor) {
     try {
-      this.model.addRequests(new Request(startFloor, endFloor));
+      this.model.addRequests(Request.of(startFloor, endFloor));
       this.view.resetRequestFields();
       this.view.displayErrorMessage("Request added.");
       this.view.displayAll(this.model.getBuildingReport());
@@ -0,0 +1,109 @@
+package building;
+
+import elevator.FleetView;
+
+
+/**
+ * The dispatch strategy the building has always used, and its default.
+ * An elevator waiting at the bottom floor is given the oldest up requests
+ * and an elevator waiting at the top floor the oldest down requests,
+ * as many as it can carry, for its whole run. The elevators are served in order.
+ */
+public class TerminalDispatch implements DispatchStrategy {
+
+  private long[] batch = new long[0];
+
+  @Override
+  public void dispatch(DispatchContext context) {
+    int size = context.getFleet().size();
+    for (int i = 0; i < size; i++) {
+      dispatch(context, i);
+    }
+  }
+
+  /**
+   * This method is used to hand out waiting requests to one elevator.
+   * The building calls this on its own for the elevators that may be given requests
+   * when it jumps over steps.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param elevator the index of the elevator.
+   */
+  public void dispatch(DispatchContext context, int elevator) {
+    FleetView fleet = context.getFleet();
+    boolean ready = fleet.isTakingRequests(elevator) && !context.isHolding(elevator);
+    if (ready && fleet.getCurrentFloor(elevator) == 0
+        && !context.getUpRequests().isEmpty()) {
+      assignBatch(context, elevator, context.getUpRequests());
+    } else if (ready && fleet.getCurrentFloor(elevator) == context.getNumberOfFloors() - 1
+        && !context.getDownRequests().isEmpty()) {
+      assignBatch(context, elevator, context.getDownRequests());
+    } else {
+      dispatchOnTheWay(context, elevator);
+    }
+  }
+
+  /**
+   * This method is used to give an elevator waiting at the bottom or top floor
+   * a batch of requests from a queue, see takeBatch.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param elevator the index of the elevator.
+   * @param requests the queue of requests in the direction the elevator will leave in.
+   */
+  private void assignBatch(DispatchContext context, int elevator, RequestQueue requests) {
+    if (this.batch.length < context.getElevatorCapacity()) {
+      this.batch = new long[context.getElevatorCapacity()];
+    }
+    int count = takeBatch(context, requests, this.batch);
+    context.assign(elevator, this.batch, count);
+    startedRun(context, elevator, this.batch, count);
+  }
+
+  /**
+   * This method is used to take the batch of an elevator leaving the bottom or top floor
+   * out of a queue that is not empty. Terminal batching takes the oldest requests,
+   * until the elevator is full or there are no more requests.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param requests the queue of requests in the direction the elevator will leave in.
+   * @param into     the array to put the packed requests into, with room for a full elevator.
+   * @return the number of requests taken.
+   */
+  protected int takeBatch(DispatchContext context, RequestQueue requests, long[] into) {
+    return requests.pollBatch(context.getElevatorCapacity(), into);
+  }
+
+  /**
+   * This method is used to tell a subclass an elevator has left the bottom or top floor
+   * with a new batch. Terminal batching keeps nothing about the runs.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param elevator the index of the elevator.
+   * @param requests the packed requests of the batch.
+   * @param count    the number of requests at the start of the array.
+   */
+  protected void startedRun(DispatchContext context, int elevator, long[] requests, int count) {
+  }
+
+  /**
+   * This method is used to hand out requests to an elevator that is not waiting for a batch
+   * at the bottom or top floor. Terminal batching gives it nothing.
+   *
+   * @param context  the elevators and waiting requests of the building.
+   * @param elevator the index of the elevator.
+   */
+  protected void dispatchOnTheWay(DispatchContext context, int elevator) {
+  }
+
+  /**
+   * Terminal batching lets the building jump over steps.
+   * A subclass that hands out more requests must return false.
+   *
+   * @return true for terminal batching.
+   */
+  @Override
+  public boolean canFastForward() {
+    return true;
+  }
+}
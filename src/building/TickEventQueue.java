@@ -0,0 +1,113 @@
+package building;
+
+import java.util.Arrays;
+
+
+/**
+ * This class is a priority queue of elevator events, earliest tick first.
+ * Events at the same tick come out in elevator order, the same order the building steps them.
+ * Each event is packed into a single long so the queue never allocates once it has grown.
+ * The ticks are kept from the base tick the queue was last cleared to, so an event must come
+ * less than MAX_SPAN ticks after it, however far the building has already run.
+ */
+final class TickEventQueue {
+
+  /************************************************************************
+   * The number of low bits of an event that hold the elevator index.
+   ************************************************************************/
+  static final int ELEVATOR_BITS = 20;
+
+  /************************************************************************
+   * The number of ticks after the base tick an event can come.
+   ************************************************************************/
+  static final long MAX_SPAN = 1L << (Long.SIZE - 1 - ELEVATOR_BITS);
+
+  private static final long ELEVATOR_MASK = (1L << ELEVATOR_BITS) - 1;
+
+  private long[] heap = new long[16];
+  private int size;
+  private long baseTick;
+
+
+  /**
+   * Add an event to the queue.
+   *
+   * @param tick     the tick of the event.
+   * @param elevator the index of the elevator the event belongs to.
+   * @throws IllegalArgumentException if the tick is not within MAX_SPAN ticks of the base tick.
+   */
+  void add(long tick, int elevator) throws IllegalArgumentException {
+    long offset = tick - this.baseTick;
+    if (offset < 0 || offset >= MAX_SPAN) {
+      throw new IllegalArgumentException(
+          "Event tick should be within " + MAX_SPAN + " ticks of the base tick.");
+    }
+    if (this.size == this.heap.length) {
+      this.heap = Arrays.copyOf(this.heap, this.size * 2);
+    }
+    long event = (offset << ELEVATOR_BITS) | elevator;
+    int child = this.size++;
+    while (child > 0) {
+      int parent = (child - 1) >>> 1;
+      if (this.heap[parent] <= event) {
+        break;
+      }
+      this.heap[child] = this.heap[parent];
+      child = parent;
+    }
+    this.heap[child] = event;
+  }
+
+  /**
+   * Check if the queue is empty.
+   *
+   * @return true if there are no events in the queue.
+   */
+  boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * Get the tick of the earliest event without removing it.
+   *
+   * @return the tick of the earliest event.
+   */
+  long peekTick() {
+    return this.baseTick + (this.heap[0] >>> ELEVATOR_BITS);
+  }
+
+  /**
+   * Remove the earliest event.
+   *
+   * @return the index of the elevator the event belongs to.
+   */
+  int poll() {
+    long first = this.heap[0];
+    long last = this.heap[--this.size];
+    int parent = 0;
+    int half = this.size >>> 1;
+    while (parent < half) {
+      int child = 2 * parent + 1;
+      if (child + 1 < this.size && this.heap[child + 1] < this.heap[child]) {
+        child++;
+      }
+      if (last <= this.heap[child]) {
+        break;
+      }
+      this.heap[parent] = this.heap[child];
+      parent = child;
+    }
+    this.heap[parent] = last;
+    return (int) (first & ELEVATOR_MASK);
+  }
+
+  /**
+   * Remove all the events and count the ticks of the next ones from a base tick.
+   *
+   * @param baseTick the earliest tick an event can be added at.
+   */
+  void clear(long baseTick) {
+    this.size = 0;
+    this.baseTick = baseTick;
+  }
+}
@@ -0,0 +1,218 @@
+package building;
+
+import elevator.FleetInterface;
+import java.util.Arrays;
+import metrics.Histogram;
+import scanerzus.PackedRequest;
+
+
+/**
+ * This class measures how long riders wait, from the tick their request arrives
+ * to the step an elevator given the request opens its door at their floor,
+ * and how long they ride, from there to the step the door opens at their end floor.
+ * For every elevator and floor it keeps how many riders are waiting for it there
+ * and the sum of their arrival ticks, so they all board in one go.
+ * For every elevator it also keeps the requests given to it, first waiting and then riding,
+ * so it can tell where the riders get off.
+ * The wait and ride of every rider are also recorded in histograms, for their percentiles.
+ */
+final class WaitTracker {
+
+  /**
+   * The longest wait or ride the histograms tell apart from longer ones, in ticks.
+   */
+  static final long HIGHEST_TICKS = Integer.MAX_VALUE;
+
+  private final int numberOfFloors;
+  //riders waiting, the sum of their arrival ticks and the earliest one,
+  //numberOfFloors entries for every elevator
+  private final int[] waiting;
+  private final long[] arrivals;
+  private final long[] earliest;
+  private long waitingCount;
+
+  private long boardedCount;
+  private long totalWaitTicks;
+  private long longestWaitTicks;
+
+  //the requests given to every elevator whose riders have not boarded yet,
+  //and the riders on board packed with the tick they boarded
+  private final long[][] boarding;
+  private final int[] boardingCount;
+  private final long[][] riding;
+  private final int[] ridingCount;
+  private long ridersCount;
+
+  private long arrivedCount;
+  private long totalRideTicks;
+
+  private final Histogram waitTimes = new Histogram(HIGHEST_TICKS);
+  private final Histogram rideTimes = new Histogram(HIGHEST_TICKS);
+
+
+  /**
+   * The constructor for the wait tracker of a building.
+   *
+   * @param numberOfElevators the number of elevators in the building.
+   * @param numberOfFloors    the number of floors in the building.
+   */
+  WaitTracker(int numberOfElevators, int numberOfFloors) {
+    this.numberOfFloors = numberOfFloors;
+    this.waiting = new int[numberOfElevators * numberOfFloors];
+    this.arrivals = new long[numberOfElevators * numberOfFloors];
+    this.earliest = new long[numberOfElevators * numberOfFloors];
+    this.boarding = new long[numberOfElevators][0];
+    this.boardingCount = new int[numberOfElevators];
+    this.riding = new long[numberOfElevators][0];
+    this.ridingCount = new int[numberOfElevators];
+  }
+
+  /**
+   * Start waiting for the riders of the requests given to an elevator.
+   *
+   * @param elevator the index of the elevator.
+   * @param requests the packed requests.
+   * @param count    the number of requests at the start of the array.
+   * @param tick     the current tick of the building.
+   */
+  void assigned(int elevator, long[] requests, int count, long tick) {
+    int base = elevator * this.numberOfFloors;
+    for (int i = 0; i < count; i++) {
+      int index = base + PackedRequest.startFloor(requests[i]);
+      long arrival = PackedRequest.arrivalTick(requests[i], tick);
+      this.earliest[index] = this.waiting[index] == 0 ? arrival
+          : Math.min(this.earliest[index], arrival);
+      this.waiting[index]++;
+      this.arrivals[index] += arrival;
+    }
+    this.waitingCount += count;
+    int boarded = this.boardingCount[elevator];
+    if (this.boarding[elevator].length < boarded + count) {
+      this.boarding[elevator] = Arrays.copyOf(this.boarding[elevator],
+          Math.max(2 * this.boarding[elevator].length, boarded + count));
+    }
+    System.arraycopy(requests, 0, this.boarding[elevator], boarded, count);
+    this.boardingCount[elevator] = boarded + count;
+  }
+
+  /**
+   * Let off the riders for every floor where an elevator has its door open,
+   * and board the riders waiting there.
+   * This is called after every step, when a door is open it was opened on this step
+   * or the riders for it would have boarded and got off already.
+   *
+   * @param fleet the elevators of the building.
+   * @param tick  the tick of the step.
+   */
+  void afterStep(FleetInterface fleet, long tick) {
+    if (this.waitingCount == 0 && this.ridersCount == 0) {
+      return;
+    }
+    for (int i = 0; i < fleet.size(); i++) {
+      if (fleet.isDoorClosed(i)) {
+        continue;
+      }
+      int floor = fleet.getCurrentFloor(i);
+      if (this.ridingCount[i] > 0) {
+        getOff(i, floor, tick);
+      }
+      int index = i * this.numberOfFloors + floor;
+      int riders = this.waiting[index];
+      if (riders > 0) {
+        this.totalWaitTicks += riders * tick - this.arrivals[index];
+        this.longestWaitTicks = Math.max(this.longestWaitTicks, tick - this.earliest[index]);
+        this.boardedCount += riders;
+        this.waitingCount -= riders;
+        this.waiting[index] = 0;
+        this.arrivals[index] = 0;
+        board(i, floor, tick);
+      }
+    }
+  }
+
+  /**
+   * Move the requests of an elevator starting at a floor from boarding to riding.
+   */
+  private void board(int elevator, int floor, long tick) {
+    long[] waitingFor = this.boarding[elevator];
+    int kept = 0;
+    for (int j = 0; j < this.boardingCount[elevator]; j++) {
+      long request = waitingFor[j];
+      if (PackedRequest.startFloor(request) != floor) {
+        waitingFor[kept++] = request;
+        continue;
+      }
+      this.waitTimes.record(tick - PackedRequest.arrivalTick(request, tick));
+      int count = this.ridingCount[elevator];
+      if (this.riding[elevator].length == count) {
+        this.riding[elevator] = Arrays.copyOf(this.riding[elevator], Math.max(4, 2 * count));
+      }
+      this.riding[elevator][count] =
+          PackedRequest.pack(floor, PackedRequest.endFloor(request), tick);
+      this.ridingCount[elevator] = count + 1;
+      this.ridersCount++;
+    }
+    this.boardingCount[elevator] = kept;
+  }
+
+  /**
+   * Let the riders of an elevator for a floor get off.
+   */
+  private void getOff(int elevator, int floor, long tick) {
+    long[] onBoard = this.riding[elevator];
+    int kept = 0;
+    for (int j = 0; j < this.ridingCount[elevator]; j++) {
+      long rider = onBoard[j];
+      if (PackedRequest.endFloor(rider) != floor) {
+        onBoard[kept++] = rider;
+        continue;
+      }
+      long rode = tick - PackedRequest.arrivalTick(rider, tick);
+      this.totalRideTicks += rode;
+      this.rideTimes.record(rode);
+      this.arrivedCount++;
+      this.ridersCount--;
+    }
+    this.ridingCount[elevator] = kept;
+  }
+
+  /**
+   * Forget the riders still waiting and riding, when their requests are dropped.
+   */
+  void clearWaiting() {
+    Arrays.fill(this.waiting, 0);
+    Arrays.fill(this.arrivals, 0L);
+    this.waitingCount = 0;
+    Arrays.fill(this.boardingCount, 0);
+    Arrays.fill(this.ridingCount, 0);
+    this.ridersCount = 0;
+  }
+
+  long getBoardedCount() {
+    return this.boardedCount;
+  }
+
+  long getTotalWaitTicks() {
+    return this.totalWaitTicks;
+  }
+
+  long getLongestWaitTicks() {
+    return this.longestWaitTicks;
+  }
+
+  long getArrivedCount() {
+    return this.arrivedCount;
+  }
+
+  long getTotalRideTicks() {
+    return this.totalRideTicks;
+  }
+
+  Histogram getWaitTimes() {
+    return this.waitTimes;
+  }
+
+  Histogram getRideTimes() {
+    return this.rideTimes;
+  }
+}
@@ -0,0 +1,120 @@
+package building;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * This class is the floors served by one bank of elevators in a zoned building.
+ * A bank serves the ground floor and the floors from its lowest floor to its highest floor.
+ * Its elevators run from the ground floor to its highest floor, on an express run
+ * past the floors below its lowest floor, which they never stop at.
+ */
+public final class Zone {
+
+  private final int lowestFloor;
+  private final int highestFloor;
+  private final int numberOfElevators;
+
+
+  /**
+   * The constructor for a zone.
+   *
+   * @param lowestFloor       the lowest floor served above the ground floor.
+   * @param highestFloor      the highest floor served.
+   * @param numberOfElevators the number of elevators in the bank.
+   * @throws IllegalArgumentException if the floors or the number of elevators are invalid.
+   */
+  public Zone(int lowestFloor, int highestFloor, int numberOfElevators)
+      throws IllegalArgumentException {
+    if (lowestFloor < 1) {
+      throw new IllegalArgumentException("Lowest floor of a zone should be at least 1.");
+    }
+    if (highestFloor < lowestFloor) {
+      throw new IllegalArgumentException(
+          "Highest floor of a zone should be at least its lowest floor.");
+    }
+    if (numberOfElevators < 1) {
+      throw new IllegalArgumentException("Number of elevators of a zone should be at least 1.");
+    }
+    this.lowestFloor = lowestFloor;
+    this.highestFloor = highestFloor;
+    this.numberOfElevators = numberOfElevators;
+  }
+
+  /**
+   * This method is used to split the floors above the ground floor of a building
+   * into zones of floors next to each other, as even as they can be,
+   * with the same number of elevators in each. The lowest zone gets at least two floors,
+   * as a zoned building needs the highest floor of every zone to be at least 2.
+   *
+   * @param numberOfFloors    the number of floors in the building.
+   * @param numberOfZones     the number of zones.
+   * @param elevatorsPerZone  the number of elevators in each bank.
+   * @return the zones, lowest first.
+   * @throws IllegalArgumentException if there are not enough floors above the ground floor
+   *                                  for the zones, or the zones are invalid.
+   */
+  public static List<Zone> split(int numberOfFloors, int numberOfZones, int elevatorsPerZone)
+      throws IllegalArgumentException {
+    if (numberOfZones < 1 || numberOfZones > numberOfFloors - 2) {
+      throw new IllegalArgumentException(
+          "Number of zones should be in [1," + (numberOfFloors - 2) + "].");
+    }
+    List<Zone> zones = new ArrayList<>();
+    int lowest = 1;
+    for (int i = 0; i < numberOfZones; i++) {
+      //the floors left shared by the zones left
+      int floors = (numberOfFloors - lowest) / (numberOfZones - i);
+      if (i == 0) {
+        floors = Math.max(floors, 2);
+      }
+      zones.add(new Zone(lowest, lowest + floors - 1, elevatorsPerZone));
+      lowest += floors;
+    }
+    return zones;
+  }
+
+  /**
+   * This method is used to get the lowest floor served above the ground floor.
+   *
+   * @return the lowest floor.
+   */
+  public int getLowestFloor() {
+    return this.lowestFloor;
+  }
+
+  /**
+   * This method is used to get the highest floor served.
+   *
+   * @return the highest floor.
+   */
+  public int getHighestFloor() {
+    return this.highestFloor;
+  }
+
+  /**
+   * This method is used to get the number of elevators in the bank.
+   *
+   * @return the number of elevators.
+   */
+  public int getNumberOfElevators() {
+    return this.numberOfElevators;
+  }
+
+  /**
+   * This method is used to check if the bank serves a floor.
+   *
+   * @param floor the floor.
+   * @return true if the floor is the ground floor or one of the floors of the zone.
+   */
+  public boolean serves(int floor) {
+    return floor == 0 || (floor >= this.lowestFloor && floor <= this.highestFloor);
+  }
+
+  @Override
+  public String toString() {
+    return "Floors " + this.lowestFloor + "-" + this.highestFloor + ", "
+        + this.numberOfElevators + " elevators";
+  }
+}
@@ -0,0 +1,526 @@
+package building;
+
+import building.enums.DispatchPolicy;
+import building.enums.ElevatorSystemStatus;
+import building.enums.RequestRejection;
+import building.enums.SimulationEngine;
+import elevator.ElevatorReport;
+import elevator.SpeedProfile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import metrics.Histogram;
+import scanerzus.Request;
+
+
+/**
+ * This class represents a tall building whose elevators are split into banks,
+ * one for every zone of floors (see Zone), so no elevator has to run the whole height.
+ * Every bank is run as a Building of its own, from the ground floor to the top of its zone,
+ * with its own up and down requests and its own dispatch strategy.
+ * A request is routed to the bank that serves both of its floors: the bank of its zone
+ * for a trip to or from the ground floor, or a trip inside one zone.
+ * A trip between two zones needs a change at the ground floor and is not accepted,
+ * it is for the caller to make it as two requests.
+ */
+public class ZonedBuilding implements BuildingInterface {
+
+  private final int numberOfFloors;
+  private final int numberOfElevators;
+  private final int elevatorCapacity;
+  private final BuildingLimits limits;
+  private final List<Zone> zones;
+  private final Building[] banks;
+  //the bank serving every floor, the ground floor is served by all of them
+  private final int[] bankOfFloor;
+
+
+  /**
+   * The constructor for the zoned building, with Elevator objects and the default limits.
+   *
+   * @param numberOfFloors   the number of floors in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param zones            the zones, which must share out the floors above the ground floor.
+   * @throws IllegalArgumentException if the number of floors, the zones,
+   *                                  or elevator capacity is invalid.
+   */
+  public ZonedBuilding(int numberOfFloors, int elevatorCapacity, List<Zone> zones)
+      throws IllegalArgumentException {
+    this(numberOfFloors, elevatorCapacity, zones, SimulationEngine.ELEVATOR_OBJECTS,
+        BuildingLimits.DEFAULT);
+  }
+
+  /**
+   * The constructor for the zoned building with a choice of simulation engine and limits.
+   * The limits are for the whole building, and for every bank.
+   *
+   * @param numberOfFloors   the number of floors in the building.
+   * @param elevatorCapacity the capacity of the elevators in the building.
+   * @param zones            the zones, which must share out the floors above the ground floor.
+   * @param engine           the way the banks keep the state of their elevators.
+   * @param limits           the largest building allowed.
+   * @throws IllegalArgumentException if the number of floors, the zones,
+   *                                  or elevator capacity is invalid.
+   */
+  public ZonedBuilding(int numberOfFloors, int elevatorCapacity, List<Zone> zones,
+                       SimulationEngine engine, BuildingLimits limits)
+      throws IllegalArgumentException {
+    if (numberOfFloors <= 2 || numberOfFloors > limits.getMaxFloors()) {
+      throw new IllegalArgumentException(
+          "Number of floors should be in [3," + limits.getMaxFloors() + "].");
+    }
+    if (zones == null || zones.isEmpty()) {
+      throw new IllegalArgumentException("There should be at least one zone.");
+    }
+    this.bankOfFloor = new int[numberOfFloors];
+    Arrays.fill(this.bankOfFloor, -1);
+    int elevators = 0;
+    for (int i = 0; i < zones.size(); i++) {
+      Zone zone = zones.get(i);
+      if (zone.getHighestFloor() > numberOfFloors - 1) {
+        throw new IllegalArgumentException("Zones should be inside the building.");
+      }
+      if (zone.getHighestFloor() < 2) {
+        //the bank runs from the ground floor to the top of the zone, and needs three floors
+        throw new IllegalArgumentException("Highest floor of a zone should be at least 2.");
+      }
+      for (int floor = zone.getLowestFloor(); floor <= zone.getHighestFloor(); floor++) {
+        if (this.bankOfFloor[floor] != -1) {
+          throw new IllegalArgumentException("Zones should not share floors.");
+        }
+        this.bankOfFloor[floor] = i;
+      }
+      elevators += zone.getNumberOfElevators();
+    }
+    for (int floor = 1; floor < numberOfFloors; floor++) {
+      if (this.bankOfFloor[floor] == -1) {
+        throw new IllegalArgumentException("Every floor above the ground floor needs a zone.");
+      }
+    }
+    if (elevators > limits.getMaxElevators()) {
+      throw new IllegalArgumentException(
+          "Number of elevators should be in [1," + limits.getMaxElevators() + "].");
+    }
+    this.numberOfFloors = numberOfFloors;
+    this.numberOfElevators = elevators;
+    this.elevatorCapacity = elevatorCapacity;
+    this.limits = limits;
+    this.zones = Collections.unmodifiableList(new ArrayList<>(zones));
+    this.banks = new Building[zones.size()];
+    for (int i = 0; i < this.banks.length; i++) {
+      Zone zone = zones.get(i);
+      this.banks[i] = new Building(zone.getHighestFloor() + 1, zone.getNumberOfElevators(),
+          elevatorCapacity, engine, limits);
+    }
+  }
+
+  /**
+   * This method is used to get the zones of the building, lowest first.
+   *
+   * @return the zones.
+   */
+  public List<Zone> getZones() {
+    return this.zones;
+  }
+
+  /**
+   * This method is used to get the bank of elevators of a zone,
+   * to choose how it works or to read what it measured.
+   *
+   * @param zone the index of the zone.
+   * @return the bank, as a building from the ground floor to the top of the zone.
+   * @throws IllegalArgumentException if the zone is out of range.
+   */
+  public Building getBank(int zone) throws IllegalArgumentException {
+    if (zone < 0 || zone >= this.banks.length) {
+      throw new IllegalArgumentException("Zone should be in [0," + (this.banks.length - 1)
+          + "].");
+    }
+    return this.banks[zone];
+  }
+
+  /**
+   * This method is used to find the bank that serves both floors of a trip.
+   *
+   * @param startFloor the start floor of the trip.
+   * @param endFloor   the end floor of the trip.
+   * @return the index of the bank, or -1 if the trip needs a change at the ground floor.
+   * @throws IllegalArgumentException if a floor is out of range.
+   */
+  public int bankOf(int startFloor, int endFloor) throws IllegalArgumentException {
+    if (startFloor < 0 || startFloor >= this.numberOfFloors
+        || endFloor < 0 || endFloor >= this.numberOfFloors) {
+      throw new IllegalArgumentException("Floor should be in [0," + (this.numberOfFloors - 1)
+          + "].");
+    }
+    if (startFloor == 0) {
+      return this.bankOfFloor[endFloor];
+    }
+    int bank = this.bankOfFloor[startFloor];
+    return endFloor == 0 || this.bankOfFloor[endFloor] == bank ? bank : -1;
+  }
+
+  /**
+   * This method is used to add a request to the bank that serves both of its floors.
+   *
+   * @param request the request to be added.
+   * @return true if the request was added successfully, otherwise throw an exception.
+   * @throws IllegalArgumentException if the request is invalid or no bank serves both floors.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  @Override
+  public boolean addRequests(Request request)
+      throws IllegalArgumentException, IllegalStateException {
+    return this.banks[checkRequest(request)].addRequests(request);
+  }
+
+  /**
+   * This method is used to add a request from any thread to the bank that serves both
+   * of its floors, see Building.submitRequest.
+   *
+   * @param request the request to be added.
+   * @throws IllegalArgumentException if the request is invalid or no bank serves both floors.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  @Override
+  public void submitRequest(Request request)
+      throws IllegalArgumentException, IllegalStateException {
+    this.banks[checkRequest(request)].submitRequest(request);
+  }
+
+  /**
+   * This method is used to add a batch of requests, each to the bank that serves both
+   * of its floors. An invalid request does not stop the batch, it is reported instead.
+   *
+   * @param requests the requests to be added.
+   * @return how many requests were added, and which were not and why.
+   * @throws IllegalStateException if the building is not running.
+   */
+  @Override
+  public RequestBatchReport addRequests(Collection<Request> requests)
+      throws IllegalStateException {
+    checkRunning();
+    List<Integer> rejectedIndices = new ArrayList<>();
+    List<RequestRejection> reasons = new ArrayList<>();
+    int index = 0;
+    for (Request request : requests) {
+      RequestRejection rejection = request == null ? RequestRejection.MISSING
+          : rejectionOf(request.getStartFloor(), request.getEndFloor());
+      if (rejection != null) {
+        rejectedIndices.add(index);
+        reasons.add(rejection);
+      } else {
+        this.banks[bankOf(request.getStartFloor(), request.getEndFloor())]
+            .addRequests(request);
+      }
+      index++;
+    }
+    return toReport(index, rejectedIndices, reasons);
+  }
+
+  /**
+   * This method is used to add a batch of requests, given as their start and end floors,
+   * each to the bank that serves both of its floors. See addRequests(Collection).
+   *
+   * @param startFloors the start floor of every request.
+   * @param endFloors   the end floor of every request.
+   * @return how many requests were added, and which were not and why.
+   * @throws IllegalArgumentException if there is not one end floor for every start floor.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  @Override
+  public RequestBatchReport addRequests(int[] startFloors, int[] endFloors)
+      throws IllegalArgumentException, IllegalStateException {
+    if (startFloors.length != endFloors.length) {
+      throw new IllegalArgumentException("There should be one end floor for every start floor.");
+    }
+    checkRunning();
+    List<Integer> rejectedIndices = new ArrayList<>();
+    List<RequestRejection> reasons = new ArrayList<>();
+    for (int i = 0; i < startFloors.length; i++) {
+      RequestRejection rejection = rejectionOf(startFloors[i], endFloors[i]);
+      if (rejection != null) {
+        rejectedIndices.add(i);
+        reasons.add(rejection);
+      } else {
+        this.banks[bankOf(startFloors[i], endFloors[i])]
+            .addRequests(Request.of(startFloors[i], endFloors[i]));
+      }
+    }
+    return toReport(startFloors.length, rejectedIndices, reasons);
+  }
+
+  /**
+   * This method is used to check a request and find its bank.
+   *
+   * @param request the request to be checked.
+   * @return the index of the bank that serves both floors.
+   * @throws IllegalArgumentException if the request is invalid or no bank serves both floors.
+   * @throws IllegalStateException    if the building is not running.
+   */
+  private int checkRequest(Request request)
+      throws IllegalArgumentException, IllegalStateException {
+    checkRunning();
+    RequestRejection rejection = request == null ? RequestRejection.MISSING
+        : rejectionOf(request.getStartFloor(), request.getEndFloor());
+    if (rejection != null) {
+      throw new IllegalArgumentException(rejection.toString());
+    }
+    return bankOf(request.getStartFloor(), request.getEndFloor());
+  }
+
+  /**
+   * This method is used to check that the building can accept requests.
+   *
+   * @throws IllegalStateException if the building is not running.
+   */
+  private void checkRunning() throws IllegalStateException {
+    if (getSystemStatus() != ElevatorSystemStatus.running) {
+      throw new IllegalStateException("Elevator system is not running, cannot accept requests.");
+    }
+  }
+
+  /**
+   * This method is used to check the floors of a request.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @return why the request is invalid, or null if it is valid.
+   */
+  private RequestRejection rejectionOf(int startFloor, int endFloor) {
+    if (startFloor < 0 || startFloor > this.numberOfFloors - 1
+        || endFloor < 0 || endFloor > this.numberOfFloors - 1) {
+      return RequestRejection.OUT_OF_RANGE;
+    }
+    if (startFloor == endFloor) {
+      return RequestRejection.SAME_FLOOR;
+    }
+    if (bankOf(startFloor, endFloor) == -1) {
+      return RequestRejection.NO_ZONE;
+    }
+    return null;
+  }
+
+  private static RequestBatchReport toReport(int count, List<Integer> rejectedIndices,
+                                             List<RequestRejection> reasons) {
+    int[] indices = new int[rejectedIndices.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = rejectedIndices.get(i);
+    }
+    return new RequestBatchReport(count - indices.length, indices,
+        reasons.toArray(new RequestRejection[0]));
+  }
+
+  @Override
+  public boolean removeAllRequests() {
+    for (Building bank : this.banks) {
+      bank.removeAllRequests();
+    }
+    return true;
+  }
+
+  /**
+   * This method is used to start the elevators of every bank.
+   * If the building is already running, it will do nothing.
+   *
+   * @throws IllegalStateException if the building is stopping.
+   */
+  @Override
+  public void startElevatorSystem() throws IllegalStateException {
+    if (getSystemStatus() == ElevatorSystemStatus.stopping) {
+      throw new IllegalStateException("Elevator system is stopping, cannot start.");
+    }
+    for (Building bank : this.banks) {
+      bank.startElevatorSystem();
+    }
+  }
+
+  /**
+   * This method is used to stop the elevators of every bank and remove all requests.
+   */
+  @Override
+  public void stopElevatorSystem() {
+    for (Building bank : this.banks) {
+      bank.stopElevatorSystem();
+    }
+  }
+
+  /**
+   * This method is used to get the status of the building: stopping while any bank
+   * is still stopping, otherwise the status all the banks share.
+   *
+   * @return the status of the building.
+   */
+  public ElevatorSystemStatus getSystemStatus() {
+    for (Building bank : this.banks) {
+      if (bank.getElevatorSystemStatus() == ElevatorSystemStatus.stopping) {
+        return ElevatorSystemStatus.stopping;
+      }
+    }
+    return this.banks[0].getElevatorSystemStatus();
+  }
+
+  /**
+   * This method is used to get the report of the whole building,
+   * with the elevators and the requests of every bank, lowest bank first.
+   * The elevator reports cover every floor of the building, like the report itself.
+   *
+   * @return a building report object.
+   */
+  @Override
+  public BuildingReport getBuildingReport() {
+    List<ElevatorReport> elevatorReports = new ArrayList<>();
+    List<Request> upRequests = new ArrayList<>();
+    List<Request> downRequests = new ArrayList<>();
+    for (Building bank : this.banks) {
+      BuildingReport report = bank.getBuildingReport();
+      for (ElevatorReport elevator : report.getElevatorReports()) {
+        elevatorReports.add(elevator.withNumberOfFloors(this.numberOfFloors));
+      }
+      upRequests.addAll(report.getUpRequests());
+      downRequests.addAll(report.getDownRequests());
+    }
+    return new BuildingReport(this.numberOfFloors, this.numberOfElevators,
+        this.elevatorCapacity, elevatorReports.toArray(new ElevatorReport[0]), upRequests,
+        downRequests, getSystemStatus(), this.limits);
+  }
+
+  @Override
+  public void step() {
+    for (Building bank : this.banks) {
+      bank.step();
+    }
+  }
+
+  @Override
+  public void step(long n) throws IllegalArgumentException {
+    for (Building bank : this.banks) {
+      bank.step(n);
+    }
+  }
+
+  /**
+   * This method is used to run every bank up to a tick, see Building.advanceTo.
+   *
+   * @param targetTick the tick to run the building to.
+   * @throws IllegalArgumentException if the tick is before the current tick.
+   */
+  public void advanceTo(long targetTick) throws IllegalArgumentException {
+    if (targetTick < getTick()) {
+      throw new IllegalArgumentException("Cannot advance to a tick that has already passed.");
+    }
+    for (Building bank : this.banks) {
+      bank.advanceTo(targetTick);
+    }
+  }
+
+  /**
+   * This method is used to get the number of steps the building has taken.
+   *
+   * @return the current tick.
+   */
+  public long getTick() {
+    return this.banks[0].getTick();
+  }
+
+  /**
+   * This method is used to choose one of the built in dispatch strategies for every bank.
+   *
+   * @param dispatchPolicy the dispatch policy.
+   * @throws IllegalArgumentException if the policy is null.
+   * @throws IllegalStateException    if the building is not out of service.
+   */
+  public void setDispatchPolicy(DispatchPolicy dispatchPolicy)
+      throws IllegalArgumentException, IllegalStateException {
+    for (Building bank : this.banks) {
+      bank.setDispatchPolicy(dispatchPolicy);
+    }
+  }
+
+  /**
+   * This method is used to choose how fast the elevators of a bank travel between their stops.
+   * The banks of high zones run past the floors below their zone without stopping,
+   * so giving them faster elevators makes an express run take fewer steps.
+   *
+   * @param zone         the index of the zone.
+   * @param speedProfile the speed profile.
+   * @throws IllegalArgumentException if the zone is out of range or there is no profile.
+   */
+  public void setSpeedProfile(int zone, SpeedProfile speedProfile)
+      throws IllegalArgumentException {
+    getBank(zone).setSpeedProfile(speedProfile);
+  }
+
+  /**
+   * This method is used to turn measuring how long riders wait on or off in every bank.
+   *
+   * @param recording true to measure wait times.
+   */
+  public void setRecordingWaitTimes(boolean recording) {
+    for (Building bank : this.banks) {
+      bank.setRecordingWaitTimes(recording);
+    }
+  }
+
+  /**
+   * This method is used to get the number of riders picked up in all the banks
+   * since wait times were turned on.
+   *
+   * @return the number of riders picked up.
+   */
+  public long getBoardedCount() {
+    long boarded = 0;
+    for (Building bank : this.banks) {
+      boarded += bank.getBoardedCount();
+    }
+    return boarded;
+  }
+
+  /**
+   * This method is used to get the average number of ticks the riders picked up
+   * in all the banks waited.
+   *
+   * @return the average wait, 0 if no rider was picked up or wait times are not measured.
+   */
+  public double getAverageWaitTicks() {
+    long boarded = getBoardedCount();
+    if (boarded == 0) {
+      return 0;
+    }
+    double waited = 0;
+    for (Building bank : this.banks) {
+      waited += bank.getAverageWaitTicks() * bank.getBoardedCount();
+    }
+    return waited / boarded;
+  }
+
+  /**
+   * This method is used to get how long the riders picked up in all the banks waited,
+   * with the percentiles of their waits, merged from the histograms of the banks.
+   *
+   * @return the wait latency, all 0 if wait times are not measured.
+   */
+  public LatencyStatistics getWaitLatency() {
+    Histogram merged = new Histogram(WaitTracker.HIGHEST_TICKS);
+    for (Building bank : this.banks) {
+      merged.add(bank.getWaitTimes());
+    }
+    return LatencyStatistics.of(merged);
+  }
+
+  /**
+   * This method is used to get how long the riders who got off in all the banks rode,
+   * with the percentiles of their rides, merged from the histograms of the banks.
+   *
+   * @return the ride latency, all 0 if wait times are not measured.
+   */
+  public LatencyStatistics getRideLatency() {
+    Histogram merged = new Histogram(WaitTracker.HIGHEST_TICKS);
+    for (Building bank : this.banks) {
+      merged.add(bank.getRideTimes());
+    }
+    return LatencyStatistics.of(merged);
+  }
+}
@@ -0,0 +1,30 @@
+package building.enums;
+
+/**
+ * The way a building hands its waiting requests to the elevators.
+ * TERMINAL gives requests only to an elevator waiting at the bottom or top floor,
+ * a batch of up to its capacity for the whole run.
+ * COLLECTIVE also lets an elevator moving past waiting requests in its direction
+ * pick them up on the way, as long as it has room for them.
+ * NEAREST_CAR gives every waiting request to the elevator estimated to get to it first.
+ * OPTIMAL gives out the waiting requests of a step together, at the lowest total estimate.
+ * DESTINATION gives batches like TERMINAL, made of riders that share stops.
+ */
+public enum DispatchPolicy {
+  TERMINAL("Terminal"),
+  COLLECTIVE("Collective"),
+  NEAREST_CAR("Nearest car"),
+  OPTIMAL("Optimal"),
+  DESTINATION("Destination");
+
+  private final String display;
+
+  DispatchPolicy(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
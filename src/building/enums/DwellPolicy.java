@@ -0,0 +1,24 @@
+package building.enums;
+
+/**
+ * How long an elevator waits at the bottom or top floor before it sets off.
+ * FIXED always waits the same number of steps when nobody is waiting,
+ * and sets off at once with whoever is waiting.
+ * ADAPTIVE sets off at once when nobody is waiting to go its way,
+ * and holds a part-full elevator for a few steps while requests are still arriving.
+ */
+public enum DwellPolicy {
+  FIXED("Fixed"),
+  ADAPTIVE("Adaptive");
+
+  private final String display;
+
+  DwellPolicy(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -0,0 +1,23 @@
+package building.enums;
+
+/**
+ * The reason a request of a batch was not added to the building.
+ * The display string is the message addRequests throws for the same request on its own.
+ */
+public enum RequestRejection {
+  MISSING("Request is missing."),
+  OUT_OF_RANGE("Requests out of range."),
+  SAME_FLOOR("Start floor and end floor cannot be the same."),
+  NO_ZONE("No zone serves both floors.");
+
+  private final String display;
+
+  RequestRejection(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
@@ -0,0 +1,23 @@
+package building.enums;
+
+/**
+ * The way a building keeps the state of its elevators.
+ * ELEVATOR_OBJECTS keeps one Elevator object per elevator.
+ * FLEET_STATE keeps all the elevators in parallel arrays and steps them in one loop.
+ * Both produce the same building reports.
+ */
+public enum SimulationEngine {
+  ELEVATOR_OBJECTS("Elevator Objects"),
+  FLEET_STATE("Fleet State");
+
+  private final String display;
+
+  SimulationEngine(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
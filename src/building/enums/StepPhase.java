@@ -0,0 +1,29 @@
+package building.enums;
+
+/**
+ * The phases of the work of a building that can be timed on the wall clock.
+ * DRAIN takes the requests submitted from other threads, DISPATCH hands waiting requests
+ * to the elevators, including the adaptive dwell deciding who waits, STEP_ELEVATORS moves
+ * the elevators, TRACKING measures the waits and rides of the riders and the dwell,
+ * STOPPING_CHECK looks for the elevators all being back at the ground floor while stopping,
+ * and REPORT builds a building report.
+ */
+public enum StepPhase {
+  DRAIN("Request drain"),
+  DISPATCH("Dispatch"),
+  STEP_ELEVATORS("Elevator stepping"),
+  TRACKING("Tracking"),
+  STOPPING_CHECK("Stopping check"),
+  REPORT("Building report");
+
+  private final String display;
+
+  StepPhase(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
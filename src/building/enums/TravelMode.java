@@ -0,0 +1,24 @@
+package building.enums;
+
+/**
+ * The way the elevators of a building travel between their stops.
+ * FULL_SWEEP runs every elevator all the way to the top or bottom floor before it turns around.
+ * LOOK turns an elevator that left the bottom or top floor with a batch around
+ * at the last stop of the batch, as long as nobody is waiting to go the other way,
+ * so it does not run empty to the far end of the building and back.
+ */
+public enum TravelMode {
+  FULL_SWEEP("Full sweep"),
+  LOOK("Look");
+
+  private final String display;
+
+  TravelMode(String display) {
+    this.display = display;
+  }
+
+  @Override
+  public String toString() {
+    return this.display;
+  }
+}
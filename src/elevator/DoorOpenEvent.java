@@ -0,0 +1,41 @@
+package elevator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The Java Flight Recorder event of an elevator opening its door at a floor it was asked
+ * to stop at. Runs that an elevator is advanced over at once do not make events.
+ */
+@Name("elevator.DoorOpen")
+@Label("Door Open")
+@Category({"Elevator Simulation", "Elevator"})
+@Description("An elevator opening its door at a stop.")
+final class DoorOpenEvent extends Event {
+
+  @Label("Elevator Id")
+  int elevatorId;
+
+  @Label("Floor")
+  int floor;
+
+  /**
+   * Record that an elevator opened its door, if the event is being recorded.
+   * When it is not, the event is never filled in and the JIT drops the allocation.
+   *
+   * @param elevatorId the id of the elevator.
+   * @param floor      the floor it opened its door at.
+   */
+  static void record(int elevatorId, int floor) {
+    DoorOpenEvent event = new DoorOpenEvent();
+    if (event.shouldCommit()) {
+      event.elevatorId = elevatorId;
+      event.floor = floor;
+      event.commit();
+    }
+  }
+}
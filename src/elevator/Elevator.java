@@ -1,8 +1,10 @@
 package elevator;
 
 
+import building.BuildingLimits;
 import building.enums.Direction;
 import java.util.List;
+import scanerzus.PackedRequest;
 import scanerzus.Request;
 
 
@@ -20,6 +22,18 @@ public class Elevator implements ElevatorInterface {
    ************************************************************************/
   private final int id = newElevatorId++;
 
+  /**
+   * Reserve a block of consecutive elevator ids for elevators that are not Elevator objects.
+   *
+   * @param count the number of ids to reserve.
+   * @return the first id of the block.
+   */
+  static int reserveIds(int count) {
+    int first = newElevatorId;
+    newElevatorId += count;
+    return first;
+  }
+
   /************************************************************************
    * The total number of floors in the building.
    ************************************************************************/
@@ -33,7 +47,6 @@ public class Elevator implements ElevatorInterface {
   /************************************************************************
    * The number of steps that the door is open for.
    ************************************************************************/
-  @SuppressWarnings("FieldCanBeLocal")
   private final int doorOpenTimeTotal = 3;
 
   /************************************************************************
@@ -78,11 +91,27 @@ public class Elevator implements ElevatorInterface {
   /************************************************************************
    * The requests for the floors.
    ************************************************************************/
-  private final boolean[] floorRequests; // true if there is a request for the floor.
+  private final StopSet floorRequests;
+
+  /************************************************************************
+   * Turn around after the last stop of this run instead of at the top or bottom.
+   ************************************************************************/
+  private boolean turnAtLastStop;
 
 
   private boolean outOfService;  // start must be issued on the elevator to start it.
 
+  /************************************************************************
+   * How fast the elevator travels, and the floors it moved on the last step.
+   ************************************************************************/
+  private SpeedProfile speedProfile = SpeedProfile.LOCAL;
+  private int speed;
+
+  /************************************************************************
+   * The cursor used to run the elevator forward many steps at a time.
+   ************************************************************************/
+  private FreeRun freeRun;
+
 
   /**
    * The constructor for this elevator.
@@ -97,11 +126,28 @@ public class Elevator implements ElevatorInterface {
    * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
    */
   public Elevator(int maxFloor, int maxOccupancy) {
-    if (maxFloor < 3 || maxFloor > 30) {
-      throw new IllegalArgumentException("maxFloor must be between 3 and 30");
+    this(maxFloor, maxOccupancy, BuildingLimits.DEFAULT);
+  }
+
+  /**
+   * The constructor for this elevator in a building with its own limits.
+   * The elevator is initially at the ground floor and is not moving.
+   *
+   * @param maxFloor     the total number of floors in the building
+   *                     must be at least 3 and at most the floor limit
+   * @param maxOccupancy the maximum number of people that can fit in the elevator
+   *                     must be at least 3 and at most the capacity limit
+   * @param limits       the limits of the building the elevator is in
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public Elevator(int maxFloor, int maxOccupancy, BuildingLimits limits) {
+    if (maxFloor < 3 || maxFloor > limits.getMaxFloors()) {
+      throw new IllegalArgumentException(
+          "maxFloor must be between 3 and " + limits.getMaxFloors());
     }
-    if (maxOccupancy < 3 || maxOccupancy > 20) {
-      throw new IllegalArgumentException("maxOccupancy must be between 3 and 20");
+    if (maxOccupancy < 3 || maxOccupancy > limits.getMaxCapacity()) {
+      throw new IllegalArgumentException(
+          "maxOccupancy must be between 3 and " + limits.getMaxCapacity());
     }
 
     this.maxFloor = maxFloor;
@@ -109,7 +155,7 @@ public class Elevator implements ElevatorInterface {
     this.currentFloor = 0;
     this.direction = Direction.STOPPED;
     this.outOfService = true;
-    this.floorRequests = new boolean[maxFloor];
+    this.floorRequests = new StopSet(maxFloor);
     this.takingRequests = false;
 
   }
@@ -178,12 +224,13 @@ public class Elevator implements ElevatorInterface {
 
   /**
    * Return the current stop requests.
+   * The array is built from the packed stop set when it is asked for.
    *
    * @return the current stop requests.
    */
   @Override
   public boolean[] getFloorRequests() {
-    return this.floorRequests;
+    return this.floorRequests.toBooleanArray();
   }
 
   /* ***********************************************************************
@@ -212,6 +259,8 @@ public class Elevator implements ElevatorInterface {
     this.doorOpenTimeLeft = 0;
     this.stopWaitTimeLeft = this.stopWaitTimeTotal;
     this.direction = Direction.UP;
+    this.turnAtLastStop = false;
+    this.speed = 0;
   }
 
 
@@ -246,10 +295,12 @@ public class Elevator implements ElevatorInterface {
     // the door is closed and we are not waiting at the top or bottom.
     // now we check to see if there is a request at this floor
     // We open the door and set the timer for 3 steps.
-    if (this.floorRequests[this.currentFloor]) {
+    if (this.floorRequests.contains(this.currentFloor)) {
       this.doorClosed = false;
       this.doorOpenTimeLeft = this.doorOpenTimeTotal;
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.remove(this.currentFloor);
+      this.speed = 0;
+      DoorOpenEvent.record(this.id, this.currentFloor);
       return;
     }
 
@@ -264,9 +315,12 @@ public class Elevator implements ElevatorInterface {
     // we need to set the direction to up
     // we set the timer to this.stopWaitTimeTotal
     if (this.currentFloor == 0 && this.direction == Direction.DOWN) {
+      ReversalEvent.record(this.id, this.currentFloor, this.direction);
       this.direction = Direction.STOPPED;
+      this.turnAtLastStop = false;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.speed = 0;
       return;
     }
 
@@ -275,9 +329,12 @@ public class Elevator implements ElevatorInterface {
     // we need to set the direction to down
     // we set the timer to this.stopWaitTimeTotal
     if (this.currentFloor == this.maxFloor - 1 && this.direction == Direction.UP) {
+      ReversalEvent.record(this.id, this.currentFloor, this.direction);
       this.direction = Direction.STOPPED;
+      this.turnAtLastStop = false;
       this.stopWaitTimeLeft = this.stopWaitTimeTotal;
       this.takingRequests = true;
+      this.speed = 0;
       return;
     }
 
@@ -287,13 +344,242 @@ public class Elevator implements ElevatorInterface {
     // there is no request at this floor
     // we are not at the top or the bottom
     // we need to move the elevator in the direction it is currently moving.
+    // If we were told to turn at the last stop and there is no stop left ahead,
+    // we turn around first and move the other way in the same step.
+    if (this.turnAtLastStop && !this.isAtEnd() && !this.hasStopAhead()) {
+      ReversalEvent.record(this.id, this.currentFloor, this.direction);
+      this.turnAtLastStop = false;
+      this.direction = this.direction == Direction.UP ? Direction.DOWN : Direction.UP;
+      this.speed = 0;
+    }
 
-    int floorIncrement = 1;
+    // a fast elevator moves several floors, but never past its next stop.
     if (this.direction == Direction.UP) {
-      this.currentFloor += floorIncrement;
+      this.currentFloor += this.nextMove();
     } else if (this.direction == Direction.DOWN) {
-      this.currentFloor -= floorIncrement;
+      this.currentFloor -= this.nextMove();
+    }
+  }
+
+  /**
+   * Work out the number of floors the elevator moves on this step, in the direction
+   * it is moving, from its speed profile and how far its next stop or the end is.
+   *
+   * @return the number of floors to move.
+   */
+  private int nextMove() {
+    if (this.speedProfile.getFloorsPerTick() == 1) {
+      this.speed = 1;
+      return 1;
+    }
+    int left;
+    if (this.direction == Direction.UP) {
+      int next = this.floorRequests.nextAbove(this.currentFloor);
+      left = (next < 0 ? this.maxFloor - 1 : next) - this.currentFloor;
+    } else {
+      left = this.currentFloor - Math.max(this.floorRequests.nextBelow(this.currentFloor), 0);
+    }
+    this.speed = this.speedProfile.move(this.speed, left);
+    return this.speed;
+  }
+
+  /**
+   * Change how fast the elevator travels between its stops.
+   * An elevator already moving keeps its speed and speeds up or slows down from there.
+   * An elevator out of service always runs down one floor a step.
+   *
+   * @param speedProfile the speed profile.
+   * @throws IllegalArgumentException if there is no profile.
+   */
+  @Override
+  public void setSpeedProfile(SpeedProfile speedProfile) throws IllegalArgumentException {
+    if (speedProfile == null) {
+      throw new IllegalArgumentException("Speed profile cannot be null.");
+    }
+    this.speedProfile = speedProfile;
+  }
+
+  /**
+   * Get how fast the elevator travels between its stops.
+   *
+   * @return the speed profile.
+   */
+  @Override
+  public SpeedProfile getSpeedProfile() {
+    return this.speedProfile;
+  }
+
+  /**
+   * Check if there is a stop ahead of the elevator in the direction it is moving.
+   *
+   * @return true if there is a stop ahead.
+   */
+  private boolean hasStopAhead() {
+    if (this.direction == Direction.UP) {
+      return this.floorRequests.nextAbove(this.currentFloor) >= 0;
+    }
+    return this.floorRequests.nextBelow(this.currentFloor) >= 0;
+  }
+
+  /**
+   * Tell the elevator to turn around after the last stop of the run it has just set off on,
+   * instead of running on to the top or bottom floor. It then runs back to the floor
+   * it set off from, picking up nothing unless it is given requests on the way.
+   * This does nothing unless the elevator has just been given a batch
+   * at the bottom or top floor.
+   */
+  @Override
+  public void turnAtLastStop() {
+    if (this.isAtEnd() && !this.outOfService && !this.takingRequests
+        && !this.floorRequests.isEmpty()) {
+      this.turnAtLastStop = true;
+    }
+  }
+
+  /**
+   * Change how many more steps the elevator waits at the bottom or top floor
+   * before it sets off without requests. Waiting 0 steps sets it off at once.
+   *
+   * @param ticks the number of steps to wait, not negative.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   * @throws IllegalStateException    if the elevator is not taking requests.
+   */
+  @Override
+  public void setEndWait(int ticks) throws IllegalArgumentException, IllegalStateException {
+    if (!this.takingRequests) {
+      throw new IllegalStateException("Elevator is not waiting at the bottom or top floor.");
+    }
+    if (ticks < 0) {
+      throw new IllegalArgumentException("Wait cannot be negative.");
+    }
+    this.stopWaitTimeLeft = ticks;
+    if (ticks == 0) {
+      this.setOff();
+    }
+  }
+
+  /**
+   * Get the number of steps the elevator still has to wait at the bottom or top floor.
+   *
+   * @return the steps left to wait, 0 if the elevator is not waiting.
+   */
+  int getEndWaitTimer() {
+    return this.stopWaitTimeLeft;
+  }
+
+  /**
+   * Get the number of steps the door of the elevator stays open.
+   *
+   * @return the steps left before the door closes, 0 if it is closed.
+   */
+  int getDoorOpenTimer() {
+    return this.doorClosed ? 0 : this.doorOpenTimeLeft;
+  }
+
+  /**
+   * Get the number of steps the door of the elevator stays open at a stop.
+   *
+   * @return the steps the door stays open.
+   */
+  int getDoorOpenTime() {
+    return this.doorOpenTimeTotal;
+  }
+
+  /**
+   * Get the number of steps the elevator waits at the bottom or top floor.
+   *
+   * @return the steps it waits.
+   */
+  int getEndWaitTime() {
+    return this.stopWaitTimeTotal;
+  }
+
+  /**
+   * Get the number of floors ahead the elevator needs to stop, from how fast it is moving.
+   *
+   * @return the number of floors, 0 if it can stop at the floor it is at.
+   */
+  int getStoppingDistance() {
+    return this.speedProfile.stoppingDistance(this.speed);
+  }
+
+  /**
+   * Get the stops of the elevator, for the fleet to look at without copying them.
+   *
+   * @return the stop set of the elevator.
+   */
+  StopSet getStops() {
+    return this.floorRequests;
+  }
+
+  /**
+   * Run the elevator forward by a number of steps at once.
+   * The result is the same as calling step() that many times,
+   * as long as the elevator is not given requests in the meantime.
+   *
+   * @param ticks the number of steps to run.
+   */
+  void advance(long ticks) {
+    FreeRun run = loadFreeRun();
+    run.useStops(this.floorRequests.words(), 0);
+    run.run(ticks, -1);
+    this.currentFloor = run.floor;
+    this.direction = run.direction;
+    this.doorClosed = run.doorClosed;
+    this.doorOpenTimeLeft = run.doorOpenTimeLeft;
+    this.stopWaitTimeLeft = run.stopWaitTimeLeft;
+    this.takingRequests = run.takingRequests;
+    this.turnAtLastStop = run.turnAtLastStop;
+    this.speed = run.speed;
+    this.floorRequests.changed();
+  }
+
+  /**
+   * Count the steps until the elevator next begins a step while taking requests at a floor,
+   * as long as it is not given requests in the meantime.
+   *
+   * @param floor the floor to take requests at.
+   * @return the number of steps, 0 if it is taking requests there now,
+   *         or Long.MAX_VALUE if it never will.
+   */
+  long ticksUntilTakingRequestsAt(int floor) {
+    FreeRun run = loadFreeRun();
+    run.copyStops(this.floorRequests.words(), 0);
+    return run.run(Long.MAX_VALUE, floor);
+  }
+
+  /**
+   * Count the steps until the elevator, taken out of service,
+   * is resting on the ground floor with its door open.
+   *
+   * @return the number of steps, 0 if it is resting now,
+   *         or Long.MAX_VALUE if it is in service or will never rest.
+   */
+  long ticksUntilAtRest() {
+    return loadFreeRun().ticksUntilAtRest();
+  }
+
+  /**
+   * Load the state of the elevator into its free run cursor.
+   *
+   * @return the loaded cursor.
+   */
+  private FreeRun loadFreeRun() {
+    if (this.freeRun == null) {
+      this.freeRun = new FreeRun(this.maxFloor, this.doorOpenTimeTotal, this.stopWaitTimeTotal);
     }
+    this.freeRun.useProfile(this.speedProfile);
+    FreeRun run = this.freeRun;
+    run.floor = this.currentFloor;
+    run.direction = this.direction;
+    run.doorClosed = this.doorClosed;
+    run.doorOpenTimeLeft = this.doorOpenTimeLeft;
+    run.stopWaitTimeLeft = this.stopWaitTimeLeft;
+    run.takingRequests = this.takingRequests;
+    run.outOfService = this.outOfService;
+    run.turnAtLastStop = this.turnAtLastStop;
+    run.speed = this.speed;
+    return run;
   }
 
   /**
@@ -315,7 +601,7 @@ public class Elevator implements ElevatorInterface {
     if (this.currentFloor == 0) {
       this.doorClosed = false;
       // we can clear the floor requests now
-      this.floorRequests[this.currentFloor] = false;
+      this.floorRequests.remove(this.currentFloor);
       // we can set the elevator to stopped.
       this.direction = Direction.STOPPED;
       return;
@@ -364,16 +650,24 @@ public class Elevator implements ElevatorInterface {
   /**
    * Process the requests.  The Building will only give us requests
    * that are on the way to our current direction.  That is,
-   * if we are at the bottom or the top.
+   * if we are at the bottom or the top, any requests in the direction we will leave in,
+   * and anywhere else, requests that start and end ahead of us
+   * in the direction we are moving, which we pick up on the way.
    * If a request is received to processRequests and the elevator
-   * is not on the first floor or the top floor then and exception
-   * will be thrown.
+   * is not on the first floor or the top floor and the request is not ahead
+   * of it then and exception will be thrown.
    */
   @Override
   public void processRequests(List<Request> requests) throws IllegalStateException {
-    if (this.currentFloor != 0 && this.currentFloor != this.maxFloor - 1) {
-      throw new IllegalStateException("Elevator cannot process requests "
-          + "unless it is at the bottom or top floor.");
+    if (!this.isAtEnd()) {
+      for (Request request : requests) {
+        checkAhead(request.getStartFloor(), request.getEndFloor());
+      }
+      for (Request request : requests) {
+        this.floorRequests.add(request.getStartFloor());
+        this.floorRequests.add(request.getEndFloor());
+      }
+      return;
     }
 
     if (requests.isEmpty()) {
@@ -381,13 +675,79 @@ public class Elevator implements ElevatorInterface {
     }
 
     this.processStopRequests(requests);
+    this.setOff();
+  }
+
+  /**
+   * Process the requests packed into longs, see processRequests(List).
+   *
+   * @param requests the packed requests.
+   * @param count    the number of requests at the start of the array.
+   */
+  @Override
+  public void processRequests(long[] requests, int count) throws IllegalStateException {
+    if (!this.isAtEnd()) {
+      for (int i = 0; i < count; i++) {
+        checkAhead(PackedRequest.startFloor(requests[i]), PackedRequest.endFloor(requests[i]));
+      }
+    } else if (count > 0) {
+      clearStopRequests();
+      this.turnAtLastStop = false;
+    }
+
+    for (int i = 0; i < count; i++) {
+      this.floorRequests.add(PackedRequest.startFloor(requests[i]));
+      this.floorRequests.add(PackedRequest.endFloor(requests[i]));
+    }
+    if (this.isAtEnd() && count > 0) {
+      this.stopWaitTimeLeft = 0;
+      this.setOff();
+    }
+  }
+
+  /**
+   * Check if the elevator is at the bottom or top floor.
+   *
+   * @return true if the elevator is at the bottom or top floor.
+   */
+  private boolean isAtEnd() {
+    return this.currentFloor == 0 || this.currentFloor == this.maxFloor - 1;
+  }
+
+  /**
+   * Check that a request given to the elevator between the bottom and top floor
+   * starts and ends ahead of it, in the direction it is moving.
+   * A request can start at the current floor if the door has not opened there yet,
+   * and a moving elevator needs its stopping distance to stop for it.
+   *
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @throws IllegalStateException if the request is not ahead of the elevator.
+   */
+  private void checkAhead(int startFloor, int endFloor) throws IllegalStateException {
+    int step = this.doorClosed ? getStoppingDistance() : 1;
+    boolean ahead = false;
+    if (!this.outOfService && this.direction == Direction.UP) {
+      ahead = startFloor >= this.currentFloor + step && endFloor > startFloor;
+    } else if (!this.outOfService && this.direction == Direction.DOWN) {
+      ahead = startFloor <= this.currentFloor - step && endFloor < startFloor;
+    }
+    if (!ahead) {
+      throw new IllegalStateException("Elevator cannot process requests "
+          + "away from the bottom or top floor unless they are ahead of it.");
+    }
+  }
+
+  /**
+   * Head away from the end of the building the elevator was given its requests at.
+   */
+  private void setOff() {
     if (this.currentFloor == 0) {
       this.direction = Direction.UP;
     } else if (this.currentFloor == this.maxFloor - 1) {
       this.direction = Direction.DOWN;
     }
     this.takingRequests = false;
-
   }
 
   /**
@@ -401,6 +761,8 @@ public class Elevator implements ElevatorInterface {
 
     this.outOfService = true;
     this.stopWaitTimeLeft = 0;
+    this.turnAtLastStop = false;
+    this.speed = 0;
   }
 
   /**
@@ -417,10 +779,11 @@ public class Elevator implements ElevatorInterface {
 
   private void processStopRequests(List<Request> requests) {
     clearStopRequests();
+    this.turnAtLastStop = false;
 
     for (Request request : requests) {
-      this.floorRequests[request.getStartFloor()] = true;
-      this.floorRequests[request.getEndFloor()] = true;
+      this.floorRequests.add(request.getStartFloor());
+      this.floorRequests.add(request.getEndFloor());
     }
     // if the elevator was waiting at the top or bottom
     // set the timer to 0 and we are off to the races.
@@ -432,9 +795,7 @@ public class Elevator implements ElevatorInterface {
    * Clear the Floor Requests.
    */
   private void clearStopRequests() {
-    for (int i = 0; i < this.maxFloor; i++) {
-      this.floorRequests[i] = false;
-    }
+    this.floorRequests.clear();
   }
 
   /**
@@ -449,7 +810,8 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.floorRequests.snapshot(),
+        this.maxFloor,
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
@@ -471,7 +833,8 @@ public class Elevator implements ElevatorInterface {
         this.currentFloor,
         this.direction,
         this.doorClosed,
-        this.floorRequests,
+        this.floorRequests.snapshot(),
+        this.maxFloor,
         this.doorOpenTimeLeft,
         this.stopWaitTimeLeft,
         this.outOfService,
@@ -0,0 +1,191 @@
+package elevator;
+
+import building.BuildingLimits;
+import building.enums.Direction;
+import java.util.List;
+import scanerzus.Request;
+
+
+/**
+ * A fleet where every elevator is its own Elevator object.
+ * Stepping the fleet steps every elevator in turn.
+ */
+public class ElevatorFleet implements FleetInterface {
+
+  private final Elevator[] elevators;
+
+
+  /**
+   * The constructor for the fleet.
+   *
+   * @param numberOfElevators the number of elevators in the fleet.
+   * @param maxFloor          the total number of floors in the building.
+   * @param maxOccupancy      the maximum number of people that can fit in an elevator.
+   */
+  public ElevatorFleet(int numberOfElevators, int maxFloor, int maxOccupancy) {
+    this(numberOfElevators, maxFloor, maxOccupancy, BuildingLimits.DEFAULT);
+  }
+
+  /**
+   * The constructor for the fleet of a building with its own limits.
+   *
+   * @param numberOfElevators the number of elevators in the fleet.
+   * @param maxFloor          the total number of floors in the building.
+   * @param maxOccupancy      the maximum number of people that can fit in an elevator.
+   * @param limits            the limits of the building the fleet is in.
+   */
+  public ElevatorFleet(int numberOfElevators, int maxFloor, int maxOccupancy,
+                       BuildingLimits limits) {
+    this.elevators = new Elevator[numberOfElevators];
+    for (int i = 0; i < numberOfElevators; i++) {
+      this.elevators[i] = new Elevator(maxFloor, maxOccupancy, limits);
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.elevators.length;
+  }
+
+  @Override
+  public int getCurrentFloor(int elevator) {
+    return this.elevators[elevator].getCurrentFloor();
+  }
+
+  @Override
+  public Direction getDirection(int elevator) {
+    return this.elevators[elevator].getDirection();
+  }
+
+  @Override
+  public boolean isDoorClosed(int elevator) {
+    return this.elevators[elevator].isDoorClosed();
+  }
+
+  @Override
+  public boolean isTakingRequests(int elevator) {
+    return this.elevators[elevator].isTakingRequests();
+  }
+
+  @Override
+  public int getEndWaitTimer(int elevator) {
+    return this.elevators[elevator].getEndWaitTimer();
+  }
+
+  @Override
+  public int getDoorOpenTimer(int elevator) {
+    return this.elevators[elevator].getDoorOpenTimer();
+  }
+
+  @Override
+  public int getDoorOpenTime(int elevator) {
+    return this.elevators[elevator].getDoorOpenTime();
+  }
+
+  @Override
+  public int getEndWaitTime(int elevator) {
+    return this.elevators[elevator].getEndWaitTime();
+  }
+
+  @Override
+  public int getStopCount(int elevator) {
+    return this.elevators[elevator].getStops().size();
+  }
+
+  @Override
+  public int getLowestStop(int elevator) {
+    return this.elevators[elevator].getStops().nextAbove(-1);
+  }
+
+  @Override
+  public int getHighestStop(int elevator) {
+    Elevator car = this.elevators[elevator];
+    return car.getStops().nextBelow(car.getMaxFloor());
+  }
+
+  @Override
+  public int getElevatorId(int elevator) {
+    return this.elevators[elevator].getElevatorId();
+  }
+
+  @Override
+  public SpeedProfile getSpeedProfile(int elevator) {
+    return this.elevators[elevator].getSpeedProfile();
+  }
+
+  @Override
+  public int getStoppingDistance(int elevator) {
+    return this.elevators[elevator].getStoppingDistance();
+  }
+
+  @Override
+  public void start() {
+    for (Elevator elevator : this.elevators) {
+      elevator.start();
+    }
+  }
+
+  @Override
+  public void takeOutOfService() {
+    for (Elevator elevator : this.elevators) {
+      elevator.takeOutOfService();
+    }
+  }
+
+  @Override
+  public void processRequests(int elevator, List<Request> requests) {
+    this.elevators[elevator].processRequests(requests);
+  }
+
+  @Override
+  public void processRequests(int elevator, long[] requests, int count) {
+    this.elevators[elevator].processRequests(requests, count);
+  }
+
+  @Override
+  public void turnAtLastStop(int elevator) {
+    this.elevators[elevator].turnAtLastStop();
+  }
+
+  @Override
+  public void setEndWait(int elevator, int ticks) {
+    this.elevators[elevator].setEndWait(ticks);
+  }
+
+  @Override
+  public void setSpeedProfile(int elevator, SpeedProfile speedProfile) {
+    this.elevators[elevator].setSpeedProfile(speedProfile);
+  }
+
+  @Override
+  public void step() {
+    step(0, this.elevators.length);
+  }
+
+  @Override
+  public void step(int from, int to) {
+    for (int i = from; i < to; i++) {
+      this.elevators[i].step();
+    }
+  }
+
+  @Override
+  public void advance(int elevator, long ticks) {
+    this.elevators[elevator].advance(ticks);
+  }
+
+  @Override
+  public long ticksUntilTakingRequestsAt(int elevator, int floor) {
+    return this.elevators[elevator].ticksUntilTakingRequestsAt(floor);
+  }
+
+  @Override
+  public long ticksUntilAtRest(int elevator) {
+    return this.elevators[elevator].ticksUntilAtRest();
+  }
+
+  @Override
+  public ElevatorReport getElevatorStatus(int elevator) {
+    return this.elevators[elevator].getElevatorStatus();
+  }
+}
@@ -92,12 +92,59 @@ public interface ElevatorInterface {
   /**
    * processUpRequests.
    * This will tell the elevator to process these upRequests on the next run.
-   * These are only accepted when the elevator is at the bottom floor.
+   * At the bottom or top floor they replace the stops of the elevator and send it off,
+   * anywhere else they must start and end ahead of it and are picked up on the way.
    *
    * @param requests the request to add to the elevator.
    */
   void processRequests(List<Request> requests) throws IllegalArgumentException;
 
+  /**
+   * processRequests for requests packed into longs (see PackedRequest).
+   * This will tell the elevator to process these requests on the next run.
+   * These are only accepted when the elevator is at the bottom or top floor,
+   * or when they start and end ahead of the elevator in the direction it is moving.
+   *
+   * @param requests the packed requests to add to the elevator.
+   * @param count    the number of requests at the start of the array.
+   */
+  void processRequests(long[] requests, int count) throws IllegalArgumentException;
+
+  /**
+   * turnAtLastStop.
+   * This will tell an elevator that has just been given requests at the bottom or top floor
+   * to turn around after the last stop of its run instead of at the far end of the building.
+   * It then runs back empty to the floor it set off from.
+   */
+  void turnAtLastStop();
+
+  /**
+   * setEndWait.
+   * This will change how many more steps an elevator taking requests at the bottom or top floor
+   * waits before it sets off without any. Waiting 0 steps sets it off at once.
+   *
+   * @param ticks the number of steps to wait, not negative.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   * @throws IllegalStateException    if the elevator is not taking requests.
+   */
+  void setEndWait(int ticks) throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * setSpeedProfile.
+   * This will change how fast the elevator travels between its stops.
+   *
+   * @param speedProfile the speed profile.
+   * @throws IllegalArgumentException if there is no profile.
+   */
+  void setSpeedProfile(SpeedProfile speedProfile) throws IllegalArgumentException;
+
+  /**
+   * Returns how fast the elevator travels between its stops.
+   *
+   * @return the speed profile.
+   */
+  SpeedProfile getSpeedProfile();
+
 
   /**
    * isTakingRequests.
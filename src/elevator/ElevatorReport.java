@@ -1,6 +1,7 @@
 package elevator;
 
 import building.enums.Direction;
+import java.util.Arrays;
 
 /**
  * This class is used to represent the status of the elevators.
@@ -9,7 +10,8 @@ public class ElevatorReport {
   private final int elevatorId;
   private final int currentFloor;
   private final boolean doorClosed;
-  private final boolean[] floorRequests;
+  private final long[] floorRequestBits;
+  private final int numberOfFloors;
   private final Direction direction;
 
   private final int doorOpenTimer;
@@ -39,6 +41,35 @@ public class ElevatorReport {
                         boolean doorClosed,
                         boolean[] floorRequests,
 
+                        int doorOpenTimer,
+                        int endWaitTimer,
+                        boolean outOfService,
+                        boolean isTakingRequests) {
+    this(elevatorId, currentFloor, direction, doorClosed, StopSet.pack(floorRequests),
+        floorRequests.length, doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
+  }
+
+  /**
+   * This constructor is used to create a new ElevatorReport object
+   * from a snapshot of the packed stop requests of an elevator.
+   *
+   * @param elevatorId       The id of the elevator.
+   * @param currentFloor     The current floor of the elevator.
+   * @param direction        The direction of the elevator.
+   * @param doorClosed       The status of the door.
+   * @param floorRequestBits The requests for the floors, packed as in a StopSet.
+   * @param numberOfFloors   The number of floors in the building.
+   * @param doorOpenTimer    The timer for the door.
+   * @param endWaitTimer     The timer for the end of the run.
+   * @param outOfService     The status of the elevator.
+   * @param isTakingRequests Is the elevator taking requests.
+   */
+  public ElevatorReport(int elevatorId,
+                        int currentFloor,
+                        Direction direction,
+                        boolean doorClosed,
+                        long[] floorRequestBits,
+                        int numberOfFloors,
                         int doorOpenTimer,
                         int endWaitTimer,
                         boolean outOfService,
@@ -46,7 +77,8 @@ public class ElevatorReport {
     this.elevatorId = elevatorId;
     this.currentFloor = currentFloor;
     this.doorClosed = doorClosed;
-    this.floorRequests = floorRequests;
+    this.floorRequestBits = floorRequestBits;
+    this.numberOfFloors = numberOfFloors;
     this.direction = direction;
     this.doorOpenTimer = doorOpenTimer;
     this.endWaitTimer = endWaitTimer;
@@ -86,11 +118,45 @@ public class ElevatorReport {
 
   /**
    * This method is used to get the requests for the floors.
+   * The array is built from the packed requests every time it is asked for,
+   * so changing it does not change the report.
    *
    * @return The requests for the floors.
    */
   public boolean[] getFloorRequests() {
-    return floorRequests;
+    boolean[] requests = new boolean[numberOfFloors];
+    for (int i = 0; i < numberOfFloors; i++) {
+      requests[i] = isFloorRequested(i);
+    }
+    return requests;
+  }
+
+  /**
+   * This method is used to check if there is a request for a floor.
+   *
+   * @param floor The floor to check.
+   * @return true if the elevator should stop at the floor.
+   */
+  public boolean isFloorRequested(int floor) {
+    return (floorRequestBits[floor >>> 6] & (1L << floor)) != 0;
+  }
+
+  /**
+   * This method is used to get the same report for a taller building,
+   * where the elevator has no requests for the floors above the ones it was reported for.
+   *
+   * @param numberOfFloors the number of floors in the taller building.
+   * @return the report with the floor requests of the taller building.
+   * @throws IllegalArgumentException if the building has fewer floors than the report.
+   */
+  public ElevatorReport withNumberOfFloors(int numberOfFloors) throws IllegalArgumentException {
+    if (numberOfFloors < this.numberOfFloors) {
+      throw new IllegalArgumentException(
+          "Number of floors should be at least " + this.numberOfFloors + ".");
+    }
+    long[] bits = Arrays.copyOf(this.floorRequestBits, (numberOfFloors + 63) >>> 6);
+    return new ElevatorReport(elevatorId, currentFloor, direction, doorClosed, bits,
+        numberOfFloors, doorOpenTimer, endWaitTimer, outOfService, isTakingRequests);
   }
 
   /**
@@ -169,8 +235,8 @@ public class ElevatorReport {
       sb.append(String.format("O %d]<", this.doorOpenTimer));
     }
 
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i]) {
+    for (int i = 0; i < this.numberOfFloors; i++) {
+      if (this.isFloorRequested(i)) {
         sb.append(String.format(" %2d", i));
       } else {
         sb.append(" --");
@@ -220,12 +286,8 @@ public class ElevatorReport {
     if (this.isTakingRequests != that.isTakingRequests) {
       return false;
     }
-    for (int i = 0; i < this.floorRequests.length; i++) {
-      if (this.floorRequests[i] != that.floorRequests[i]) {
-        return false;
-      }
-    }
-    return true;
+    return this.numberOfFloors == that.numberOfFloors
+        && Arrays.equals(this.floorRequestBits, that.floorRequestBits);
   }
 
   /**
@@ -242,8 +304,8 @@ public class ElevatorReport {
     result = 31 * result + (this.outOfService ? 1 : 0);
     result = 31 * result + (this.isTakingRequests ? 1 : 0);
     result = 31 * result + this.direction.hashCode();
-    for (boolean floorRequest : this.floorRequests) {
-      result = 31 * result + (floorRequest ? 1 : 0);
+    for (int i = 0; i < this.numberOfFloors; i++) {
+      result = 31 * result + (this.isFloorRequested(i) ? 1 : 0);
     }
     return result;
   }
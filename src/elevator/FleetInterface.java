@@ -0,0 +1,126 @@
+package elevator;
+
+import java.util.List;
+import scanerzus.Request;
+
+
+/**
+ * An interface for all the elevators of a building.
+ * The elevators are numbered from 0 to size() - 1 in the order they were created.
+ * The building only talks to its elevators through this interface,
+ * so the elevators can be kept as separate objects or packed together.
+ */
+public interface FleetInterface extends FleetView {
+
+  /**
+   * Start every elevator of the fleet.
+   */
+  void start();
+
+  /**
+   * Take every elevator of the fleet out of service.
+   */
+  void takeOutOfService();
+
+  /**
+   * Give requests to an elevator.
+   * These are only accepted when the elevator is at the bottom or top floor,
+   * or when they start and end ahead of the elevator in the direction it is moving.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param requests the requests to add to the elevator.
+   * @throws IllegalStateException if the elevator is not at the bottom or top floor
+   *                               and the requests are not ahead of it.
+   */
+  void processRequests(int elevator, List<Request> requests) throws IllegalStateException;
+
+  /**
+   * Give requests packed into longs (see PackedRequest) to an elevator.
+   * These are only accepted when the elevator is at the bottom or top floor,
+   * or when they start and end ahead of the elevator in the direction it is moving.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param requests the packed requests to add to the elevator.
+   * @param count    the number of requests at the start of the array.
+   * @throws IllegalStateException if the elevator is not at the bottom or top floor
+   *                               and the requests are not ahead of it.
+   */
+  void processRequests(int elevator, long[] requests, int count) throws IllegalStateException;
+
+  /**
+   * Tell an elevator that has just been given requests at the bottom or top floor
+   * to turn around after the last stop of its run instead of at the far end of the building.
+   * It then runs back empty to the floor it set off from.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   */
+  void turnAtLastStop(int elevator);
+
+  /**
+   * Change how many more steps an elevator taking requests at the bottom or top floor waits
+   * before it sets off without any. Waiting 0 steps sets it off at once.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param ticks    the number of steps to wait, not negative.
+   * @throws IllegalArgumentException if the number of steps is negative.
+   * @throws IllegalStateException    if the elevator is not taking requests.
+   */
+  void setEndWait(int elevator, int ticks)
+      throws IllegalArgumentException, IllegalStateException;
+
+  /**
+   * Change how fast an elevator travels between its stops.
+   * An elevator already moving keeps its speed and speeds up or slows down from there.
+   *
+   * @param elevator     the index of the elevator in the fleet.
+   * @param speedProfile the speed profile.
+   * @throws IllegalArgumentException if there is no profile.
+   */
+  void setSpeedProfile(int elevator, SpeedProfile speedProfile) throws IllegalArgumentException;
+
+  /**
+   * Move every elevator of the fleet by one step.
+   */
+  void step();
+
+  /**
+   * Move the elevators with an index from the first (inclusive) to the last (exclusive)
+   * by one step. The elevators do not share any state, so separate ranges
+   * can be stepped at the same time by different threads.
+   *
+   * @param from the index of the first elevator to step.
+   * @param to   the index after the last elevator to step.
+   */
+  void step(int from, int to);
+
+  /**
+   * Run an elevator forward by a number of steps at once.
+   * The result is the same as stepping it that many times,
+   * as long as it is not given requests in the meantime.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param ticks    the number of steps to run.
+   */
+  void advance(int elevator, long ticks);
+
+  /**
+   * Count the steps until an elevator next begins a step while taking requests at a floor,
+   * as long as it is not given requests in the meantime.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param floor    the floor to take requests at.
+   * @return the number of steps, 0 if it is taking requests there now,
+   *         or Long.MAX_VALUE if it never will.
+   */
+  long ticksUntilTakingRequestsAt(int elevator, int floor);
+
+  /**
+   * Count the steps until an elevator that was taken out of service
+   * is resting on the ground floor with its door open.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the number of steps, 0 if it is resting now,
+   *         or Long.MAX_VALUE if it is in service or will never rest.
+   */
+  long ticksUntilAtRest(int elevator);
+}
@@ -0,0 +1,611 @@
+package elevator;
+
+import building.BuildingLimits;
+import building.enums.Direction;
+import java.util.Arrays;
+import java.util.List;
+import scanerzus.PackedRequest;
+import scanerzus.Request;
+
+
+/**
+ * A fleet where the state of all the elevators is kept in parallel arrays,
+ * one entry per elevator, instead of one object per elevator.
+ * Stepping the fleet runs the same state machine as Elevator.step()
+ * for every elevator in a single loop over the arrays.
+ */
+public class FleetState implements FleetInterface {
+
+  /************************************************************************
+   * The number of steps that the door is open for, as for an Elevator.
+   ************************************************************************/
+  private static final int DOOR_OPEN_TIME_TOTAL = 3;
+
+  /************************************************************************
+   * The number of steps that an elevator will wait at the top or bottom.
+   ************************************************************************/
+  private static final int STOP_WAIT_TIME_TOTAL = 5;
+
+  /************************************************************************
+   * The bits of the flags of an elevator.
+   ************************************************************************/
+  private static final byte DOOR_CLOSED = 1;
+  private static final byte TAKING_REQUESTS = 2;
+  private static final byte OUT_OF_SERVICE = 4;
+  private static final byte TURN_AT_LAST_STOP = 8;
+
+  /************************************************************************
+   * The directions, indexed by the values kept in the direction array.
+   ************************************************************************/
+  private static final Direction[] DIRECTIONS = Direction.values();
+  private static final byte UP = (byte) Direction.UP.ordinal();
+  private static final byte DOWN = (byte) Direction.DOWN.ordinal();
+  private static final byte STOPPED = (byte) Direction.STOPPED.ordinal();
+
+  private final int size;
+  private final int firstId;
+  private final int maxFloor;
+  private final int wordsPerElevator;
+
+  private final int[] currentFloor;
+  private final byte[] direction;
+  private final int[] doorOpenTimeLeft;
+  private final int[] stopWaitTimeLeft;
+  private final byte[] flags;
+  private final long[] stopWords;
+  private final int[] speed;
+  private final SpeedProfile[] speedProfile;
+
+  private final FreeRun freeRun;
+
+
+  /**
+   * The constructor for the fleet.
+   * Every elevator is initially out of service at the ground floor with the door closed,
+   * exactly like a new Elevator.
+   *
+   * @param numberOfElevators the number of elevators in the fleet.
+   * @param maxFloor          the total number of floors in the building.
+   * @param maxOccupancy      the maximum number of people that can fit in an elevator.
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public FleetState(int numberOfElevators, int maxFloor, int maxOccupancy) {
+    this(numberOfElevators, maxFloor, maxOccupancy, BuildingLimits.DEFAULT);
+  }
+
+  /**
+   * The constructor for the fleet of a building with its own limits.
+   *
+   * @param numberOfElevators the number of elevators in the fleet.
+   * @param maxFloor          the total number of floors in the building.
+   * @param maxOccupancy      the maximum number of people that can fit in an elevator.
+   * @param limits            the limits of the building the fleet is in.
+   * @throws IllegalArgumentException if the maxFloor or maxOccupancy is out of range
+   */
+  public FleetState(int numberOfElevators, int maxFloor, int maxOccupancy,
+                    BuildingLimits limits) {
+    if (maxFloor < 3 || maxFloor > limits.getMaxFloors()) {
+      throw new IllegalArgumentException(
+          "maxFloor must be between 3 and " + limits.getMaxFloors());
+    }
+    if (maxOccupancy < 3 || maxOccupancy > limits.getMaxCapacity()) {
+      throw new IllegalArgumentException(
+          "maxOccupancy must be between 3 and " + limits.getMaxCapacity());
+    }
+    this.size = numberOfElevators;
+    this.firstId = Elevator.reserveIds(numberOfElevators);
+    this.maxFloor = maxFloor;
+    this.wordsPerElevator = StopSet.wordCount(maxFloor);
+
+    this.currentFloor = new int[numberOfElevators];
+    this.direction = new byte[numberOfElevators];
+    this.doorOpenTimeLeft = new int[numberOfElevators];
+    this.stopWaitTimeLeft = new int[numberOfElevators];
+    this.flags = new byte[numberOfElevators];
+    this.stopWords = new long[numberOfElevators * this.wordsPerElevator];
+    this.speed = new int[numberOfElevators];
+    this.speedProfile = new SpeedProfile[numberOfElevators];
+
+    this.freeRun = new FreeRun(maxFloor, DOOR_OPEN_TIME_TOTAL, STOP_WAIT_TIME_TOTAL);
+
+    Arrays.fill(this.direction, STOPPED);
+    Arrays.fill(this.flags, (byte) (DOOR_CLOSED | OUT_OF_SERVICE));
+    Arrays.fill(this.speedProfile, SpeedProfile.LOCAL);
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public int getCurrentFloor(int elevator) {
+    return this.currentFloor[elevator];
+  }
+
+  @Override
+  public Direction getDirection(int elevator) {
+    return DIRECTIONS[this.direction[elevator]];
+  }
+
+  @Override
+  public boolean isDoorClosed(int elevator) {
+    return (this.flags[elevator] & DOOR_CLOSED) != 0;
+  }
+
+  @Override
+  public boolean isTakingRequests(int elevator) {
+    return (this.flags[elevator] & TAKING_REQUESTS) != 0;
+  }
+
+  @Override
+  public int getEndWaitTimer(int elevator) {
+    return this.stopWaitTimeLeft[elevator];
+  }
+
+  @Override
+  public int getDoorOpenTimer(int elevator) {
+    return isDoorClosed(elevator) ? 0 : this.doorOpenTimeLeft[elevator];
+  }
+
+  @Override
+  public int getStopCount(int elevator) {
+    return StopSet.count(this.stopWords, elevator * this.wordsPerElevator, this.wordsPerElevator);
+  }
+
+  @Override
+  public int getLowestStop(int elevator) {
+    return StopSet.nextAbove(this.stopWords, elevator * this.wordsPerElevator,
+        this.wordsPerElevator, -1);
+  }
+
+  @Override
+  public int getDoorOpenTime(int elevator) {
+    return DOOR_OPEN_TIME_TOTAL;
+  }
+
+  @Override
+  public int getEndWaitTime(int elevator) {
+    return STOP_WAIT_TIME_TOTAL;
+  }
+
+  @Override
+  public int getHighestStop(int elevator) {
+    return StopSet.nextBelow(this.stopWords, elevator * this.wordsPerElevator, this.maxFloor);
+  }
+
+  @Override
+  public int getElevatorId(int elevator) {
+    return this.firstId + elevator;
+  }
+
+  @Override
+  public SpeedProfile getSpeedProfile(int elevator) {
+    return this.speedProfile[elevator];
+  }
+
+  @Override
+  public int getStoppingDistance(int elevator) {
+    return this.speedProfile[elevator].stoppingDistance(this.speed[elevator]);
+  }
+
+  @Override
+  public void setSpeedProfile(int elevator, SpeedProfile speedProfile) {
+    if (speedProfile == null) {
+      throw new IllegalArgumentException("Speed profile cannot be null.");
+    }
+    this.speedProfile[elevator] = speedProfile;
+  }
+
+  @Override
+  public void start() {
+    for (int i = 0; i < this.size; i++) {
+      clearStops(i);
+      this.flags[i] = DOOR_CLOSED | TAKING_REQUESTS;
+      this.doorOpenTimeLeft[i] = 0;
+      this.stopWaitTimeLeft[i] = STOP_WAIT_TIME_TOTAL;
+      this.direction[i] = UP;
+      this.speed[i] = 0;
+    }
+  }
+
+  @Override
+  public void takeOutOfService() {
+    for (int i = 0; i < this.size; i++) {
+      clearStops(i);
+      this.flags[i] = (byte) ((this.flags[i] & DOOR_CLOSED) | OUT_OF_SERVICE);
+      this.direction[i] = DOWN;
+      this.stopWaitTimeLeft[i] = 0;
+      this.speed[i] = 0;
+    }
+  }
+
+  @Override
+  public void processRequests(int elevator, List<Request> requests) {
+    if (!isAtEnd(elevator)) {
+      for (Request request : requests) {
+        checkAhead(elevator, request.getStartFloor(), request.getEndFloor());
+      }
+    } else if (!requests.isEmpty()) {
+      clearStops(elevator);
+      this.flags[elevator] &= ~TURN_AT_LAST_STOP;
+    }
+
+    for (Request request : requests) {
+      addStop(elevator, request.getStartFloor());
+      addStop(elevator, request.getEndFloor());
+    }
+    if (isAtEnd(elevator) && !requests.isEmpty()) {
+      setOff(elevator);
+    }
+  }
+
+  @Override
+  public void processRequests(int elevator, long[] requests, int count) {
+    if (!isAtEnd(elevator)) {
+      for (int i = 0; i < count; i++) {
+        checkAhead(elevator,
+            PackedRequest.startFloor(requests[i]), PackedRequest.endFloor(requests[i]));
+      }
+    } else if (count > 0) {
+      clearStops(elevator);
+      this.flags[elevator] &= ~TURN_AT_LAST_STOP;
+    }
+
+    for (int i = 0; i < count; i++) {
+      addStop(elevator, PackedRequest.startFloor(requests[i]));
+      addStop(elevator, PackedRequest.endFloor(requests[i]));
+    }
+    if (isAtEnd(elevator) && count > 0) {
+      setOff(elevator);
+    }
+  }
+
+  @Override
+  public void turnAtLastStop(int elevator) {
+    byte flag = this.flags[elevator];
+    if (isAtEnd(elevator) && (flag & (OUT_OF_SERVICE | TAKING_REQUESTS)) == 0
+        && hasAnyStop(elevator)) {
+      this.flags[elevator] = (byte) (flag | TURN_AT_LAST_STOP);
+    }
+  }
+
+  @Override
+  public void setEndWait(int elevator, int ticks) {
+    if ((this.flags[elevator] & TAKING_REQUESTS) == 0) {
+      throw new IllegalStateException("Elevator is not waiting at the bottom or top floor.");
+    }
+    if (ticks < 0) {
+      throw new IllegalArgumentException("Wait cannot be negative.");
+    }
+    this.stopWaitTimeLeft[elevator] = ticks;
+    if (ticks == 0) {
+      setOff(elevator);
+    }
+  }
+
+  /**
+   * Check if an elevator is at the bottom or top floor.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return true if the elevator is at the bottom or top floor.
+   */
+  private boolean isAtEnd(int elevator) {
+    int floor = this.currentFloor[elevator];
+    return floor == 0 || floor == this.maxFloor - 1;
+  }
+
+  /**
+   * Check that a request given to an elevator between the bottom and top floor
+   * starts and ends ahead of it, as for an Elevator.
+   *
+   * @param elevator   the index of the elevator in the fleet.
+   * @param startFloor the start floor of the request.
+   * @param endFloor   the end floor of the request.
+   * @throws IllegalStateException if the request is not ahead of the elevator.
+   */
+  private void checkAhead(int elevator, int startFloor, int endFloor) {
+    byte flag = this.flags[elevator];
+    byte dir = this.direction[elevator];
+    int floor = this.currentFloor[elevator];
+    boolean doorClosed = (flag & DOOR_CLOSED) != 0;
+    int step = doorClosed ? getStoppingDistance(elevator) : 1;
+    boolean ahead = false;
+    if ((flag & OUT_OF_SERVICE) == 0 && dir == UP) {
+      ahead = startFloor >= floor + step && endFloor > startFloor;
+    } else if ((flag & OUT_OF_SERVICE) == 0 && dir == DOWN) {
+      ahead = startFloor <= floor - step && endFloor < startFloor;
+    }
+    if (!ahead) {
+      throw new IllegalStateException("Elevator cannot process requests "
+          + "away from the bottom or top floor unless they are ahead of it.");
+    }
+  }
+
+  /**
+   * Send an elevator that was given requests away from the end of the building it is at.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   */
+  private void setOff(int elevator) {
+    this.stopWaitTimeLeft[elevator] = 0;
+    this.direction[elevator] = this.currentFloor[elevator] == 0 ? UP : DOWN;
+    this.flags[elevator] &= ~TAKING_REQUESTS;
+  }
+
+  @Override
+  public void step() {
+    step(0, this.size);
+  }
+
+  /**
+   * Move a range of elevators of the fleet by one step.
+   * This is the state machine of Elevator.step() run over the arrays.
+   *
+   * @param from the index of the first elevator to step.
+   * @param to   the index after the last elevator to step.
+   */
+  @Override
+  public void step(int from, int to) {
+    final int top = this.maxFloor - 1;
+    for (int i = from; i < to; i++) {
+      byte flag = this.flags[i];
+      int floor = this.currentFloor[i];
+
+      if ((flag & OUT_OF_SERVICE) != 0) {
+        // on the ground floor with the door open there is nothing left to do
+        if (floor == 0 && (flag & DOOR_CLOSED) == 0) {
+          continue;
+        }
+        if (floor == 0) {
+          this.flags[i] = (byte) (flag & ~DOOR_CLOSED);
+          removeStop(i, 0);
+          this.direction[i] = STOPPED;
+        } else if ((flag & DOOR_CLOSED) == 0) {
+          stepDoorOpen(i);
+        } else {
+          this.direction[i] = DOWN;
+          this.currentFloor[i] = floor - 1;
+        }
+        continue;
+      }
+
+      if ((flag & DOOR_CLOSED) == 0) {
+        stepDoorOpen(i);
+        continue;
+      }
+
+      if (this.stopWaitTimeLeft[i] > 0) {
+        if (--this.stopWaitTimeLeft[i] == 0) {
+          this.flags[i] = (byte) (flag & ~TAKING_REQUESTS);
+          if (floor == 0) {
+            this.direction[i] = UP;
+          } else if (floor == top) {
+            this.direction[i] = DOWN;
+          }
+        }
+        continue;
+      }
+
+      if (hasStop(i, floor)) {
+        this.flags[i] = (byte) (flag & ~DOOR_CLOSED);
+        this.doorOpenTimeLeft[i] = DOOR_OPEN_TIME_TOTAL;
+        removeStop(i, floor);
+        this.speed[i] = 0;
+        DoorOpenEvent.record(this.firstId + i, floor);
+        continue;
+      }
+
+      byte dir = this.direction[i];
+      if ((floor == 0 && dir == DOWN) || (floor == top && dir == UP)) {
+        ReversalEvent.record(this.firstId + i, floor, DIRECTIONS[dir]);
+        this.direction[i] = STOPPED;
+        this.stopWaitTimeLeft[i] = STOP_WAIT_TIME_TOTAL;
+        this.flags[i] = (byte) ((flag | TAKING_REQUESTS) & ~TURN_AT_LAST_STOP);
+        this.speed[i] = 0;
+        continue;
+      }
+
+      if ((flag & TURN_AT_LAST_STOP) != 0 && floor != 0 && floor != top
+          && !hasStopAhead(i, floor, dir)) {
+        ReversalEvent.record(this.firstId + i, floor, DIRECTIONS[dir]);
+        this.flags[i] = (byte) (flag & ~TURN_AT_LAST_STOP);
+        dir = dir == UP ? DOWN : UP;
+        this.direction[i] = dir;
+        this.speed[i] = 0;
+      }
+
+      if (dir == UP) {
+        this.currentFloor[i] = floor + nextMove(i, floor, dir);
+      } else if (dir == DOWN) {
+        this.currentFloor[i] = floor - nextMove(i, floor, dir);
+      }
+    }
+  }
+
+  /**
+   * Work out the number of floors an elevator moves on this step, as for an Elevator.
+   *
+   * @param elevator  the index of the elevator in the fleet.
+   * @param floor     the floor the elevator is at.
+   * @param direction the direction the elevator is moving in.
+   * @return the number of floors to move.
+   */
+  private int nextMove(int elevator, int floor, byte direction) {
+    SpeedProfile profile = this.speedProfile[elevator];
+    if (profile.getFloorsPerTick() == 1) {
+      this.speed[elevator] = 1;
+      return 1;
+    }
+    int base = elevator * this.wordsPerElevator;
+    int left;
+    if (direction == UP) {
+      int next = StopSet.nextAbove(this.stopWords, base, this.wordsPerElevator, floor);
+      left = (next < 0 ? this.maxFloor - 1 : next) - floor;
+    } else {
+      left = floor - Math.max(StopSet.nextBelow(this.stopWords, base, floor), 0);
+    }
+    int move = profile.move(this.speed[elevator], left);
+    this.speed[elevator] = move;
+    return move;
+  }
+
+  @Override
+  public void advance(int elevator, long ticks) {
+    FreeRun run = loadFreeRun(elevator);
+    run.useStops(this.stopWords, elevator * this.wordsPerElevator);
+    run.run(ticks, -1);
+    this.currentFloor[elevator] = run.floor;
+    this.direction[elevator] = (byte) run.direction.ordinal();
+    this.doorOpenTimeLeft[elevator] = run.doorOpenTimeLeft;
+    this.stopWaitTimeLeft[elevator] = run.stopWaitTimeLeft;
+    this.speed[elevator] = run.speed;
+    byte flag = (byte) (this.flags[elevator] & OUT_OF_SERVICE);
+    if (run.doorClosed) {
+      flag |= DOOR_CLOSED;
+    }
+    if (run.takingRequests) {
+      flag |= TAKING_REQUESTS;
+    }
+    if (run.turnAtLastStop) {
+      flag |= TURN_AT_LAST_STOP;
+    }
+    this.flags[elevator] = flag;
+  }
+
+  @Override
+  public long ticksUntilTakingRequestsAt(int elevator, int floor) {
+    FreeRun run = loadFreeRun(elevator);
+    run.copyStops(this.stopWords, elevator * this.wordsPerElevator);
+    return run.run(Long.MAX_VALUE, floor);
+  }
+
+  @Override
+  public long ticksUntilAtRest(int elevator) {
+    return loadFreeRun(elevator).ticksUntilAtRest();
+  }
+
+  /**
+   * Load the state of an elevator into the free run cursor of the fleet.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the loaded cursor.
+   */
+  private FreeRun loadFreeRun(int elevator) {
+    FreeRun run = this.freeRun;
+    byte flag = this.flags[elevator];
+    run.floor = this.currentFloor[elevator];
+    run.direction = DIRECTIONS[this.direction[elevator]];
+    run.doorClosed = (flag & DOOR_CLOSED) != 0;
+    run.doorOpenTimeLeft = this.doorOpenTimeLeft[elevator];
+    run.stopWaitTimeLeft = this.stopWaitTimeLeft[elevator];
+    run.takingRequests = (flag & TAKING_REQUESTS) != 0;
+    run.outOfService = (flag & OUT_OF_SERVICE) != 0;
+    run.turnAtLastStop = (flag & TURN_AT_LAST_STOP) != 0;
+    run.speed = this.speed[elevator];
+    run.useProfile(this.speedProfile[elevator]);
+    return run;
+  }
+
+  @Override
+  public ElevatorReport getElevatorStatus(int elevator) {
+    int base = elevator * this.wordsPerElevator;
+    byte flag = this.flags[elevator];
+    return new ElevatorReport(
+        this.firstId + elevator,
+        this.currentFloor[elevator],
+        DIRECTIONS[this.direction[elevator]],
+        (flag & DOOR_CLOSED) != 0,
+        Arrays.copyOfRange(this.stopWords, base, base + this.wordsPerElevator),
+        this.maxFloor,
+        this.doorOpenTimeLeft[elevator],
+        this.stopWaitTimeLeft[elevator],
+        (flag & OUT_OF_SERVICE) != 0,
+        (flag & TAKING_REQUESTS) != 0);
+  }
+
+  /**
+   * Process the door open step of an elevator.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   */
+  private void stepDoorOpen(int elevator) {
+    if (--this.doorOpenTimeLeft[elevator] == 0) {
+      this.flags[elevator] |= DOOR_CLOSED;
+    }
+  }
+
+  /**
+   * Check if an elevator should stop at a floor.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param floor    the floor to check.
+   * @return true if there is a stop request for the floor.
+   */
+  private boolean hasStop(int elevator, int floor) {
+    return (this.stopWords[elevator * this.wordsPerElevator + (floor >>> 6)]
+        & (1L << floor)) != 0;
+  }
+
+  /**
+   * Check if an elevator has a stop ahead of it.
+   *
+   * @param elevator  the index of the elevator in the fleet.
+   * @param floor     the floor the elevator is at.
+   * @param direction the direction the elevator is moving in.
+   * @return true if there is a stop request beyond the floor in that direction.
+   */
+  private boolean hasStopAhead(int elevator, int floor, byte direction) {
+    int base = elevator * this.wordsPerElevator;
+    if (direction == UP) {
+      return StopSet.nextAbove(this.stopWords, base, this.wordsPerElevator, floor) >= 0;
+    }
+    return StopSet.nextBelow(this.stopWords, base, floor) >= 0;
+  }
+
+  /**
+   * Check if an elevator has any stop requests.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return true if there is at least one stop request.
+   */
+  private boolean hasAnyStop(int elevator) {
+    int base = elevator * this.wordsPerElevator;
+    for (int i = base; i < base + this.wordsPerElevator; i++) {
+      if (this.stopWords[i] != 0L) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Add a stop request of an elevator for a floor.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param floor    the floor to stop at.
+   */
+  private void addStop(int elevator, int floor) {
+    this.stopWords[elevator * this.wordsPerElevator + (floor >>> 6)] |= 1L << floor;
+  }
+
+  /**
+   * Remove the stop request of an elevator for a floor.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @param floor    the floor not to stop at anymore.
+   */
+  private void removeStop(int elevator, int floor) {
+    this.stopWords[elevator * this.wordsPerElevator + (floor >>> 6)] &= ~(1L << floor);
+  }
+
+  /**
+   * Clear all the stop requests of an elevator.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   */
+  private void clearStops(int elevator) {
+    int base = elevator * this.wordsPerElevator;
+    Arrays.fill(this.stopWords, base, base + this.wordsPerElevator, 0L);
+  }
+}
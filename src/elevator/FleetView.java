@@ -0,0 +1,143 @@
+package elevator;
+
+import building.enums.Direction;
+
+
+/**
+ * A read-only view of all the elevators of a building.
+ * The elevators are numbered from 0 to size() - 1 in the order they were created.
+ * Dispatch strategies look at the elevators through this view to decide who gets which request.
+ */
+public interface FleetView {
+
+  /**
+   * Returns the number of elevators in the fleet.
+   *
+   * @return the number of elevators in the fleet.
+   */
+  int size();
+
+  /**
+   * Returns the id of an elevator, as in its reports.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the id of the elevator.
+   */
+  int getElevatorId(int elevator);
+
+  /**
+   * Returns the current floor of an elevator.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the current floor of the elevator.
+   */
+  int getCurrentFloor(int elevator);
+
+  /**
+   * Returns the direction an elevator is moving in.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the direction the elevator is moving in.
+   */
+  Direction getDirection(int elevator);
+
+  /**
+   * Returns the door status of an elevator.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return true if the door of the elevator is closed.
+   */
+  boolean isDoorClosed(int elevator);
+
+  /**
+   * isTakingRequests.
+   * This will tell the building if an elevator is taking requests.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return true if the elevator is taking requests, false otherwise.
+   */
+  boolean isTakingRequests(int elevator);
+
+  /**
+   * Returns the number of steps an elevator still has to wait at the bottom or top floor.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the steps left to wait, 0 if the elevator is not waiting.
+   */
+  int getEndWaitTimer(int elevator);
+
+  /**
+   * Returns the number of steps the door of an elevator stays open.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the steps left before the door closes, 0 if it is closed.
+   */
+  int getDoorOpenTimer(int elevator);
+
+  /**
+   * Returns the number of steps the door of an elevator stays open at a stop.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the steps the door stays open.
+   */
+  int getDoorOpenTime(int elevator);
+
+  /**
+   * Returns the number of steps an elevator waits at the bottom or top floor
+   * before it sets off empty.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the steps it waits.
+   */
+  int getEndWaitTime(int elevator);
+
+  /**
+   * Returns the number of floors an elevator has been asked to stop at.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the number of stops.
+   */
+  int getStopCount(int elevator);
+
+  /**
+   * Returns the lowest floor an elevator has been asked to stop at.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the lowest stop, or -1 if there are no stops.
+   */
+  int getLowestStop(int elevator);
+
+  /**
+   * Returns the highest floor an elevator has been asked to stop at.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the highest stop, or -1 if there are no stops.
+   */
+  int getHighestStop(int elevator);
+
+  /**
+   * Returns how fast an elevator travels between its stops.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the speed profile of the elevator.
+   */
+  SpeedProfile getSpeedProfile(int elevator);
+
+  /**
+   * Returns the number of floors ahead an elevator needs to stop, from how fast it is moving.
+   * A request can only start at a floor at least this far ahead of it,
+   * see SpeedProfile.stoppingDistance.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the number of floors, 0 if it can stop at the floor it is at.
+   */
+  int getStoppingDistance(int elevator);
+
+  /**
+   * This method is used to get the status of an elevator.
+   *
+   * @param elevator the index of the elevator in the fleet.
+   * @return the elevator status.
+   */
+  ElevatorReport getElevatorStatus(int elevator);
+}
@@ -0,0 +1,300 @@
+package elevator;
+
+import building.enums.Direction;
+
+
+/**
+ * This class runs the elevator state machine forward many steps at a time,
+ * for an elevator that is not given any requests in the meantime.
+ * Instead of stepping one tick at a time it jumps over whole phases:
+ * the door countdown, the wait at the top or bottom, and the run to the next stop,
+ * or for a fast elevator the steps it runs at the same speed.
+ * When an elevator has no stops left its round trip repeats,
+ * so whole round trips are skipped at once.
+ * <p></p>
+ * The cursor is loaded with the state of one elevator, run, and read back.
+ * Elevator and FleetState both use it, so they jump exactly the same way.
+ */
+final class FreeRun {
+
+  private final int top;
+  private final int doorOpenTimeTotal;
+  private final int stopWaitTimeTotal;
+
+  /************************************************************************
+   * The state of the elevator being run.
+   ************************************************************************/
+  int floor;
+  Direction direction;
+  boolean doorClosed;
+  int doorOpenTimeLeft;
+  int stopWaitTimeLeft;
+  boolean takingRequests;
+  boolean outOfService;
+  boolean turnAtLastStop;
+  int speed;
+
+  /************************************************************************
+   * How fast the elevator being run travels.
+   ************************************************************************/
+  private SpeedProfile profile = SpeedProfile.LOCAL;
+
+  /************************************************************************
+   * The stop set of the elevator, kept inside a larger array.
+   ************************************************************************/
+  private long[] words;
+  private int base;
+  private final int wordCount;
+  private final long[] scratch;
+
+
+  /**
+   * The constructor for the cursor.
+   *
+   * @param maxFloor          the total number of floors in the building.
+   * @param doorOpenTimeTotal the number of steps that the door is open for.
+   * @param stopWaitTimeTotal the number of steps an elevator waits at the top or bottom.
+   */
+  FreeRun(int maxFloor, int doorOpenTimeTotal, int stopWaitTimeTotal) {
+    this.top = maxFloor - 1;
+    this.doorOpenTimeTotal = doorOpenTimeTotal;
+    this.stopWaitTimeTotal = stopWaitTimeTotal;
+    this.wordCount = StopSet.wordCount(maxFloor);
+    this.scratch = new long[this.wordCount];
+  }
+
+  /**
+   * Run the elevator at the speed of a profile.
+   *
+   * @param profile the speed profile of the elevator.
+   */
+  void useProfile(SpeedProfile profile) {
+    this.profile = profile;
+  }
+
+  /**
+   * Run on the stop set of the elevator itself, removing the stops it passes.
+   *
+   * @param words the array holding the stop set.
+   * @param base  the index of the first word of the stop set.
+   */
+  void useStops(long[] words, int base) {
+    this.words = words;
+    this.base = base;
+  }
+
+  /**
+   * Run on a copy of the stop set of the elevator, leaving the elevator untouched.
+   *
+   * @param words the array holding the stop set.
+   * @param base  the index of the first word of the stop set.
+   */
+  void copyStops(long[] words, int base) {
+    System.arraycopy(words, base, this.scratch, 0, this.wordCount);
+    this.words = this.scratch;
+    this.base = 0;
+  }
+
+  /**
+   * Run the loaded elevator forward.
+   * If a target floor is given the run stops early at the first step the elevator
+   * begins while taking requests at that floor.
+   *
+   * @param maxTicks    the number of steps to run for.
+   * @param targetFloor the floor to stop at when taking requests, or -1 to run all the steps.
+   * @return the number of steps that were run,
+   *         or Long.MAX_VALUE if the elevator will never take requests at the target floor.
+   */
+  long run(long maxTicks, int targetFloor) {
+    long ticks = 0;
+    while (ticks < maxTicks) {
+      long left = maxTicks - ticks;
+
+      if (this.outOfService) {
+        if (this.floor == 0 && !this.doorClosed) {
+          // at rest on the ground floor, nothing will ever change
+          return targetFloor < 0 ? maxTicks : Long.MAX_VALUE;
+        }
+        if (this.floor == 0) {
+          this.doorClosed = false;
+          removeStop(0);
+          this.direction = Direction.STOPPED;
+          ticks++;
+        } else if (!this.doorClosed) {
+          ticks += countDownDoor(left);
+        } else {
+          int moves = (int) Math.min(left, this.floor);
+          this.direction = Direction.DOWN;
+          this.floor -= moves;
+          ticks += moves;
+        }
+        continue;
+      }
+
+      if (this.takingRequests && this.floor == targetFloor) {
+        return ticks;
+      }
+
+      if (!this.doorClosed) {
+        ticks += countDownDoor(left);
+        continue;
+      }
+
+      if (this.stopWaitTimeLeft > 0) {
+        int waited = (int) Math.min(left, this.stopWaitTimeLeft);
+        this.stopWaitTimeLeft -= waited;
+        ticks += waited;
+        if (this.stopWaitTimeLeft == 0) {
+          this.takingRequests = false;
+          if (this.floor == 0) {
+            this.direction = Direction.UP;
+          } else if (this.floor == this.top) {
+            this.direction = Direction.DOWN;
+          }
+        }
+        continue;
+      }
+
+      if (hasStop(this.floor)) {
+        this.doorClosed = false;
+        this.doorOpenTimeLeft = this.doorOpenTimeTotal;
+        removeStop(this.floor);
+        this.speed = 0;
+        ticks++;
+        continue;
+      }
+
+      if ((this.floor == 0 && this.direction == Direction.DOWN)
+          || (this.floor == this.top && this.direction == Direction.UP)) {
+        this.direction = Direction.STOPPED;
+        this.stopWaitTimeLeft = this.stopWaitTimeTotal;
+        this.takingRequests = true;
+        this.turnAtLastStop = false;
+        this.speed = 0;
+        ticks++;
+        if (targetFloor < 0 && noStops()) {
+          // from here on the elevator repeats the same empty round trip
+          ticks += (maxTicks - ticks) / roundTrip() * roundTrip();
+        }
+        continue;
+      }
+
+      if (this.turnAtLastStop && this.floor != 0 && this.floor != this.top
+          && !hasStopAhead()) {
+        // turning around takes no step of its own, the next move is the other way
+        this.turnAtLastStop = false;
+        this.direction = this.direction == Direction.UP ? Direction.DOWN : Direction.UP;
+        this.speed = 0;
+      }
+
+      if (this.direction == Direction.UP) {
+        int next = StopSet.nextAbove(this.words, this.base, this.wordCount, this.floor);
+        ticks += travel((next < 0 ? this.top : next) - this.floor, left, 1);
+      } else if (this.direction == Direction.DOWN) {
+        int next = StopSet.nextBelow(this.words, this.base, this.floor);
+        ticks += travel(this.floor - Math.max(next, 0), left, -1);
+      } else {
+        // stopped without waiting, nothing will ever change
+        return targetFloor < 0 ? maxTicks : Long.MAX_VALUE;
+      }
+    }
+    return ticks;
+  }
+
+  /**
+   * Count the steps until the loaded elevator, taken out of service,
+   * is resting on the ground floor with its door open.
+   *
+   * @return the number of steps, 0 if it is resting now,
+   *         or Long.MAX_VALUE if it is in service or will never rest.
+   */
+  long ticksUntilAtRest() {
+    if (!this.outOfService) {
+      return Long.MAX_VALUE;
+    }
+    if (this.floor == 0) {
+      return this.doorClosed ? 1 : 0;
+    }
+    if (!this.doorClosed && this.doorOpenTimeLeft <= 0) {
+      return Long.MAX_VALUE;
+    }
+    // close the door, run down to the ground floor and open the door there
+    return (this.doorClosed ? 0 : this.doorOpenTimeLeft) + this.floor + 1L;
+  }
+
+  /**
+   * Get the number of steps of an empty round trip,
+   * from the start of a wait at one end back to the start of a wait at the same end.
+   *
+   * @return the number of steps of an empty round trip.
+   */
+  long roundTrip() {
+    return 2L * (this.stopWaitTimeTotal + this.profile.ticksToTravel(this.top) + 1);
+  }
+
+  /**
+   * Move the elevator towards its next stop, for as many steps as it keeps the same speed.
+   * At one floor a step that is the whole way, otherwise a step of speeding up or slowing down,
+   * or the steps at top speed until it has to slow down.
+   *
+   * @param distance the number of floors to the next stop or the end, at least 1.
+   * @param left     the number of steps left to run.
+   * @param sign     1 to move up, -1 to move down.
+   * @return the number of steps taken.
+   */
+  private long travel(int distance, long left, int sign) {
+    int top = this.profile.getFloorsPerTick();
+    if (top == 1) {
+      int moves = (int) Math.min(left, distance);
+      this.floor += sign * moves;
+      this.speed = 1;
+      return moves;
+    }
+    if (this.speed == top && distance >= this.profile.cruisingDistance()) {
+      int cruise = (int) Math.min(left, (distance - this.profile.cruisingDistance()) / top + 1);
+      this.floor += sign * cruise * top;
+      return cruise;
+    }
+    this.speed = this.profile.move(this.speed, distance);
+    this.floor += sign * this.speed;
+    return 1;
+  }
+
+  private long countDownDoor(long left) {
+    if (this.doorOpenTimeLeft <= 0) {
+      // a door with no time left never closes, it only keeps counting down
+      this.doorOpenTimeLeft -= (int) Math.min(left, Integer.MAX_VALUE);
+      return left;
+    }
+    int counted = (int) Math.min(left, this.doorOpenTimeLeft);
+    this.doorOpenTimeLeft -= counted;
+    if (this.doorOpenTimeLeft == 0) {
+      this.doorClosed = true;
+    }
+    return counted;
+  }
+
+  private boolean hasStop(int floor) {
+    return (this.words[this.base + (floor >>> 6)] & (1L << floor)) != 0;
+  }
+
+  private void removeStop(int floor) {
+    this.words[this.base + (floor >>> 6)] &= ~(1L << floor);
+  }
+
+  private boolean hasStopAhead() {
+    if (this.direction == Direction.UP) {
+      return StopSet.nextAbove(this.words, this.base, this.wordCount, this.floor) >= 0;
+    }
+    return StopSet.nextBelow(this.words, this.base, this.floor) >= 0;
+  }
+
+  private boolean noStops() {
+    for (int i = 0; i < this.wordCount; i++) {
+      if (this.words[this.base + i] != 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
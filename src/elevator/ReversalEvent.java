@@ -0,0 +1,48 @@
+package elevator;
+
+import building.enums.Direction;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * The Java Flight Recorder event of an elevator turning around, at the bottom or top floor
+ * or after the last stop of its run. Runs that an elevator is advanced over at once
+ * do not make events.
+ */
+@Name("elevator.Reversal")
+@Label("Reversal")
+@Category({"Elevator Simulation", "Elevator"})
+@Description("An elevator turning around.")
+final class ReversalEvent extends Event {
+
+  @Label("Elevator Id")
+  int elevatorId;
+
+  @Label("Floor")
+  int floor;
+
+  @Label("Direction")
+  @Description("The direction the elevator was going before it turned.")
+  String direction;
+
+  /**
+   * Record that an elevator turned around, if the event is being recorded.
+   *
+   * @param elevatorId the id of the elevator.
+   * @param floor      the floor it turned at.
+   * @param direction  the direction it was going before it turned.
+   */
+  static void record(int elevatorId, int floor, Direction direction) {
+    ReversalEvent event = new ReversalEvent();
+    if (event.shouldCommit()) {
+      event.elevatorId = elevatorId;
+      event.floor = floor;
+      event.direction = direction.name();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package elevator;
+
+
+/**
+ * How fast an elevator travels between its stops.
+ * An elevator runs at most a number of floors a step, and speeds up and slows down
+ * by at most a number of floors a step on every step, so an express elevator passes
+ * the floors it does not serve faster but still stops exactly at the floors it was asked to.
+ * A profile that speeds up by its whole top speed has no ramp: the elevator runs
+ * at top speed from the step it sets off until the step it gets to its stop.
+ * <p></p>
+ * The floors an elevator moves on a step only depend on the floors it moved on the last step
+ * and how far the next stop is, and are looked up in a table made once for the profile,
+ * so a step takes the same few operations at any speed.
+ * Profiles are immutable and can be shared between elevators.
+ */
+public final class SpeedProfile {
+
+  /**
+   * The profile of an elevator that runs one floor a step, as elevators always have.
+   */
+  public static final SpeedProfile LOCAL = new SpeedProfile(1);
+
+  /**
+   * The largest top speed of a profile, in floors a step.
+   */
+  public static final int MAX_FLOORS_PER_TICK = 64;
+
+  private final int floorsPerTick;
+  private final int acceleration;
+
+  //the number of floors an elevator moving a number of floors a step needs to stop
+  private final int[] stopping;
+
+  //the fastest an elevator can move with a number of floors left to its stop,
+  //and still slow down in time, for fewer floors left than it needs to stop from top speed
+  private final int[] brakingSpeed;
+
+
+  /**
+   * The constructor for a profile without a ramp.
+   *
+   * @param floorsPerTick the top speed, in floors a step.
+   * @throws IllegalArgumentException if the top speed is out of range.
+   */
+  public SpeedProfile(int floorsPerTick) throws IllegalArgumentException {
+    this(floorsPerTick, floorsPerTick);
+  }
+
+  /**
+   * The constructor for a profile.
+   *
+   * @param floorsPerTick the top speed, in floors a step.
+   * @param acceleration  the most the speed changes from one step to the next, in floors a step.
+   * @throws IllegalArgumentException if the top speed or the acceleration is out of range.
+   */
+  public SpeedProfile(int floorsPerTick, int acceleration) throws IllegalArgumentException {
+    if (floorsPerTick < 1 || floorsPerTick > MAX_FLOORS_PER_TICK) {
+      throw new IllegalArgumentException(
+          "Floors per step should be between 1 and " + MAX_FLOORS_PER_TICK + ".");
+    }
+    if (acceleration < 1 || acceleration > floorsPerTick) {
+      throw new IllegalArgumentException(
+          "Acceleration should be between 1 and " + floorsPerTick + ".");
+    }
+    this.floorsPerTick = floorsPerTick;
+    this.acceleration = acceleration;
+
+    //stopping[s] is the number of floors an elevator moving s floors a step needs to stop
+    int[] stopping = new int[floorsPerTick + 1];
+    for (int speed = 1; speed <= floorsPerTick; speed++) {
+      stopping[speed] = speed + stopping[Math.max(speed - acceleration, 0)];
+    }
+    this.stopping = stopping;
+    this.brakingSpeed = new int[stopping[floorsPerTick]];
+    int speed = 0;
+    for (int left = 0; left < this.brakingSpeed.length; left++) {
+      while (stopping[speed + 1] <= left) {
+        speed++;
+      }
+      this.brakingSpeed[left] = speed;
+    }
+  }
+
+  /**
+   * This method is used to get the top speed of the profile.
+   *
+   * @return the top speed, in floors a step.
+   */
+  public int getFloorsPerTick() {
+    return this.floorsPerTick;
+  }
+
+  /**
+   * This method is used to get how fast an elevator with the profile speeds up and slows down.
+   *
+   * @return the most the speed changes from one step to the next, in floors a step.
+   */
+  public int getAcceleration() {
+    return this.acceleration;
+  }
+
+  /**
+   * Get the number of floors ahead an elevator needs to stop, after a step it moved
+   * a number of floors on. It can slow down by at most the acceleration on its next step,
+   * so a stop must be at least this far ahead of it: 0 for the floor it is at,
+   * which it can only stop at if it moved no more than the acceleration.
+   *
+   * @param speed the number of floors it moved on the last step, 0 if it did not move.
+   * @return the number of floors.
+   */
+  public int stoppingDistance(int speed) {
+    return this.stopping[Math.min(Math.max(speed - this.acceleration, 0), this.floorsPerTick)];
+  }
+
+  /**
+   * Get the number of floors an elevator moves on a step.
+   * It never passes its next stop and always moves at least one floor towards it.
+   * It never changes speed by more than the acceleration either, as long as
+   * its next stop was at least the stopping distance ahead of it when it was added.
+   *
+   * @param speed the number of floors it moved on the last step, 0 if it did not move.
+   * @param left  the number of floors to its next stop or the end of the building, at least 1.
+   * @return the number of floors to move.
+   */
+  int move(int speed, int left) {
+    int move = Math.min(this.floorsPerTick, speed + this.acceleration);
+    return left < this.brakingSpeed.length ? Math.min(move, this.brakingSpeed[left]) : move;
+  }
+
+  /**
+   * Get the number of floors left to its next stop from which an elevator
+   * running at top speed keeps running at top speed.
+   *
+   * @return the number of floors.
+   */
+  int cruisingDistance() {
+    return this.brakingSpeed.length;
+  }
+
+  /**
+   * Count the steps an elevator at rest needs to run a number of floors to a stop.
+   * This takes a step for every change of speed, so it does not grow with the number of floors.
+   *
+   * @param floors the number of floors to run.
+   * @return the number of steps.
+   */
+  public long ticksToTravel(int floors) {
+    if (this.floorsPerTick == 1) {
+      return floors;
+    }
+    long ticks = 0;
+    int speed = 0;
+    int left = floors;
+    while (left > 0) {
+      if (speed == this.floorsPerTick && left >= this.brakingSpeed.length) {
+        //cruise at top speed until it has to slow down
+        int cruise = (left - this.brakingSpeed.length) / speed + 1;
+        left -= cruise * speed;
+        ticks += cruise;
+        continue;
+      }
+      speed = move(speed, left);
+      left -= speed;
+      ticks++;
+    }
+    return ticks;
+  }
+
+  /**
+   * toString implementation.
+   *
+   * @return the top speed and acceleration of the profile.
+   */
+  @Override
+  public String toString() {
+    return this.floorsPerTick + " floors a step, speeding up by " + this.acceleration;
+  }
+}
@@ -0,0 +1,285 @@
+package elevator;
+
+import java.util.Arrays;
+
+
+/**
+ * This class is the set of floors an elevator has been asked to stop at.
+ * The floors are packed into the bits of an array of longs, one long for every 64 floors,
+ * so clearing the set, finding the next stop and taking a snapshot for a report
+ * only touch one or two words for the buildings we simulate.
+ */
+public class StopSet {
+
+  /************************************************************************
+   * The number of floors a single word of the set can hold.
+   ************************************************************************/
+  static final int FLOORS_PER_WORD = 64;
+
+  /************************************************************************
+   * The number of floors in the building.
+   ************************************************************************/
+  private final int numberOfFloors;
+
+  /************************************************************************
+   * The requested floors, bit i of word i / 64 is floor i.
+   ************************************************************************/
+  private final long[] words;
+
+  /************************************************************************
+   * The boolean view of the requested floors, built when it is asked for.
+   ************************************************************************/
+  private final boolean[] view;
+
+  /************************************************************************
+   * True if the set has changed since the boolean view was built.
+   ************************************************************************/
+  private boolean viewStale;
+
+
+  /**
+   * The constructor for an empty stop set.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   */
+  public StopSet(int numberOfFloors) {
+    this.numberOfFloors = numberOfFloors;
+    this.words = new long[wordCount(numberOfFloors)];
+    this.view = new boolean[numberOfFloors];
+    this.viewStale = false;
+  }
+
+  /**
+   * Get the number of longs needed to hold the given number of floors.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @return the number of words in the set.
+   */
+  static int wordCount(int numberOfFloors) {
+    return (numberOfFloors + FLOORS_PER_WORD - 1) / FLOORS_PER_WORD;
+  }
+
+  /**
+   * Get the number of floors in the building.
+   *
+   * @return the number of floors in the building.
+   */
+  public int getNumberOfFloors() {
+    return this.numberOfFloors;
+  }
+
+  /**
+   * Add a stop at a floor.
+   *
+   * @param floor the floor to stop at.
+   */
+  public void add(int floor) {
+    this.words[floor >>> 6] |= 1L << floor;
+    this.viewStale = true;
+  }
+
+  /**
+   * Remove the stop at a floor.
+   *
+   * @param floor the floor not to stop at anymore.
+   */
+  public void remove(int floor) {
+    this.words[floor >>> 6] &= ~(1L << floor);
+    this.viewStale = true;
+  }
+
+  /**
+   * Check if there is a stop at a floor.
+   *
+   * @param floor the floor to check.
+   * @return true if the elevator should stop at the floor.
+   */
+  public boolean contains(int floor) {
+    return (this.words[floor >>> 6] & (1L << floor)) != 0;
+  }
+
+  /**
+   * Remove all the stops.
+   * For buildings of up to 64 floors this is a single store.
+   */
+  public void clear() {
+    if (this.words.length == 1) {
+      this.words[0] = 0L;
+    } else {
+      Arrays.fill(this.words, 0L);
+    }
+    this.viewStale = true;
+  }
+
+  /**
+   * Check if there are no stops.
+   *
+   * @return true if there are no stops.
+   */
+  public boolean isEmpty() {
+    for (long word : this.words) {
+      if (word != 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Count the stops.
+   *
+   * @return the number of floors to stop at.
+   */
+  public int size() {
+    return count(this.words, 0, this.words.length);
+  }
+
+  /**
+   * Count the stops of a stop set kept inside a larger array.
+   *
+   * @param words     the array holding the stop set.
+   * @param base      the index of the first word of the stop set.
+   * @param wordCount the number of words of the stop set.
+   * @return the number of floors to stop at.
+   */
+  static int count(long[] words, int base, int wordCount) {
+    int count = 0;
+    for (int i = base; i < base + wordCount; i++) {
+      count += Long.bitCount(words[i]);
+    }
+    return count;
+  }
+
+  /**
+   * Find the lowest stop above a floor.
+   *
+   * @param floor the floor to look above.
+   * @return the lowest requested floor above the given floor, or -1 if there is none.
+   */
+  public int nextAbove(int floor) {
+    return nextAbove(this.words, 0, this.words.length, floor);
+  }
+
+  /**
+   * Find the highest stop below a floor.
+   *
+   * @param floor the floor to look below.
+   * @return the highest requested floor below the given floor, or -1 if there is none.
+   */
+  public int nextBelow(int floor) {
+    return nextBelow(this.words, 0, floor);
+  }
+
+  /**
+   * Find the lowest stop above a floor in a stop set kept inside a larger array.
+   *
+   * @param words     the array holding the stop set.
+   * @param base      the index of the first word of the stop set.
+   * @param wordCount the number of words of the stop set.
+   * @param floor     the floor to look above.
+   * @return the lowest requested floor above the given floor, or -1 if there is none.
+   */
+  static int nextAbove(long[] words, int base, int wordCount, int floor) {
+    int from = floor + 1;
+    int index = from >>> 6;
+    if (index >= wordCount) {
+      return -1;
+    }
+    long word = words[base + index] & (-1L << from);
+    while (true) {
+      if (word != 0L) {
+        return index * FLOORS_PER_WORD + Long.numberOfTrailingZeros(word);
+      }
+      index++;
+      if (index == wordCount) {
+        return -1;
+      }
+      word = words[base + index];
+    }
+  }
+
+  /**
+   * Find the highest stop below a floor in a stop set kept inside a larger array.
+   *
+   * @param words the array holding the stop set.
+   * @param base  the index of the first word of the stop set.
+   * @param floor the floor to look below.
+   * @return the highest requested floor below the given floor, or -1 if there is none.
+   */
+  static int nextBelow(long[] words, int base, int floor) {
+    int from = floor - 1;
+    if (from < 0) {
+      return -1;
+    }
+    int index = from >>> 6;
+    long word = words[base + index] & (-1L >>> (63 - (from & 63)));
+    while (true) {
+      if (word != 0L) {
+        return index * FLOORS_PER_WORD + 63 - Long.numberOfLeadingZeros(word);
+      }
+      index--;
+      if (index < 0) {
+        return -1;
+      }
+      word = words[base + index];
+    }
+  }
+
+  /**
+   * Get the words of the set, for the classes of this package that work on them directly.
+   * They must call changed() after modifying them.
+   *
+   * @return the words of the set.
+   */
+  long[] words() {
+    return this.words;
+  }
+
+  /**
+   * Tell the set that its words were modified directly.
+   */
+  void changed() {
+    this.viewStale = true;
+  }
+
+  /**
+   * Copy the stops so that a report can keep them after the elevator moves on.
+   *
+   * @return a copy of the words of the set.
+   */
+  public long[] snapshot() {
+    return this.words.clone();
+  }
+
+  /**
+   * Get the stops as an array of booleans, one for every floor.
+   * The array is only rebuilt when the stops have changed since it was last asked for.
+   *
+   * @return true for every floor the elevator should stop at.
+   */
+  public boolean[] toBooleanArray() {
+    if (this.viewStale) {
+      for (int i = 0; i < this.numberOfFloors; i++) {
+        this.view[i] = contains(i);
+      }
+      this.viewStale = false;
+    }
+    return this.view;
+  }
+
+  /**
+   * Pack an array of booleans, one for every floor, into the words of a stop set.
+   *
+   * @param floorRequests true for every floor the elevator should stop at.
+   * @return the packed words.
+   */
+  public static long[] pack(boolean[] floorRequests) {
+    long[] packed = new long[wordCount(floorRequests.length)];
+    for (int i = 0; i < floorRequests.length; i++) {
+      if (floorRequests[i]) {
+        packed[i >>> 6] |= 1L << i;
+      }
+    }
+    return packed;
+  }
+}
@@ -0,0 +1,187 @@
+package main;
+
+import building.Building;
+import building.DwellStatistics;
+import building.OptimalDispatch;
+import building.SolverStatistics;
+import building.enums.DispatchPolicy;
+import building.enums.DwellPolicy;
+import building.enums.TravelMode;
+import elevator.ElevatorReport;
+import java.util.Arrays;
+import java.util.Random;
+import scanerzus.Request;
+
+/**
+ * The driver for comparing the dispatch policies, travel modes and dwell policies
+ * of the elevator system.
+ * This class runs the same random traffic through a building once for every combination
+ * and prints how long the riders waited and rode side by side,
+ * with how long a round trip of an elevator took, from leaving the bottom or top floor
+ * to taking requests at that floor again, how many times it opened its door on a round trip
+ * and how many steps the elevators spent waiting at the bottom and top floors.
+ * A round trip is measured the same way for every travel mode, so an elevator that turns
+ * at its last stop is compared with one that runs to the other end and back.
+ * The traffic is run twice, once between random floors and once as an up peak,
+ * where every rider comes in at the ground floor.
+ * For optimal dispatch it also prints the average and longest time in microseconds
+ * spent giving out the waiting requests on a step.
+ */
+public class MainBenchmark {
+
+  /**
+   * Run the comparison and print the results to the console.
+   *
+   * @param args the command line arguments, which are the number of floors,
+   *             the number of elevators, the capacity of the elevators
+   *             and the number of ticks to run for
+   */
+  public static void main(String[] args) {
+
+    int numFloors = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+    int numElevators = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    int numPeople = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+    int ticks = args.length > 3 ? Integer.parseInt(args[3]) : 20000;
+
+    //the number of new requests on every tick, in percent,
+    //so 250 is two requests and the chance of a third one half the time;
+    //the elevators can carry more riders when they all come in at the ground floor
+    int[] trafficLevels = {5, 25, 50, 100};
+    int[] upPeakLevels = {25, 100, 150, 200};
+
+    System.out.println("Building: " + numFloors + " floors, " + numElevators
+        + " elevators, capacity " + numPeople + ", " + ticks + " ticks");
+    System.out.printf(
+        "%-10s %-12s %-12s %-10s %10s %14s %10s %14s %10s %10s %10s %10s %10s %10s %14s%n",
+        "Traffic", "Policy", "Travel", "Dwell", "Boarded", "Average wait", "P99 wait",
+        "Longest wait",
+        "Waiting", "Ride", "Round trip", "Stops", "Saved", "Held", "Solve us");
+
+    for (boolean upPeak : new boolean[] {false, true}) {
+      for (int traffic : upPeak ? upPeakLevels : trafficLevels) {
+        for (DispatchPolicy policy : DispatchPolicy.values()) {
+          for (TravelMode travelMode : TravelMode.values()) {
+            for (DwellPolicy dwellPolicy : DwellPolicy.values()) {
+              run(numFloors, numElevators, numPeople, ticks, traffic, upPeak, policy,
+                  travelMode, dwellPolicy);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Run one building through the random traffic and print a line of results.
+   *
+   * @param numFloors    the number of floors
+   * @param numElevators the number of elevators
+   * @param numPeople    the capacity of the elevators
+   * @param ticks        the number of ticks to run for
+   * @param traffic      the number of new requests on every tick, in percent
+   * @param upPeak       true if every rider comes in at the ground floor
+   * @param policy       the dispatch policy
+   * @param travelMode   the travel mode
+   * @param dwellPolicy  the dwell policy
+   */
+  private static void run(int numFloors, int numElevators, int numPeople, int ticks,
+                          int traffic, boolean upPeak, DispatchPolicy policy,
+                          TravelMode travelMode, DwellPolicy dwellPolicy) {
+    Building building = new Building(numFloors, numElevators, numPeople);
+    building.setDispatchPolicy(policy);
+    building.setTravelMode(travelMode);
+    building.setDwellPolicy(dwellPolicy);
+    building.setRecordingWaitTimes(true);
+    building.startElevatorSystem();
+
+    //a round trip lasts from an elevator leaving the bottom or top floor
+    //to the step it takes requests at that floor again, so an elevator running
+    //from end to end is on a round trip from each end at once;
+    //an elevator that has come to one end and then set off from it twice
+    //is not coming back to the other one on that trip, which is dropped;
+    //the trips from the bottom floor are at 2 * i and from the top floor at 2 * i + 1
+    boolean[] away = new boolean[numElevators];
+    int[] lastEnd = new int[numElevators];
+    long[] leftAt = new long[2 * numElevators];
+    long[] lastLeftAt = new long[2 * numElevators];
+    long[] tripStops = new long[2 * numElevators];
+    Arrays.fill(leftAt, -1);
+    Arrays.fill(lastLeftAt, -1);
+    for (int i = 0; i < numElevators; i++) {
+      lastEnd[i] = 2 * i;
+    }
+    boolean[] doorOpen = new boolean[numElevators];
+    long trips = 0;
+    long tripTicks = 0;
+    long stops = 0;
+
+    //the same seed for every run, so they all see the same requests
+    Random random = new Random(traffic);
+    for (int tick = 0; tick < ticks; tick++) {
+      int arrivals = traffic / 100 + (random.nextInt(100) < traffic % 100 ? 1 : 0);
+      for (int i = 0; i < arrivals; i++) {
+        int start = upPeak ? 0 : random.nextInt(numFloors);
+        int end = (start + 1 + random.nextInt(numFloors - 1)) % numFloors;
+        building.addRequests(Request.of(start, end));
+      }
+      building.step();
+      ElevatorReport[] elevators = building.getBuildingReport().getElevatorReports();
+      for (int i = 0; i < numElevators; i++) {
+        if (elevators[i].isTakingRequests()) {
+          int end = 2 * i + (elevators[i].getCurrentFloor() == 0 ? 0 : 1);
+          lastEnd[i] = end;
+          if (away[i] && leftAt[end] >= 0) {
+            trips++;
+            tripTicks += tick - leftAt[end];
+            stops += tripStops[end];
+            leftAt[end] = -1;
+          }
+          away[i] = false;
+        } else if (!away[i]) {
+          away[i] = true;
+          int end = lastEnd[i];
+          int otherEnd = end ^ 1;
+          if (leftAt[otherEnd] >= 0 && leftAt[otherEnd] < lastLeftAt[end]) {
+            leftAt[otherEnd] = -1;
+          }
+          leftAt[end] = tick;
+          lastLeftAt[end] = tick;
+          tripStops[end] = 0;
+        }
+        if (away[i] && !doorOpen[i] && !elevators[i].isDoorClosed()) {
+          for (int end = 2 * i; end <= 2 * i + 1; end++) {
+            if (leftAt[end] >= 0) {
+              tripStops[end]++;
+            }
+          }
+        }
+        doorOpen[i] = !elevators[i].isDoorClosed();
+      }
+    }
+
+    long saved = 0;
+    long held = 0;
+    for (int i = 0; i < numElevators; i++) {
+      DwellStatistics dwell = building.getDwellStatistics(i);
+      saved += dwell.getSavedTicks();
+      held += dwell.getHeldTicks();
+    }
+    int waiting = building.getBuildingReport().getUpRequests().size()
+        + building.getBuildingReport().getDownRequests().size();
+    String solve = "-";
+    if (building.getDispatchStrategy() instanceof OptimalDispatch) {
+      SolverStatistics solver =
+          ((OptimalDispatch) building.getDispatchStrategy()).getSolverStatistics();
+      solve = String.format("%.1f/%d", solver.getAverageNanos() / 1000,
+          solver.getLongestNanos() / 1000);
+    }
+    System.out.printf(
+        "%-10s %-12s %-12s %-10s %10d %14.1f %10d %14d %10d %10.1f %10.1f %10.1f %10d %10d %14s%n",
+        traffic + "%" + (upPeak ? " up" : ""), policy, travelMode, dwellPolicy,
+        building.getBoardedCount(), building.getAverageWaitTicks(),
+        building.getWaitLatency().getP99(),
+        building.getLongestWaitTicks(), waiting, building.getAverageRideTicks(),
+        trips == 0 ? 0.0 : (double) tripTicks / trips,
+        trips == 0 ? 0.0 : (double) stops / trips, saved, held, solve);
+  }
+}
@@ -110,7 +110,7 @@ public class MainConsole {
             break;
           }
           System.out.println("Adding request from floor " + startFloor + " to floor " + endFloor);
-          building.addRequests(new Request(startFloor, endFloor));
+          building.addRequests(Request.of(startFloor, endFloor));
           break;
 
         case "st":
@@ -0,0 +1,101 @@
+package main;
+
+import building.BuildingLimits;
+import building.Zone;
+import building.ZonedBuilding;
+import building.enums.SimulationEngine;
+import elevator.SpeedProfile;
+import java.util.Random;
+import scanerzus.Request;
+
+/**
+ * The driver for comparing one bank of elevators serving every floor with zoned banks,
+ * as the building gets taller.
+ * This class runs the same traffic to and from the ground floor through buildings
+ * of more and more floors, split into more and more zones with the same elevators
+ * between them, and prints how many riders every elevator picked up and how long they waited.
+ * There is more traffic than the elevators can carry, so the riders picked up
+ * are what the elevators can carry.
+ * Every zoned building is run twice, once with the elevators of the zones above the lowest
+ * running one floor a step like the others, and once running express at a faster speed
+ * past the floors below their zone.
+ */
+public class MainZoningBenchmark {
+
+  /**
+   * Run the comparison and print the results to the console.
+   *
+   * @param args the command line arguments, which are the number of elevators,
+   *             the capacity of the elevators and the number of ticks to run for
+   */
+  public static void main(String[] args) {
+
+    int numElevators = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+    int numPeople = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+    int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+
+    int[] floorCounts = {24, 48, 96, 192};
+    int[] zoneCounts = {1, 2, 3, 4};
+    //the number of new requests on every tick, in percent
+    int traffic = 300;
+    SpeedProfile express = new SpeedProfile(4, 1);
+
+    System.out.println("Elevators: " + numElevators + ", capacity " + numPeople + ", "
+        + ticks + " ticks, traffic " + traffic + "%, express " + express);
+    System.out.printf("%-10s %-10s %-14s %-10s %10s %16s %14s%n",
+        "Floors", "Zones", "Per zone", "Express", "Boarded", "Per car/1000", "Average wait");
+
+    for (int numFloors : floorCounts) {
+      for (int numZones : zoneCounts) {
+        if (numElevators % numZones != 0) {
+          continue;
+        }
+        run(numFloors, numZones, numElevators, numPeople, ticks, traffic, SpeedProfile.LOCAL);
+        if (numZones > 1) {
+          run(numFloors, numZones, numElevators, numPeople, ticks, traffic, express);
+        }
+      }
+    }
+  }
+
+  /**
+   * Run one zoned building through the traffic and print a line of results.
+   *
+   * @param numFloors    the number of floors
+   * @param numZones     the number of zones
+   * @param numElevators the number of elevators, shared out evenly between the zones
+   * @param numPeople    the capacity of the elevators
+   * @param ticks        the number of ticks to run for
+   * @param traffic      the number of new requests on every tick, in percent
+   * @param express      the speed of the elevators of the zones above the lowest
+   */
+  private static void run(int numFloors, int numZones, int numElevators, int numPeople,
+                          int ticks, int traffic, SpeedProfile express) {
+    ZonedBuilding building = new ZonedBuilding(numFloors, numPeople,
+        Zone.split(numFloors, numZones, numElevators / numZones),
+        SimulationEngine.FLEET_STATE, new BuildingLimits(numFloors, numElevators, numPeople));
+    for (int zone = 1; zone < numZones; zone++) {
+      building.setSpeedProfile(zone, express);
+    }
+    building.setRecordingWaitTimes(true);
+    building.startElevatorSystem();
+
+    //the same seed for every run, so they all see the same requests
+    Random random = new Random(numFloors);
+    for (int tick = 0; tick < ticks; tick++) {
+      int arrivals = traffic / 100 + (random.nextInt(100) < traffic % 100 ? 1 : 0);
+      for (int i = 0; i < arrivals; i++) {
+        //half come in at the ground floor, half leave for it
+        int floor = 1 + random.nextInt(numFloors - 1);
+        building.addRequests(random.nextBoolean() ? Request.of(0, floor) : Request.of(floor, 0));
+      }
+      building.step();
+    }
+
+    long boarded = building.getBoardedCount();
+    System.out.printf("%-10d %-10d %-14s %-10s %10d %16.1f %14.1f%n",
+        numFloors, numZones, (numFloors - 1) / numZones + " floors",
+        express == SpeedProfile.LOCAL ? "no" : "yes", boarded,
+        boarded * 1000.0 / ticks / numElevators, building.getAverageWaitTicks());
+  }
+}
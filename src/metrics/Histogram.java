@@ -0,0 +1,330 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A histogram of values that are not negative, such as numbers of ticks or nanoseconds,
+ * kept in a fixed amount of memory however many values are recorded.
+ * Like HdrHistogram the buckets are log-linear: values below 2 to the power of the significant
+ * bits have a bucket each, and above that every power of two is split into the same number
+ * of buckets, so a value is known to within one part in 2 to the power of one less
+ * than the significant bits at any size.
+ * <p></p>
+ * Recording takes no lock and never allocates, and any number of threads can record at once.
+ * Readers can ask for percentiles at any time without stopping the writers,
+ * take a snapshot of everything recorded so far, or an interval snapshot of what was
+ * recorded since the last interval snapshot. A snapshot is a histogram of its own that
+ * does not change, and histograms of the same shape can be added together,
+ * to merge what several buildings or threads recorded.
+ */
+public final class Histogram {
+
+  /**
+   * The significant bits of a histogram, unless chosen otherwise,
+   * which keeps values to within one part in 128.
+   */
+  public static final int DEFAULT_SIGNIFICANT_BITS = 8;
+
+  /**
+   * The most significant bits of a histogram.
+   */
+  public static final int MAX_SIGNIFICANT_BITS = 16;
+
+  private final long highestTrackableValue;
+  private final int significantBits;
+  private final int subBucketCount;
+  private final int subBucketHalfCount;
+
+  private final AtomicLongArray counts;
+  private final AtomicLong totalValue = new AtomicLong();
+  private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong maxValue = new AtomicLong();
+
+  //the counts and total at the last interval snapshot, only used while holding the lock
+  private long[] intervalCounts;
+  private long intervalTotalValue;
+
+
+  /**
+   * The constructor for a histogram with the default significant bits.
+   *
+   * @param highestTrackableValue the highest value that is told apart from higher ones.
+   * @throws IllegalArgumentException if the highest trackable value is less than 1.
+   */
+  public Histogram(long highestTrackableValue) throws IllegalArgumentException {
+    this(highestTrackableValue, DEFAULT_SIGNIFICANT_BITS);
+  }
+
+  /**
+   * The constructor for a histogram.
+   * Values above the highest trackable value are counted as the highest trackable value,
+   * but the largest value and the total of the values are kept exactly.
+   *
+   * @param highestTrackableValue the highest value that is told apart from higher ones.
+   * @param significantBits       the number of bits of a value that are kept.
+   * @throws IllegalArgumentException if the highest trackable value is less than 1
+   *                                  or the significant bits are out of range.
+   */
+  public Histogram(long highestTrackableValue, int significantBits)
+      throws IllegalArgumentException {
+    if (highestTrackableValue < 1) {
+      throw new IllegalArgumentException("Highest trackable value should be at least 1.");
+    }
+    if (significantBits < 2 || significantBits > MAX_SIGNIFICANT_BITS) {
+      throw new IllegalArgumentException(
+          "Significant bits should be between 2 and " + MAX_SIGNIFICANT_BITS + ".");
+    }
+    this.highestTrackableValue = highestTrackableValue;
+    this.significantBits = significantBits;
+    this.subBucketCount = 1 << significantBits;
+    this.subBucketHalfCount = this.subBucketCount >> 1;
+    this.counts = new AtomicLongArray(bucketIndex(highestTrackableValue) + 1);
+  }
+
+  /**
+   * The constructor for a snapshot of a histogram.
+   */
+  private Histogram(Histogram shape, long[] counts, long totalValue, long minValue,
+                    long maxValue) {
+    this.highestTrackableValue = shape.highestTrackableValue;
+    this.significantBits = shape.significantBits;
+    this.subBucketCount = shape.subBucketCount;
+    this.subBucketHalfCount = shape.subBucketHalfCount;
+    this.counts = new AtomicLongArray(counts);
+    this.totalValue.set(totalValue);
+    this.minValue.set(minValue);
+    this.maxValue.set(maxValue);
+  }
+
+  /**
+   * This method is used to record a value. It can be called from any thread.
+   *
+   * @param value the value, not negative.
+   * @throws IllegalArgumentException if the value is negative.
+   */
+  public void record(long value) throws IllegalArgumentException {
+    if (value < 0) {
+      throw new IllegalArgumentException("Value cannot be negative.");
+    }
+    this.counts.getAndIncrement(bucketIndex(Math.min(value, this.highestTrackableValue)));
+    this.totalValue.addAndGet(value);
+    if (value < this.minValue.get()) {
+      this.minValue.accumulateAndGet(value, Math::min);
+    }
+    if (value > this.maxValue.get()) {
+      this.maxValue.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  /**
+   * This method is used to add everything another histogram recorded to this one.
+   *
+   * @param other the histogram to add, of the same shape.
+   * @throws IllegalArgumentException if the histograms do not have the same
+   *                                  highest trackable value and significant bits.
+   */
+  public void add(Histogram other) throws IllegalArgumentException {
+    if (other.highestTrackableValue != this.highestTrackableValue
+        || other.significantBits != this.significantBits) {
+      throw new IllegalArgumentException("Histograms should have the same shape.");
+    }
+    Histogram added = other.snapshot();
+    if (added.getCount() == 0) {
+      return;
+    }
+    for (int i = 0; i < this.counts.length(); i++) {
+      long count = added.counts.get(i);
+      if (count != 0) {
+        this.counts.addAndGet(i, count);
+      }
+    }
+    this.totalValue.addAndGet(added.totalValue.get());
+    this.minValue.accumulateAndGet(added.minValue.get(), Math::min);
+    this.maxValue.accumulateAndGet(added.maxValue.get(), Math::max);
+  }
+
+  /**
+   * This method is used to take a copy of everything recorded so far, which does not change.
+   *
+   * @return the snapshot.
+   */
+  public Histogram snapshot() {
+    long[] copy = new long[this.counts.length()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = this.counts.get(i);
+    }
+    return new Histogram(this, copy, this.totalValue.get(), this.minValue.get(),
+        this.maxValue.get());
+  }
+
+  /**
+   * This method is used to take a copy of what was recorded since the last interval snapshot,
+   * or since the histogram was made for the first one. Readers taking interval snapshots
+   * wait for each other, the writers do not wait for them.
+   *
+   * @return the snapshot of the interval.
+   */
+  public synchronized Histogram intervalSnapshot() {
+    if (this.intervalCounts == null) {
+      this.intervalCounts = new long[this.counts.length()];
+    }
+    long total = this.totalValue.get();
+    long[] interval = new long[this.counts.length()];
+    int lowest = -1;
+    int highest = -1;
+    for (int i = 0; i < interval.length; i++) {
+      long count = this.counts.get(i);
+      interval[i] = count - this.intervalCounts[i];
+      this.intervalCounts[i] = count;
+      if (interval[i] != 0) {
+        lowest = lowest < 0 ? i : lowest;
+        highest = i;
+      }
+    }
+    long totalValue = total - this.intervalTotalValue;
+    this.intervalTotalValue = total;
+    if (lowest < 0) {
+      return new Histogram(this, interval, 0, Long.MAX_VALUE, 0);
+    }
+    //the interval only knows its smallest and largest values to within a bucket
+    return new Histogram(this, interval, totalValue, lowestValueAt(lowest),
+        Math.min(highestValueAt(highest), this.maxValue.get()));
+  }
+
+  /**
+   * This method is used to get the number of values recorded.
+   *
+   * @return the number of values.
+   */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < this.counts.length(); i++) {
+      count += this.counts.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * This method is used to get the average of the values recorded.
+   *
+   * @return the average, 0 if nothing was recorded.
+   */
+  public double getMean() {
+    long count = getCount();
+    return count == 0 ? 0 : (double) this.totalValue.get() / count;
+  }
+
+  /**
+   * This method is used to get the smallest value recorded.
+   *
+   * @return the smallest value, 0 if nothing was recorded.
+   */
+  public long getMin() {
+    long min = this.minValue.get();
+    return min == Long.MAX_VALUE ? 0 : min;
+  }
+
+  /**
+   * This method is used to get the largest value recorded.
+   *
+   * @return the largest value, 0 if nothing was recorded.
+   */
+  public long getMax() {
+    return this.maxValue.get();
+  }
+
+  /**
+   * This method is used to get the value that a percentage of the values recorded are at most,
+   * to within the precision of the histogram. It is the highest value of the bucket
+   * the percentile falls in, and never more than the largest value recorded.
+   *
+   * @param percentile the percentage, from 0 to 100.
+   * @return the value at the percentile, 0 if nothing was recorded.
+   * @throws IllegalArgumentException if the percentage is out of range.
+   */
+  public long getValueAtPercentile(double percentile) throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile should be between 0 and 100.");
+    }
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+    //rounded like HdrHistogram, so 99.9 of 1000 values is the 999th and not the 1000th
+    long rank = Math.max(1, Math.round(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < this.counts.length(); i++) {
+      seen += this.counts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValueAt(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * This method is used to get the highest value that is told apart from higher ones.
+   *
+   * @return the highest trackable value.
+   */
+  public long getHighestTrackableValue() {
+    return this.highestTrackableValue;
+  }
+
+  /**
+   * This method is used to get the number of bits of a value that are kept.
+   *
+   * @return the significant bits.
+   */
+  public int getSignificantBits() {
+    return this.significantBits;
+  }
+
+  /**
+   * Get the index of the bucket of a value: the value itself below the sub-bucket count,
+   * then half a sub-bucket count of buckets for every power of two.
+   */
+  int bucketIndex(long value) {
+    if (value < this.subBucketCount) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - this.significantBits + 1;
+    int mantissa = (int) (value >>> shift);
+    return this.subBucketCount + (shift - 1) * this.subBucketHalfCount
+        + mantissa - this.subBucketHalfCount;
+  }
+
+  /**
+   * Get the lowest value counted in a bucket.
+   */
+  long lowestValueAt(int index) {
+    if (index < this.subBucketCount) {
+      return index;
+    }
+    int above = index - this.subBucketCount;
+    int shift = above / this.subBucketHalfCount + 1;
+    long mantissa = this.subBucketHalfCount + above % this.subBucketHalfCount;
+    return mantissa << shift;
+  }
+
+  /**
+   * Get the highest value counted in a bucket.
+   */
+  long highestValueAt(int index) {
+    if (index < this.subBucketCount) {
+      return index;
+    }
+    int shift = (index - this.subBucketCount) / this.subBucketHalfCount + 1;
+    return lowestValueAt(index) + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Count: %d, Mean: %.1f, Max: %d, P50: %d, P90: %d, P99: %d, P99.9: %d",
+        getCount(), getMean(), getMax(), getValueAtPercentile(50), getValueAtPercentile(90),
+        getValueAtPercentile(99), getValueAtPercentile(99.9));
+  }
+}
@@ -0,0 +1,91 @@
+package scanerzus;
+
+
+/**
+ * This class packs a request into a single long, so that queues of waiting requests
+ * can keep them in arrays of longs instead of holding a Request object for each.
+ * The start floor is kept in the top 16 bits, the end floor in the next 16 bits
+ * and the low 32 bits of the tick the request arrived at in the bottom 32 bits.
+ * Request objects are only made again when someone asks for them.
+ */
+public final class PackedRequest {
+
+  /**
+   * The highest floor a packed request can hold.
+   */
+  public static final int MAX_FLOOR = 0xFFFF;
+
+  private static final int START_SHIFT = 48;
+  private static final int END_SHIFT = 32;
+  private static final long TICK_MASK = 0xFFFFFFFFL;
+
+  private PackedRequest() {
+  }
+
+  /**
+   * Pack a request.
+   *
+   * @param startFloor  the start floor, between 0 and MAX_FLOOR.
+   * @param endFloor    the end floor, between 0 and MAX_FLOOR.
+   * @param arrivalTick the tick the request arrived at, only the low 32 bits are kept.
+   * @return the packed request.
+   */
+  public static long pack(int startFloor, int endFloor, long arrivalTick) {
+    return ((long) startFloor << START_SHIFT) | ((long) endFloor << END_SHIFT)
+        | (arrivalTick & TICK_MASK);
+  }
+
+  /**
+   * Pack a request object.
+   *
+   * @param request     the request, with floors between 0 and MAX_FLOOR.
+   * @param arrivalTick the tick the request arrived at, only the low 32 bits are kept.
+   * @return the packed request.
+   */
+  public static long pack(Request request, long arrivalTick) {
+    return pack(request.getStartFloor(), request.getEndFloor(), arrivalTick);
+  }
+
+  /**
+   * Get the start floor of a packed request.
+   *
+   * @param packed the packed request.
+   * @return the start floor.
+   */
+  public static int startFloor(long packed) {
+    return (int) (packed >>> START_SHIFT);
+  }
+
+  /**
+   * Get the end floor of a packed request.
+   *
+   * @param packed the packed request.
+   * @return the end floor.
+   */
+  public static int endFloor(long packed) {
+    return (int) (packed >>> END_SHIFT) & MAX_FLOOR;
+  }
+
+  /**
+   * Get the tick a packed request arrived at.
+   * Only the low 32 bits of the tick are kept, so the full tick is rebuilt as the latest tick
+   * with those bits that is not after now. This is exact for requests younger than 2^32 ticks.
+   *
+   * @param packed the packed request.
+   * @param now    the current tick.
+   * @return the tick the request arrived at.
+   */
+  public static long arrivalTick(long packed, long now) {
+    return now - ((now - packed) & TICK_MASK);
+  }
+
+  /**
+   * Get a request object for a packed request, see Request.of.
+   *
+   * @param packed the packed request.
+   * @return a request with the same floors.
+   */
+  public static Request toRequest(long packed) {
+    return Request.of(startFloor(packed), endFloor(packed));
+  }
+}
@@ -27,6 +27,19 @@ public class Request implements RequestInterface {
     this.endFloor = endFloor;
   }
 
+  /**
+   * Get the request for a pair of floors.
+   * For floors below 64 the same instance is returned every time,
+   * other floors get a new request. See RequestCache for taller buildings.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @return the request.
+   */
+  public static Request of(int startFloor, int endFloor) {
+    return RequestCache.SHARED.get(startFloor, endFloor);
+  }
+
   /**
    * Gets the start floor of the request.
    *
@@ -55,6 +68,34 @@ public class Request implements RequestInterface {
   public String toString() {
     return startFloor + "->" + endFloor;
   }
+
+  /**
+   * Two requests are equal if they have the same start floor and end floor.
+   *
+   * @param o the object to compare to.
+   * @return true if the object is a request between the same floors.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Request)) {
+      return false;
+    }
+    Request that = (Request) o;
+    return this.startFloor == that.startFloor && this.endFloor == that.endFloor;
+  }
+
+  /**
+   * The hash code of the request, from its floors.
+   *
+   * @return the hash code.
+   */
+  @Override
+  public int hashCode() {
+    return 31 * this.startFloor + this.endFloor;
+  }
 }
 
 
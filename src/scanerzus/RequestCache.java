@@ -0,0 +1,70 @@
+package scanerzus;
+
+
+/**
+ * This class is a table of one request for every pair of floors of a building.
+ * Requests are immutable and there are only floors x floors of them,
+ * so the same instance can be handed out every time instead of making a new one.
+ * The table is filled when the cache is made. Floors beyond the table,
+ * including invalid ones, still get a new request so they can be checked as usual.
+ */
+public class RequestCache {
+
+  /**
+   * The most floors a table is made for, to keep the table of a tall building small.
+   */
+  public static final int MAX_CACHED_FLOORS = 256;
+
+  /**
+   * The table behind Request.of, big enough for any building of the default limits.
+   */
+  public static final RequestCache SHARED = new RequestCache(64);
+
+  private final int cachedFloors;
+  private final Request[] table;
+
+
+  /**
+   * The constructor for the cache of a building.
+   *
+   * @param numberOfFloors the number of floors in the building.
+   * @throws IllegalArgumentException if the number of floors is negative.
+   */
+  public RequestCache(int numberOfFloors) {
+    if (numberOfFloors < 0) {
+      throw new IllegalArgumentException("Number of floors cannot be negative.");
+    }
+    this.cachedFloors = Math.min(numberOfFloors, MAX_CACHED_FLOORS);
+    this.table = new Request[this.cachedFloors * this.cachedFloors];
+    for (int start = 0; start < this.cachedFloors; start++) {
+      for (int end = 0; end < this.cachedFloors; end++) {
+        this.table[start * this.cachedFloors + end] = new Request(start, end);
+      }
+    }
+  }
+
+  /**
+   * Get the request for a pair of floors.
+   *
+   * @param startFloor the start floor.
+   * @param endFloor   the end floor.
+   * @return the request from the table, or a new request if the floors are not in the table.
+   */
+  public Request get(int startFloor, int endFloor) {
+    if (startFloor >= 0 && startFloor < this.cachedFloors
+        && endFloor >= 0 && endFloor < this.cachedFloors) {
+      return this.table[startFloor * this.cachedFloors + endFloor];
+    }
+    return new Request(startFloor, endFloor);
+  }
+
+  /**
+   * Get the request for a packed request, see PackedRequest.
+   *
+   * @param packed the packed request.
+   * @return the request with the same floors.
+   */
+  public Request get(long packed) {
+    return get(PackedRequest.startFloor(packed), PackedRequest.endFloor(packed));
+  }
+}
@@ -0,0 +1,81 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the AssignmentSolver class.
+ */
+public class AssignmentSolverTest {
+
+  /**
+   * Test a small problem whose best assignment is not the greedy one.
+   */
+  @Test
+  public void testBeatsGreedy() {
+    //greedy gives row 0 column 0 for 1, then row 1 must take column 1 for 10
+    long[] cost = {
+        1, 2,
+        2, 10};
+    int[] into = new int[2];
+    assertEquals(4, new AssignmentSolver().solve(cost, 2, 2, into));
+    assertEquals(1, into[0]);
+    assertEquals(0, into[1]);
+  }
+
+  /**
+   * Test that the solver finds the lowest total cost of random problems,
+   * giving every row its own column, checked against trying every assignment.
+   */
+  @Test
+  public void testSameAsTryingEveryAssignment() {
+    Random random = new Random(5);
+    AssignmentSolver solver = new AssignmentSolver();
+    for (int round = 0; round < 500; round++) {
+      int rows = 1 + random.nextInt(5);
+      int columns = rows + random.nextInt(4);
+      long[] cost = new long[rows * columns];
+      for (int i = 0; i < cost.length; i++) {
+        cost[i] = random.nextInt(50);
+      }
+      int[] into = new int[rows];
+      long total = solver.solve(cost, rows, columns, into);
+      assertEquals(lowestTotal(cost, rows, columns, 0, new boolean[columns]), total);
+      boolean[] used = new boolean[columns];
+      long sum = 0;
+      for (int row = 0; row < rows; row++) {
+        assertFalse(used[into[row]]);
+        used[into[row]] = true;
+        sum += cost[row * columns + into[row]];
+      }
+      assertEquals(total, sum);
+    }
+  }
+
+  /**
+   * Test that a problem with more rows than columns throws an exception.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoreRowsThanColumns() {
+    new AssignmentSolver().solve(new long[2], 2, 1, new int[2]);
+  }
+
+  private static long lowestTotal(long[] cost, int rows, int columns, int row, boolean[] used) {
+    if (row == rows) {
+      return 0;
+    }
+    long lowest = Long.MAX_VALUE;
+    for (int column = 0; column < columns; column++) {
+      if (!used[column]) {
+        used[column] = true;
+        lowest = Math.min(lowest, cost[row * columns + column]
+            + lowestTotal(cost, rows, columns, row + 1, used));
+        used[column] = false;
+      }
+    }
+    return lowest;
+  }
+}
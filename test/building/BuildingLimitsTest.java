@@ -0,0 +1,55 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the BuildingLimits class.
+ */
+public class BuildingLimitsTest {
+
+  /**
+   * Test that the default limits are the ones the simulation was written for.
+   */
+  @Test
+  public void testDefault() {
+    assertEquals(30, BuildingLimits.DEFAULT.getMaxFloors());
+    assertEquals(10, BuildingLimits.DEFAULT.getMaxElevators());
+    assertEquals(20, BuildingLimits.DEFAULT.getMaxCapacity());
+    assertEquals("Limits[floors 30, elevators 10, capacity 20]",
+        BuildingLimits.DEFAULT.toString());
+  }
+
+  /**
+   * Test that a floor limit below the smallest building is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFloorLimitTooSmall() {
+    new BuildingLimits(2, 10, 20);
+  }
+
+  /**
+   * Test that a floor limit larger than a packed request can hold is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFloorLimitTooLarge() {
+    new BuildingLimits(BuildingLimits.MAX_SUPPORTED_FLOORS + 1, 10, 20);
+  }
+
+  /**
+   * Test that an elevator limit the simulation cannot support is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testElevatorLimitTooLarge() {
+    new BuildingLimits(30, BuildingLimits.MAX_SUPPORTED_ELEVATORS + 1, 20);
+  }
+
+  /**
+   * Test that a capacity limit below the smallest elevator is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityLimitTooSmall() {
+    new BuildingLimits(30, 10, 2);
+  }
+}
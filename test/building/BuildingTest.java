@@ -1,12 +1,36 @@
 package building;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import building.enums.Direction;
+import building.enums.DispatchPolicy;
+import building.enums.DwellPolicy;
 import building.enums.ElevatorSystemStatus;
+import building.enums.RequestRejection;
+import building.enums.SimulationEngine;
+import building.enums.StepPhase;
+import building.enums.TravelMode;
 import elevator.ElevatorReport;
+import elevator.SpeedProfile;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import metrics.Histogram;
 import org.junit.Before;
 import org.junit.Test;
 import scanerzus.Request;
@@ -791,4 +815,1465 @@ public class BuildingTest {
 
   }
 
-}
\ No newline at end of file
+  /**
+   * Test that a building using the fleet state engine produces the same reports
+   * as a building using elevator objects, under the same random traffic.
+   * The elevator ids differ between the two buildings, so they are left out of the comparison.
+   */
+  @Test
+  public void testFleetStateEngineSameReports() {
+    Building objects = new Building(12, 4, 5, SimulationEngine.ELEVATOR_OBJECTS);
+    Building fleet = new Building(12, 4, 5, SimulationEngine.FLEET_STATE);
+    Random random = new Random(7);
+    for (int tick = 0; tick < 3000; tick++) {
+      if (tick % 1000 == 0) {
+        objects.startElevatorSystem();
+        fleet.startElevatorSystem();
+      }
+      if (tick % 1000 == 800) {
+        objects.stopElevatorSystem();
+        fleet.stopElevatorSystem();
+      }
+      if (objects.getBuildingReport().getSystemStatus() == ElevatorSystemStatus.running
+          && random.nextInt(2) == 0) {
+        int start = random.nextInt(12);
+        int end = (start + 1 + random.nextInt(11)) % 12;
+        objects.addRequests(new Request(start, end));
+        fleet.addRequests(new Request(start, end));
+      }
+      objects.step();
+      fleet.step();
+      assertEquals(withoutElevatorIds(objects.getBuildingReport().toString()),
+          withoutElevatorIds(fleet.getBuildingReport().toString()));
+    }
+  }
+
+  private static String withoutElevatorIds(String report) {
+    return report.replaceAll("elevator\\d+: ", "elevator: ");
+  }
+
+  /**
+   * Test that advancing the building to a tick gives the same reports as stepping it,
+   * with bursts of requests arriving in between, for both simulation engines.
+   */
+  @Test
+  public void testAdvanceToSameAsStepping() {
+    for (SimulationEngine engine : SimulationEngine.values()) {
+      Building stepped = new Building(12, 4, 5, engine);
+      Building advanced = new Building(12, 4, 5, engine);
+      Random random = new Random(11);
+      stepped.startElevatorSystem();
+      advanced.startElevatorSystem();
+      for (int round = 0; round < 400; round++) {
+        int burst = random.nextInt(4) == 0 ? random.nextInt(30) : 0;
+        for (int i = 0; i < burst; i++) {
+          int start = random.nextInt(12);
+          int end = (start + 1 + random.nextInt(11)) % 12;
+          stepped.addRequests(new Request(start, end));
+          advanced.addRequests(new Request(start, end));
+        }
+        long target = stepped.getTick() + random.nextInt(80);
+        while (stepped.getTick() < target) {
+          stepped.step();
+        }
+        advanced.advanceTo(target);
+        assertEquals(target, advanced.getTick());
+        assertEquals(withoutElevatorIds(stepped.getBuildingReport().toString()),
+            withoutElevatorIds(advanced.getBuildingReport().toString()));
+      }
+    }
+  }
+
+  /**
+   * Test that an idle building can be advanced a very long way in one call.
+   */
+  @Test
+  public void testAdvanceToFarAhead() {
+    this.building1.startElevatorSystem();
+    this.building1.advanceTo(1_000_000_000_000L);
+    assertEquals(1_000_000_000_000L, this.building1.getTick());
+    this.building1.addRequests(new Request(1, 5));
+    this.building1.advanceTo(1_000_000_000_100L);
+    assertEquals(0, this.building1.getBuildingReport().getUpRequests().size());
+  }
+
+  /**
+   * Test that a building that has already run further than the event queue can hold
+   * is still advanced the same as it is stepped.
+   */
+  @Test
+  public void testAdvanceToSameAsSteppingFarAhead() {
+    long base = 1L << 44;
+    Building stepped = new Building(10, 3, 3);
+    Building advanced = new Building(10, 3, 3);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    stepped.advanceTo(base);
+    advanced.advanceTo(base);
+    for (int start = 0; start < 9; start++) {
+      stepped.addRequests(new Request(start, 9));
+      advanced.addRequests(new Request(start, 9));
+      stepped.addRequests(new Request(9 - start, 0));
+      advanced.addRequests(new Request(9 - start, 0));
+    }
+    for (int i = 0; i < 500; i++) {
+      stepped.step();
+    }
+    advanced.advanceTo(base + 500);
+    assertEquals(base + 500, advanced.getTick());
+    assertEquals(withoutElevatorIds(stepped.getBuildingReport().toString()),
+        withoutElevatorIds(advanced.getBuildingReport().toString()));
+  }
+
+  /**
+   * Test that the building cannot be advanced to a tick that has passed.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAdvanceToThePast() {
+    this.building1.step();
+    this.building1.advanceTo(0);
+  }
+
+  /**
+   * Test that stepping the building many times in one call gives the same reports
+   * as stepping it one step at a time, while it is started, stopped and started again.
+   */
+  @Test
+  public void testStepManySameAsStepping() {
+    for (SimulationEngine engine : SimulationEngine.values()) {
+      Building stepped = new Building(15, 3, 4, engine);
+      Building jumped = new Building(15, 3, 4, engine);
+      Random random = new Random(5);
+      for (int round = 0; round < 600; round++) {
+        ElevatorSystemStatus status = stepped.getBuildingReport().getSystemStatus();
+        if (status == ElevatorSystemStatus.outOfService && random.nextInt(3) == 0) {
+          stepped.startElevatorSystem();
+          jumped.startElevatorSystem();
+        } else if (status == ElevatorSystemStatus.running && random.nextInt(20) == 0) {
+          stepped.stopElevatorSystem();
+          jumped.stopElevatorSystem();
+        } else if (status == ElevatorSystemStatus.running) {
+          for (int i = random.nextInt(10); i > 0; i--) {
+            int start = random.nextInt(15);
+            int end = (start + 1 + random.nextInt(14)) % 15;
+            stepped.addRequests(new Request(start, end));
+            jumped.addRequests(new Request(start, end));
+          }
+        }
+        int n = random.nextInt(50);
+        for (int i = 0; i < n; i++) {
+          stepped.step();
+        }
+        jumped.step(n);
+        assertEquals(stepped.getTick(), jumped.getTick());
+        assertEquals(withoutElevatorIds(stepped.getBuildingReport().toString()),
+            withoutElevatorIds(jumped.getBuildingReport().toString()));
+      }
+    }
+  }
+
+  /**
+   * Test that the building cannot take a negative number of steps.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testStepManyNegative() {
+    this.building1.step(-1);
+  }
+
+  /**
+   * Test that the building cannot take so many steps that its tick would overflow,
+   * and that it is left where it was.
+   */
+  @Test
+  public void testStepManyPastLastTick() {
+    this.building1.step(5);
+    try {
+      this.building1.step(Long.MAX_VALUE);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Number of steps would run the tick past " + Long.MAX_VALUE + ".",
+          e.getMessage());
+    }
+    assertEquals(5, this.building1.getTick());
+  }
+
+  /**
+   * Test that stepping the elevators in parallel gives the same reports as stepping them in turn,
+   * for both simulation engines.
+   */
+  @Test
+  public void testParallelSteppingSameAsSequential() {
+    for (SimulationEngine engine : SimulationEngine.values()) {
+      Building sequential = new Building(20, 10, 6, engine);
+      Building parallel = new Building(20, 10, 6, engine);
+      parallel.setParallelStepping(true);
+      parallel.setParallelThreshold(2);
+      assertTrue(parallel.isParallelStepping());
+      assertFalse(sequential.isParallelStepping());
+      Random random = new Random(13);
+      sequential.startElevatorSystem();
+      parallel.startElevatorSystem();
+      for (int tick = 0; tick < 2000; tick++) {
+        if (tick == 1500) {
+          sequential.stopElevatorSystem();
+          parallel.stopElevatorSystem();
+        }
+        if (tick < 1500 && random.nextInt(2) == 0) {
+          int start = random.nextInt(20);
+          int end = (start + 1 + random.nextInt(19)) % 20;
+          sequential.addRequests(new Request(start, end));
+          parallel.addRequests(new Request(start, end));
+        }
+        sequential.step();
+        parallel.step();
+        assertEquals(withoutElevatorIds(sequential.getBuildingReport().toString()),
+            withoutElevatorIds(parallel.getBuildingReport().toString()));
+      }
+    }
+  }
+
+  /**
+   * Test that the parallel threshold must be at least one elevator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelThresholdTooSmall() {
+    this.building1.setParallelThreshold(0);
+  }
+
+  /**
+   * Test that a building larger than the default limits is rejected without a larger profile.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorBeyondDefaultLimits() {
+    new Building(31, 2, 3, SimulationEngine.FLEET_STATE);
+  }
+
+  /**
+   * Test that a building is checked against the limits it is built with.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorBeyondCustomLimits() {
+    new Building(100, 11, 3, SimulationEngine.FLEET_STATE, new BuildingLimits(100, 10, 20));
+  }
+
+  /**
+   * Test that a 500 floor, 200 elevator building runs the same with both engines,
+   * delivers its requests and drains back to the ground floor when stopped.
+   */
+  @Test
+  public void testScalingToLargeBuilding() {
+    BuildingLimits limits = new BuildingLimits(500, 200, 40);
+    Building objects = new Building(500, 200, 40, SimulationEngine.ELEVATOR_OBJECTS, limits);
+    Building fleet = new Building(500, 200, 40, SimulationEngine.FLEET_STATE, limits);
+    assertEquals(limits, fleet.getLimits());
+    Random random = new Random(500);
+    objects.startElevatorSystem();
+    fleet.startElevatorSystem();
+    int highest = 0;
+    for (int tick = 0; tick < 3000; tick++) {
+      if (tick == 2000) {
+        objects.stopElevatorSystem();
+        fleet.stopElevatorSystem();
+      }
+      if (tick < 2000) {
+        for (int i = 0; i < 5; i++) {
+          int start = random.nextInt(500);
+          int end = (start + 1 + random.nextInt(499)) % 500;
+          objects.addRequests(new Request(start, end));
+          fleet.addRequests(new Request(start, end));
+        }
+      }
+      objects.step();
+      fleet.step();
+      for (ElevatorReport report : fleet.getBuildingReport().getElevatorReports()) {
+        highest = Math.max(highest, report.getCurrentFloor());
+      }
+      if (tick % 100 == 0) {
+        assertEquals(withoutElevatorIds(objects.getBuildingReport().toString()),
+            withoutElevatorIds(fleet.getBuildingReport().toString()));
+      }
+    }
+    assertEquals(499, highest);
+    assertEquals(ElevatorSystemStatus.outOfService, fleet.getBuildingReport().getSystemStatus());
+    assertEquals(ElevatorSystemStatus.outOfService,
+        objects.getBuildingReport().getSystemStatus());
+  }
+
+  /**
+   * Test that a submitted request is checked straight away
+   * and joins the requests of the building on the next step.
+   */
+  @Test
+  public void testSubmitRequestTakenOnNextStep() {
+    this.building1.startElevatorSystem();
+    this.building1.submitRequest(new Request(5, 2));
+    assertEquals(0, this.building1.getBuildingReport().getDownRequests().size());
+    this.building1.step();
+    assertEquals("[5->2]", this.building1.getBuildingReport().getDownRequests().toString());
+  }
+
+  /**
+   * Test that a request cannot be submitted to a building that is not running.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testSubmitRequestNotRunning() {
+    this.building1.submitRequest(new Request(5, 2));
+  }
+
+  /**
+   * Test that a submitted request out of range is rejected when it is submitted.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSubmitRequestOutOfRange() {
+    this.building1.startElevatorSystem();
+    this.building1.submitRequest(new Request(5, 10));
+  }
+
+  /**
+   * Test that submitted requests not yet taken are dropped when the building stops.
+   */
+  @Test
+  public void testSubmitRequestDroppedWhenStopped() {
+    this.building1.startElevatorSystem();
+    this.building1.submitRequest(new Request(5, 2));
+    this.building1.stopElevatorSystem();
+    this.building1.step();
+    assertEquals(0, this.building1.getBuildingReport().getDownRequests().size());
+    assertEquals(0, this.building1.getBuildingReport().getUpRequests().size());
+  }
+
+  /**
+   * Test that requests submitted from many threads while the building is being stepped
+   * are all taken by the building.
+   */
+  @Test
+  public void testSubmitRequestFromManyThreads() throws InterruptedException {
+    Building building = new Building(30, 10, 20);
+    building.startElevatorSystem();
+    final int producers = 8;
+    final int perProducer = 5000;
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      threads[p] = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          //down requests from the middle are only taken at the top floor
+          building.submitRequest(new Request(15, 14));
+        }
+      });
+      threads[p].start();
+    }
+    //the elevators leave the ground floor after their wait and do not reach the top for a while
+    for (int i = 0; i < 10; i++) {
+      building.step();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    building.step();
+    assertEquals(producers * perProducer,
+        building.getBuildingReport().getDownRequests().size());
+  }
+
+  /**
+   * Test that a batch of requests adds the valid ones in order and reports the others.
+   */
+  @Test
+  public void testAddRequestsBatch() {
+    this.building1.startElevatorSystem();
+    List<Request> batch = Arrays.asList(new Request(5, 2), new Request(3, 3),
+        new Request(4, 8), null, new Request(9, 10), new Request(7, 1));
+    RequestBatchReport report = this.building1.addRequests(batch);
+    assertEquals(3, report.getAcceptedCount());
+    assertEquals(3, report.getRejectedCount());
+    assertArrayEquals(new int[] {1, 3, 4}, report.getRejectedIndices());
+    assertArrayEquals(new RequestRejection[] {RequestRejection.SAME_FLOOR,
+        RequestRejection.MISSING, RequestRejection.OUT_OF_RANGE}, report.getRejectionReasons());
+    assertEquals("Accepted: 3, Rejected: 3 [1: Start floor and end floor cannot be the same., "
+        + "3: Request is missing., 4: Requests out of range.]", report.toString());
+    assertEquals("[4->8]", this.building1.getBuildingReport().getUpRequests().toString());
+    assertEquals("[5->2, 7->1]",
+        this.building1.getBuildingReport().getDownRequests().toString());
+  }
+
+  /**
+   * Test that a missing request on its own is rejected with the message of its batch reason.
+   */
+  @Test
+  public void testAddRequestMissing() {
+    this.building1.startElevatorSystem();
+    try {
+      this.building1.addRequests((Request) null);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals(RequestRejection.MISSING.toString(), e.getMessage());
+    }
+    try {
+      this.building1.submitRequest(null);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals(RequestRejection.MISSING.toString(), e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a batch given as floors adds the same requests as adding them one at a time.
+   */
+  @Test
+  public void testAddRequestsBatchOfFloors() {
+    Building batched = new Building(30, 2, 3);
+    Building single = new Building(30, 2, 3);
+    batched.startElevatorSystem();
+    single.startElevatorSystem();
+    Random random = new Random(9);
+    int[] startFloors = new int[1000];
+    int[] endFloors = new int[1000];
+    int rejected = 0;
+    for (int i = 0; i < 1000; i++) {
+      startFloors[i] = random.nextInt(32) - 1;
+      endFloors[i] = random.nextInt(32) - 1;
+      try {
+        single.addRequests(new Request(startFloors[i], endFloors[i]));
+      } catch (IllegalArgumentException e) {
+        rejected++;
+      }
+    }
+    RequestBatchReport report = batched.addRequests(startFloors, endFloors);
+    assertEquals(rejected, report.getRejectedCount());
+    assertEquals(1000 - rejected, report.getAcceptedCount());
+    assertEquals(single.getBuildingReport().getUpRequests().toString(),
+        batched.getBuildingReport().getUpRequests().toString());
+    assertEquals(single.getBuildingReport().getDownRequests().toString(),
+        batched.getBuildingReport().getDownRequests().toString());
+  }
+
+  /**
+   * Test that a batch of floors needs one end floor for every start floor.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddRequestsBatchLengthsDiffer() {
+    this.building1.startElevatorSystem();
+    this.building1.addRequests(new int[] {1, 2}, new int[] {3});
+  }
+
+  /**
+   * Test that a batch cannot be added to a building that is not running.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testAddRequestsBatchNotRunning() {
+    this.building1.addRequests(Arrays.asList(new Request(1, 2)));
+  }
+
+  /**
+   * Step a building until its first elevator is moving up between the bottom and top floor.
+   */
+  private static void stepUntilMovingUp(Building building, int floor) {
+    while (building.getBuildingReport().getElevatorReports()[0].getCurrentFloor() != floor) {
+      building.step();
+    }
+  }
+
+  /**
+   * Test that under collective control an elevator on its way up picks up the requests ahead,
+   * but only as many as it has room for.
+   */
+  @Test
+  public void testCollectivePicksUpOnTheWay() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatchPolicy(DispatchPolicy.COLLECTIVE);
+    assertTrue(building.getDispatchStrategy() instanceof CollectiveDispatch);
+    building.startElevatorSystem();
+    stepUntilMovingUp(building, 2);
+    building.addRequests(new Request(1, 4));
+    for (int start = 3; start < 8; start++) {
+      building.addRequests(new Request(start, 8));
+    }
+    building.step();
+    ElevatorReport elevator = building.getBuildingReport().getElevatorReports()[0];
+    //the request behind stays, three of the five ahead fit
+    assertEquals("[1->4, 6->8, 7->8]",
+        building.getBuildingReport().getUpRequests().toString());
+    assertTrue(elevator.isFloorRequested(3));
+    assertTrue(elevator.isFloorRequested(4));
+    assertTrue(elevator.isFloorRequested(5));
+    assertTrue(elevator.isFloorRequested(8));
+    assertFalse(elevator.isFloorRequested(6));
+  }
+
+  /**
+   * Test that riders getting off make room for new ones on the same run.
+   */
+  @Test
+  public void testCollectiveRoomAfterRidersGetOff() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatchPolicy(DispatchPolicy.COLLECTIVE);
+    building.startElevatorSystem();
+    stepUntilMovingUp(building, 2);
+    for (int i = 0; i < 3; i++) {
+      building.addRequests(new Request(3, 5));
+    }
+    building.addRequests(new Request(5, 9));
+    building.addRequests(new Request(4, 9));
+    //at most a full elevator of requests is picked up on each step
+    building.step();
+    assertEquals("[5->9, 4->9]", building.getBuildingReport().getUpRequests().toString());
+    building.step();
+    //the riders from 3 get off at 5, so the one from 5 fits and the one from 4 does not
+    assertEquals("[4->9]", building.getBuildingReport().getUpRequests().toString());
+  }
+
+  /**
+   * Test that the dispatch policy can only be changed while the building is out of service.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testDispatchPolicyWhileRunning() {
+    this.building1.startElevatorSystem();
+    this.building1.setDispatchPolicy(DispatchPolicy.COLLECTIVE);
+  }
+
+  /**
+   * Test that the wait of a rider is measured from its request to the door opening for it.
+   */
+  @Test
+  public void testRecordingWaitTimes() {
+    Building building = new Building(10, 1, 3);
+    building.setRecordingWaitTimes(true);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 5));
+    building.addRequests(new Request(2, 5));
+    for (int i = 0; i < 10; i++) {
+      building.step();
+    }
+    //the door opens at 0 on the first step and at 2 after 3 steps open and 2 moves
+    assertEquals(2, building.getBoardedCount());
+    assertEquals(7, building.getLongestWaitTicks());
+    assertEquals(4, building.getAverageWaitTicks(), 1e-9);
+    building.setRecordingWaitTimes(false);
+    assertEquals(0, building.getBoardedCount());
+  }
+
+  /**
+   * Test that the ride of a rider is measured from the door opening at its start floor
+   * to the door opening at its end floor.
+   */
+  @Test
+  public void testRecordingRideTimes() {
+    Building building = new Building(10, 1, 3);
+    building.setRecordingWaitTimes(true);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 5));
+    building.addRequests(new Request(2, 5));
+    for (int i = 0; i < 13; i++) {
+      building.step();
+    }
+    assertEquals(0, building.getAverageRideTicks(), 1e-9);
+    building.step();
+    //on board from 1 and 7 to 14
+    assertEquals(10, building.getAverageRideTicks(), 1e-9);
+    building.setRecordingWaitTimes(false);
+    assertEquals(0, building.getAverageRideTicks(), 1e-9);
+  }
+
+  /**
+   * Test that the waits and rides measured one by one add up to the averages,
+   * and that their percentiles are in order.
+   */
+  @Test
+  public void testLatencyPercentiles() {
+    Building building = new Building(20, 3, 5);
+    assertEquals(0, building.getWaitLatency().getCount());
+    building.setRecordingWaitTimes(true);
+    building.startElevatorSystem();
+    Random random = new Random(17);
+    for (int tick = 0; tick < 3000; tick++) {
+      if (random.nextInt(3) == 0) {
+        int start = random.nextInt(20);
+        building.addRequests(new Request(start, (start + 1 + random.nextInt(19)) % 20));
+      }
+      building.step();
+    }
+    LatencyStatistics wait = building.getWaitLatency();
+    assertEquals(building.getBoardedCount(), wait.getCount());
+    assertEquals(building.getAverageWaitTicks(), wait.getMean(), 1e-9);
+    assertEquals(building.getLongestWaitTicks(), wait.getMax());
+    assertTrue(wait.getP50() <= wait.getP90() && wait.getP90() <= wait.getP99()
+        && wait.getP99() <= wait.getP999() && wait.getP999() <= wait.getMax());
+    LatencyStatistics ride = building.getRideLatency();
+    assertTrue(ride.getCount() > 0);
+    assertEquals(building.getAverageRideTicks(), ride.getMean(), 1e-9);
+    assertTrue(ride.getP50() > 0 && ride.getP999() <= ride.getMax());
+  }
+
+  /**
+   * Test that the wall clock time of every step is measured while it is turned on,
+   * and that the histogram can be read while the building keeps running.
+   */
+  @Test
+  public void testRecordingStepTimes() {
+    this.building1.startElevatorSystem();
+    this.building1.step(10);
+    assertEquals(0, this.building1.getStepTimes().getCount());
+    this.building1.setRecordingStepTimes(true);
+    for (int i = 0; i < 100; i++) {
+      this.building1.step();
+    }
+    Histogram interval = this.building1.getStepTimes().intervalSnapshot();
+    for (int i = 0; i < 50; i++) {
+      this.building1.step();
+    }
+    assertEquals(100, interval.getCount());
+    assertEquals(150, this.building1.getStepTimes().getCount());
+    assertTrue(this.building1.getStepTimes().getValueAtPercentile(50) > 0);
+    this.building1.setRecordingStepTimes(false);
+    assertEquals(0, this.building1.getStepTimes().getCount());
+  }
+
+  /**
+   * Test that every phase is timed each time it runs while timing is on.
+   */
+  @Test
+  public void testTimingPhases() {
+    this.building1.setTimingPhases(true);
+    this.building1.startElevatorSystem();
+    this.building1.addRequests(new Request(0, 6));
+    for (int i = 0; i < 30; i++) {
+      this.building1.step();
+    }
+    this.building1.getBuildingReport();
+    this.building1.stopElevatorSystem();
+    int stopping = 0;
+    while (this.building1.getElevatorSystemStatus() != ElevatorSystemStatus.outOfService) {
+      this.building1.step();
+      stopping++;
+    }
+    PhaseTimes times = this.building1.getPhaseTimes();
+    assertEquals(30 + stopping, times.getCount(StepPhase.DRAIN));
+    assertEquals(30, times.getCount(StepPhase.DISPATCH));
+    assertEquals(30, times.getCount(StepPhase.TRACKING));
+    assertEquals(30 + stopping, times.getCount(StepPhase.STEP_ELEVATORS));
+    assertEquals(stopping, times.getCount(StepPhase.STOPPING_CHECK));
+    assertEquals(1, times.getCount(StepPhase.REPORT));
+    assertTrue(times.getTotalNanos() > 0);
+    assertTrue(times.toString().startsWith("Request drain: "));
+    this.building1.setTimingPhases(false);
+    assertEquals(0, this.building1.getPhaseTimes().getCount(StepPhase.DRAIN));
+  }
+
+  /**
+   * Test that a flight recording gets an event for every step, every batch handed out,
+   * and the door openings and turns of the elevators, under both engines.
+   */
+  @Test
+  public void testFlightRecorderEvents() throws IOException {
+    for (SimulationEngine engine : SimulationEngine.values()) {
+      Building building = new Building(10, 1, 5, engine);
+      building.startElevatorSystem();
+      building.addRequests(new Request(0, 6));
+      Path file = Files.createTempFile("building", ".jfr");
+      List<RecordedEvent> events;
+      try (Recording recording = new Recording()) {
+        recording.enable("elevator.BuildingStep");
+        recording.enable("elevator.Dispatch");
+        recording.enable("elevator.DoorOpen");
+        recording.enable("elevator.Reversal");
+        recording.start();
+        for (int i = 0; i < 30; i++) {
+          building.step();
+        }
+        recording.stop();
+        recording.dump(file);
+        events = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.delete(file);
+      }
+      int elevatorId = building.getBuildingReport().getElevatorReports()[0].getElevatorId();
+      int steps = 0;
+      List<Integer> doors = new ArrayList<>();
+      List<String> reversals = new ArrayList<>();
+      for (RecordedEvent event : events) {
+        switch (event.getEventType().getName()) {
+          case "elevator.BuildingStep":
+            steps++;
+            assertEquals(steps, event.getLong("tick"));
+            assertEquals(0, event.getInt("downRequests"));
+            break;
+          case "elevator.Dispatch":
+            assertEquals(1, event.getLong("tick"));
+            assertEquals(elevatorId, event.getInt("elevatorId"));
+            assertEquals(1, event.getInt("batchSize"));
+            assertEquals(0, event.getInt("floor"));
+            break;
+          case "elevator.DoorOpen":
+            assertEquals(elevatorId, event.getInt("elevatorId"));
+            doors.add(event.getInt("floor"));
+            break;
+          default:
+            reversals.add(event.getInt("floor") + " " + event.getString("direction"));
+        }
+      }
+      assertEquals(30, steps);
+      assertEquals(Arrays.asList(0, 6), doors);
+      assertEquals(Arrays.asList("9 UP"), reversals);
+    }
+  }
+
+  /**
+   * Test that the batches handed out while a building is advanced are recorded
+   * at the ticks they are handed out at when it is stepped.
+   */
+  @Test
+  public void testFlightRecorderDispatchTicksWhenAdvanced() throws IOException {
+    List<String> stepped = new ArrayList<>();
+    List<String> advanced = new ArrayList<>();
+    for (List<String> dispatches : Arrays.asList(stepped, advanced)) {
+      Building building = new Building(10, 2, 3);
+      building.startElevatorSystem();
+      for (int start = 1; start < 9; start++) {
+        building.addRequests(new Request(start, 9));
+        building.addRequests(new Request(9 - start, 0));
+      }
+      Path file = Files.createTempFile("building", ".jfr");
+      try (Recording recording = new Recording()) {
+        recording.enable("elevator.Dispatch");
+        recording.start();
+        if (dispatches == stepped) {
+          for (int i = 0; i < 200; i++) {
+            building.step();
+          }
+        } else {
+          building.advanceTo(200);
+        }
+        recording.stop();
+        recording.dump(file);
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+          if (!event.getEventType().getName().equals("elevator.Dispatch")) {
+            continue;
+          }
+          dispatches.add(event.getLong("tick") + " " + event.getInt("floor")
+              + " " + event.getInt("batchSize"));
+        }
+      } finally {
+        Files.delete(file);
+      }
+    }
+    assertTrue(stepped.size() > 2);
+    assertEquals(stepped, advanced);
+  }
+
+  /**
+   * Test that a registered building counts its steps, requests and busy elevators,
+   * and shows them to the platform MBean server.
+   */
+  @Test
+  public void testMBean() throws JMException {
+    Building building = new Building(10, 2, 5);
+    building.setRecordingWaitTimes(true);
+    ObjectName name = building.registerMBean("testMBean");
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      assertEquals("Out Of Service", server.getAttribute(name, "SystemStatus"));
+      try {
+        building.addRequests(new Request(0, 5));
+        fail("Expected an IllegalStateException");
+      } catch (IllegalStateException e) {
+        assertEquals(1L, server.getAttribute(name, "RequestsRejected"));
+      }
+      building.startElevatorSystem();
+      building.addRequests(new Request(0, 5));
+      building.submitRequest(new Request(3, 1));
+      building.addRequests(new int[] {0, 4, 2}, new int[] {2, 4, 11});
+      BuildingMonitorMBean monitor = building.getMonitor();
+      assertEquals(3, monitor.getRequestsAccepted());
+      assertEquals(3, monitor.getRequestsRejected());
+      assertEquals(2, monitor.getUpRequests());
+      assertEquals(0, monitor.getDownRequests());
+
+      building.step(40);
+      assertEquals(40L, server.getAttribute(name, "Ticks"));
+      assertEquals(3L, server.getAttribute(name, "RequestsCompleted"));
+      assertEquals(0, server.getAttribute(name, "UpRequests"));
+      assertTrue((Double) server.getAttribute(name, "TicksPerSecond") > 0);
+      double[] utilization = (double[]) server.getAttribute(name, "ElevatorUtilization");
+      assertEquals(2, utilization.length);
+      assertTrue(utilization[0] > 0 && utilization[0] < 1);
+      assertEquals("Running", monitor.getSystemStatus());
+      try {
+        building.registerMBean("again");
+        fail("Expected an IllegalStateException");
+      } catch (IllegalStateException e) {
+        assertTrue(e.getMessage().startsWith("Building is already registered"));
+      }
+    } finally {
+      building.unregisterMBean();
+    }
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    assertEquals(null, building.getMonitor());
+  }
+
+  /**
+   * Test that a registered building counts the ticks step(n) runs,
+   * and the requests completed without recording wait times.
+   */
+  @Test
+  public void testMBeanAdvance() {
+    Building building = new Building(10, 2, 5, SimulationEngine.FLEET_STATE);
+    building.registerMBean("testMBeanAdvance");
+    try {
+      BuildingMonitorMBean monitor = building.getMonitor();
+      building.step(10);
+      building.startElevatorSystem();
+      building.addRequests(new Request(0, 5));
+      building.step();
+      building.step(100_000);
+      assertEquals(100_011, monitor.getTicks());
+      assertEquals(1, monitor.getRequestsCompleted());
+      assertTrue(monitor.getElevatorUtilization()[0] > 0);
+      building.setRecordingWaitTimes(true);
+      building.addRequests(new Request(0, 3));
+      building.addRequests(new Request(4, 1));
+      building.step(100);
+      assertEquals(3, monitor.getRequestsCompleted());
+      building.setRecordingWaitTimes(false);
+      building.addRequests(new Request(0, 2));
+      building.step(100);
+      assertEquals(4, monitor.getRequestsCompleted());
+    } finally {
+      building.unregisterMBean();
+    }
+  }
+
+  /**
+   * Test that a registered building run by step(n) counts the same ticks and busy elevators
+   * as one stepped through every tick, while running, stopping and out of service.
+   */
+  @Test
+  public void testMBeanStepManySameAsStepping() {
+    Building stepped = new Building(20, 3, 5, SimulationEngine.FLEET_STATE);
+    Building advanced = new Building(20, 3, 5, SimulationEngine.FLEET_STATE);
+    stepped.registerMBean("testMBeanStepManySameAsStepping.stepped");
+    advanced.registerMBean("testMBeanStepManySameAsStepping.advanced");
+    try {
+      stepped.startElevatorSystem();
+      advanced.startElevatorSystem();
+      for (int i = 0; i < 4; i++) {
+        stepped.addRequests(new Request(0, 5 + 3 * i));
+        advanced.addRequests(new Request(0, 5 + 3 * i));
+        stepped.addRequests(new Request(19 - i, 2));
+        advanced.addRequests(new Request(19 - i, 2));
+      }
+      for (int i = 0; i < 500; i++) {
+        stepped.step();
+      }
+      advanced.step(500);
+      stepped.stopElevatorSystem();
+      advanced.stopElevatorSystem();
+      for (int i = 0; i < 300; i++) {
+        stepped.step();
+      }
+      advanced.step(300);
+      assertEquals(ElevatorSystemStatus.outOfService, advanced.getElevatorSystemStatus());
+
+      BuildingMonitorMBean steppedMonitor = stepped.getMonitor();
+      BuildingMonitorMBean advancedMonitor = advanced.getMonitor();
+      assertEquals(800, advancedMonitor.getTicks());
+      assertEquals(steppedMonitor.getTicks(), advancedMonitor.getTicks());
+      double[] utilization = advancedMonitor.getElevatorUtilization();
+      assertTrue(utilization[0] > 0);
+      assertArrayEquals(steppedMonitor.getElevatorUtilization(), utilization, 0);
+    } finally {
+      stepped.unregisterMBean();
+      advanced.unregisterMBean();
+    }
+  }
+
+  /**
+   * Test that collective control and nearest car dispatch pick riders up sooner
+   * than terminal batching, that both engines agree under every dispatch policy,
+   * and that step(n) falls back to stepping through every tick.
+   */
+  @Test
+  public void testCollectiveShorterWaits() {
+    double[] averageWait = new double[DispatchPolicy.values().length];
+    for (DispatchPolicy policy : DispatchPolicy.values()) {
+      Building objects = new Building(30, 4, 10, SimulationEngine.ELEVATOR_OBJECTS);
+      Building fleet = new Building(30, 4, 10, SimulationEngine.FLEET_STATE);
+      objects.setDispatchPolicy(policy);
+      fleet.setDispatchPolicy(policy);
+      objects.setRecordingWaitTimes(true);
+      fleet.setRecordingWaitTimes(true);
+      objects.startElevatorSystem();
+      fleet.startElevatorSystem();
+      Random random = new Random(12);
+      for (int tick = 0; tick < 3000; tick++) {
+        if (random.nextInt(4) == 0) {
+          int start = random.nextInt(30);
+          int end = (start + 1 + random.nextInt(29)) % 30;
+          objects.addRequests(new Request(start, end));
+          fleet.addRequests(new Request(start, end));
+        }
+        objects.step();
+        fleet.step(1);
+        assertEquals(withoutElevatorIds(objects.getBuildingReport().toString()),
+            withoutElevatorIds(fleet.getBuildingReport().toString()));
+      }
+      assertEquals(objects.getBoardedCount(), fleet.getBoardedCount());
+      assertTrue(fleet.getBoardedCount() > 500);
+      averageWait[policy.ordinal()] = fleet.getAverageWaitTicks();
+    }
+    assertTrue(averageWait[DispatchPolicy.COLLECTIVE.ordinal()]
+        < averageWait[DispatchPolicy.TERMINAL.ordinal()]);
+    assertTrue(averageWait[DispatchPolicy.NEAREST_CAR.ordinal()]
+        < averageWait[DispatchPolicy.TERMINAL.ordinal()]);
+    assertTrue(averageWait[DispatchPolicy.OPTIMAL.ordinal()]
+        < averageWait[DispatchPolicy.TERMINAL.ordinal()]);
+  }
+
+  /**
+   * Test that optimal dispatch gives out a few waiting requests with the solver,
+   * falls back to nearest car first above its largest batch and counts both.
+   */
+  @Test
+  public void testOptimalSolverStatistics() {
+    Building building = new Building(10, 2, 5);
+    OptimalDispatch optimal = new OptimalDispatch(2);
+    building.setDispatchStrategy(optimal);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 5));
+    building.step();
+    assertTrue(building.getBuildingReport().getUpRequests().isEmpty());
+    assertEquals(1, optimal.getSolverStatistics().getSolvedTicks());
+    //nobody can take these yet, so they stay and are looked at greedily
+    for (int i = 0; i < 3; i++) {
+      building.addRequests(new Request(9, 1));
+    }
+    building.step();
+    building.step();
+    SolverStatistics statistics = optimal.getSolverStatistics();
+    assertEquals(3, building.getBuildingReport().getDownRequests().size());
+    assertEquals(1, statistics.getSolvedTicks());
+    assertEquals(2, statistics.getGreedyTicks());
+    assertTrue(statistics.getTotalNanos() >= statistics.getLongestNanos());
+    assertEquals(statistics.getTotalNanos() / 3.0, statistics.getAverageNanos(), 1e-9);
+  }
+
+  /**
+   * Test that destination dispatch fills an elevator with riders sharing stops
+   * after the oldest one, instead of the oldest riders.
+   */
+  @Test
+  public void testDestinationGroupsStops() {
+    Building building = new Building(10, 1, 3);
+    building.setDispatchPolicy(DispatchPolicy.DESTINATION);
+    assertTrue(building.getDispatchStrategy() instanceof DestinationDispatch);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 5));
+    building.addRequests(new Request(0, 9));
+    building.addRequests(new Request(0, 2));
+    building.addRequests(new Request(0, 5));
+    building.addRequests(new Request(0, 6));
+    building.addRequests(new Request(0, 9));
+    building.step();
+    //the oldest, the one with the same stop, and the one adding a stop inside the others
+    assertEquals("[0->9, 0->6, 0->9]", building.getBuildingReport().getUpRequests().toString());
+    ElevatorReport elevator = building.getBuildingReport().getElevatorReports()[0];
+    assertTrue(elevator.isFloorRequested(2));
+    assertTrue(elevator.isFloorRequested(5));
+    assertFalse(elevator.isFloorRequested(6));
+    assertFalse(elevator.isFloorRequested(9));
+  }
+
+  /**
+   * Test that destination dispatch can still be advanced over steps,
+   * with the same reports as stepping the building.
+   */
+  @Test
+  public void testDestinationAdvanceToSameAsStepping() {
+    Building stepped = new Building(12, 3, 4, SimulationEngine.ELEVATOR_OBJECTS);
+    Building advanced = new Building(12, 3, 4, SimulationEngine.FLEET_STATE);
+    stepped.setDispatchPolicy(DispatchPolicy.DESTINATION);
+    advanced.setDispatchPolicy(DispatchPolicy.DESTINATION);
+    Random random = new Random(23);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    for (int round = 0; round < 300; round++) {
+      int burst = random.nextInt(3) == 0 ? random.nextInt(20) : 0;
+      for (int i = 0; i < burst; i++) {
+        int start = random.nextInt(4) == 0 ? random.nextInt(12) : 0;
+        int end = (start + 1 + random.nextInt(11)) % 12;
+        stepped.addRequests(new Request(start, end));
+        advanced.addRequests(new Request(start, end));
+      }
+      long target = stepped.getTick() + random.nextInt(80);
+      while (stepped.getTick() < target) {
+        stepped.step();
+      }
+      advanced.advanceTo(target);
+      assertEquals(withoutElevatorIds(stepped.getBuildingReport().toString()),
+          withoutElevatorIds(advanced.getBuildingReport().toString()));
+    }
+  }
+
+  /**
+   * Test that fast elevators picking up requests on their way never change speed
+   * by more than their acceleration from one step to the next, for both simulation engines.
+   * A request inside the stopping distance of an elevator is left for another one.
+   */
+  @Test
+  public void testSpeedProfileKeepsAccelerationOnTheWay() {
+    BuildingLimits limits = new BuildingLimits(60, 10, 20);
+    SpeedProfile profile = new SpeedProfile(8, 1);
+    for (SimulationEngine engine : SimulationEngine.values()) {
+      for (DispatchPolicy policy : new DispatchPolicy[] {DispatchPolicy.COLLECTIVE,
+          DispatchPolicy.NEAREST_CAR, DispatchPolicy.OPTIMAL}) {
+        Building building = new Building(60, 4, 8, engine, limits);
+        building.setDispatchPolicy(policy);
+        building.setSpeedProfile(profile);
+        building.startElevatorSystem();
+        Random random = new Random(23);
+        int[] floor = new int[4];
+        int[] move = new int[4];
+        for (int tick = 0; tick < 3000; tick++) {
+          if (random.nextInt(2) == 0) {
+            int start = random.nextInt(60);
+            building.addRequests(new Request(start, (start + 1 + random.nextInt(59)) % 60));
+          }
+          building.step();
+          ElevatorReport[] elevators = building.getBuildingReport().getElevatorReports();
+          for (int i = 0; i < 4; i++) {
+            int moved = Math.abs(elevators[i].getCurrentFloor() - floor[i]);
+            assertTrue(policy + " " + engine + " elevator " + i + " went from " + move[i]
+                + " to " + moved + " floors a step at tick " + building.getTick(),
+                Math.abs(moved - move[i]) <= profile.getAcceleration());
+            floor[i] = elevators[i].getCurrentFloor();
+            move[i] = moved;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that a building of fast elevators with a ramp runs forward to a tick
+   * exactly as if it had been stepped there, with nearest car dispatch as well.
+   */
+  @Test
+  public void testSpeedProfileAdvanceToSameAsStepping() {
+    for (DispatchPolicy policy : new DispatchPolicy[] {DispatchPolicy.TERMINAL,
+        DispatchPolicy.NEAREST_CAR}) {
+      Building stepped = new Building(30, 3, 4, SimulationEngine.ELEVATOR_OBJECTS);
+      Building advanced = new Building(30, 3, 4, SimulationEngine.FLEET_STATE);
+      stepped.setDispatchPolicy(policy);
+      advanced.setDispatchPolicy(policy);
+      stepped.setSpeedProfile(new SpeedProfile(4, 1));
+      advanced.setSpeedProfile(new SpeedProfile(4, 1));
+      advanced.setSpeedProfile(2, SpeedProfile.LOCAL);
+      stepped.setSpeedProfile(2, SpeedProfile.LOCAL);
+      Random random = new Random(29);
+      stepped.startElevatorSystem();
+      advanced.startElevatorSystem();
+      for (int round = 0; round < 200; round++) {
+        int burst = random.nextInt(3) == 0 ? random.nextInt(10) : 0;
+        for (int i = 0; i < burst; i++) {
+          int start = random.nextInt(30);
+          int end = (start + 1 + random.nextInt(29)) % 30;
+          stepped.addRequests(new Request(start, end));
+          advanced.addRequests(new Request(start, end));
+        }
+        long target = stepped.getTick() + random.nextInt(80);
+        while (stepped.getTick() < target) {
+          stepped.step();
+        }
+        advanced.advanceTo(target);
+        assertEquals(withoutElevatorIds(stepped.getBuildingReport().toString()),
+            withoutElevatorIds(advanced.getBuildingReport().toString()));
+      }
+    }
+    assertEquals(SpeedProfile.LOCAL, this.building1.getSpeedProfile(1));
+  }
+
+  /**
+   * Test that choosing the speed of an elevator that is not there throws an exception.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSpeedProfileElevatorOutOfRange() {
+    this.building1.setSpeedProfile(2, SpeedProfile.LOCAL);
+  }
+
+  /**
+   * Test that destination dispatch needs a lookahead of at least one full elevator.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDestinationLookaheadTooSmall() {
+    new DestinationDispatch(0);
+  }
+
+  /**
+   * Test that optimal dispatch needs a largest batch of at least one request.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOptimalMaxBatchTooSmall() {
+    new OptimalDispatch(0);
+  }
+
+  /**
+   * Test that nearest car dispatch gives a request to the elevator on its way down
+   * to it rather than to the one waiting at the top floor.
+   */
+  @Test
+  public void testNearestCarOnTheWay() {
+    Building building = new Building(10, 2, 5);
+    building.setDispatchPolicy(DispatchPolicy.NEAREST_CAR);
+    assertTrue(building.getDispatchStrategy() instanceof NearestCarDispatch);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 9));
+    for (int i = 0; i < 21; i++) {
+      building.step();
+    }
+    ElevatorReport[] elevators = building.getBuildingReport().getElevatorReports();
+    assertTrue(elevators[0].isTakingRequests());
+    assertEquals(9, elevators[0].getCurrentFloor());
+    assertEquals(8, elevators[1].getCurrentFloor());
+    assertEquals(Direction.DOWN, elevators[1].getDirection());
+    //two floors away from the one on its way, three from the one at the top
+    building.addRequests(new Request(6, 2));
+    building.step();
+    elevators = building.getBuildingReport().getElevatorReports();
+    assertTrue(building.getBuildingReport().getDownRequests().isEmpty());
+    assertTrue(elevators[1].isFloorRequested(6));
+    assertFalse(elevators[0].isFloorRequested(6));
+  }
+
+  /**
+   * Test that nearest car dispatch passes over a full elevator on its way to a request
+   * and gives the request to an elevator that can take it now.
+   */
+  @Test
+  public void testNearestCarFullOnTheWay() {
+    Building building = new Building(10, 2, 3);
+    building.setDispatchPolicy(DispatchPolicy.NEAREST_CAR);
+    building.startElevatorSystem();
+    //a first rider sets the elevators apart
+    building.addRequests(new Request(0, 9));
+    building.step(16);
+    building.addRequests(Arrays.asList(new Request(0, 9), new Request(0, 9), new Request(0, 9)));
+    building.step(19);
+    ElevatorReport[] elevators = building.getBuildingReport().getElevatorReports();
+    assertEquals(1, elevators[1].getCurrentFloor());
+    assertEquals(Direction.UP, elevators[1].getDirection());
+    assertTrue(elevators[1].isFloorRequested(9));
+    assertTrue(elevators[0].isTakingRequests());
+    assertEquals(0, elevators[0].getCurrentFloor());
+    //two floors away from the full one, three from the one at the bottom
+    building.addRequests(new Request(3, 5));
+    building.step();
+    elevators = building.getBuildingReport().getElevatorReports();
+    assertTrue(building.getBuildingReport().getUpRequests().isEmpty());
+    assertTrue(elevators[0].isFloorRequested(3));
+    assertFalse(elevators[1].isFloorRequested(3));
+  }
+
+  /**
+   * Test that optimal dispatch does not match a request to a full elevator on its way
+   * and gives it to an elevator that can take it now.
+   */
+  @Test
+  public void testOptimalFullOnTheWay() {
+    Building building = new Building(10, 2, 3);
+    building.setDispatchPolicy(DispatchPolicy.OPTIMAL);
+    building.startElevatorSystem();
+    //a first rider sets the elevators apart
+    building.addRequests(new Request(0, 9));
+    building.step(16);
+    building.addRequests(Arrays.asList(new Request(0, 9), new Request(0, 9), new Request(0, 9)));
+    building.step(19);
+    ElevatorReport[] elevators = building.getBuildingReport().getElevatorReports();
+    assertEquals(1, elevators[1].getCurrentFloor());
+    assertEquals(Direction.UP, elevators[1].getDirection());
+    assertTrue(elevators[1].isFloorRequested(9));
+    assertTrue(elevators[0].isTakingRequests());
+    assertEquals(0, elevators[0].getCurrentFloor());
+    //two floors away from the full one, three from the one at the bottom
+    building.addRequests(new Request(3, 5));
+    building.step();
+    elevators = building.getBuildingReport().getElevatorReports();
+    assertTrue(building.getBuildingReport().getUpRequests().isEmpty());
+    assertTrue(elevators[0].isFloorRequested(3));
+    assertFalse(elevators[1].isFloorRequested(3));
+  }
+
+  /**
+   * Test that a building asks its dispatch strategy on every step while it is running,
+   * including the steps of step(n), and that the strategy can hand out requests.
+   */
+  @Test
+  public void testCustomDispatchStrategy() {
+    //hands every waiting up request, one at a time, to the last elevator at the bottom floor
+    long[] ticks = new long[1];
+    DispatchStrategy lastCar = context -> {
+      ticks[0] = context.getTick();
+      int last = context.getFleet().size() - 1;
+      if (context.getFleet().isTakingRequests(last)
+          && context.getFleet().getCurrentFloor(last) == 0 && !context.getUpRequests().isEmpty()) {
+        long[] batch = new long[1];
+        context.assign(last, batch, context.getUpRequests().pollBatch(1, batch));
+      }
+    };
+    Building building = new Building(10, 3, 5, SimulationEngine.FLEET_STATE,
+        BuildingLimits.DEFAULT, lastCar);
+    assertTrue(building.getDispatchStrategy() == lastCar);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 4));
+    building.addRequests(new Request(1, 6));
+    building.step(3);
+    assertEquals(3, ticks[0]);
+    ElevatorReport[] elevators = building.getBuildingReport().getElevatorReports();
+    assertFalse(elevators[0].isFloorRequested(4));
+    assertTrue(elevators[2].isFloorRequested(4));
+    assertFalse(elevators[2].isFloorRequested(6));
+    assertEquals("[1->6]", building.getBuildingReport().getUpRequests().toString());
+  }
+
+  /**
+   * Test that terminal dispatch is the default strategy
+   * and that the strategy cannot be changed while the building is running.
+   */
+  @Test
+  public void testSetDispatchStrategy() {
+    assertTrue(this.building1.getDispatchStrategy() instanceof TerminalDispatch);
+    this.building1.setDispatchStrategy(new CollectiveDispatch());
+    assertTrue(this.building1.getDispatchStrategy() instanceof CollectiveDispatch);
+    this.building1.startElevatorSystem();
+    try {
+      this.building1.setDispatchStrategy(new TerminalDispatch());
+      fail("changed the strategy while running");
+    } catch (IllegalStateException e) {
+      assertEquals("Elevator system is not out of service, cannot change dispatch strategy.",
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a building needs a dispatch strategy.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDispatchStrategy() {
+    this.building1.setDispatchStrategy(null);
+  }
+
+  /**
+   * Test that a building needs a dispatch policy, with the same message as for a strategy.
+   */
+  @Test
+  public void testNullDispatchPolicy() {
+    try {
+      this.building1.setDispatchPolicy(null);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Dispatch policy cannot be null.", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a strategy reading the tick sees the same ticks when the building is advanced
+   * as when it is stepped.
+   */
+  @Test
+  public void testDispatchTickSameWhenAdvanced() {
+    List<Long> steppedTicks = new ArrayList<>();
+    List<Long> advancedTicks = new ArrayList<>();
+    Building stepped = new Building(10, 2, 3);
+    Building advanced = new Building(10, 2, 3);
+    stepped.setDispatchStrategy(tickRecordingDispatch(steppedTicks));
+    advanced.setDispatchStrategy(tickRecordingDispatch(advancedTicks));
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    for (int start = 1; start < 9; start++) {
+      stepped.addRequests(new Request(start, 9));
+      stepped.addRequests(new Request(9 - start, 0));
+      advanced.addRequests(new Request(start, 9));
+      advanced.addRequests(new Request(9 - start, 0));
+    }
+    for (int i = 0; i < 200; i++) {
+      stepped.step();
+    }
+    advanced.advanceTo(200);
+    assertTrue(steppedTicks.size() > 2);
+    assertEquals(steppedTicks, advancedTicks);
+    assertEquals(200, advanced.getTick());
+  }
+
+  /**
+   * Make a terminal dispatch strategy that adds the tick of every batch it takes to a list.
+   */
+  private static TerminalDispatch tickRecordingDispatch(List<Long> ticks) {
+    return new TerminalDispatch() {
+      @Override
+      protected int takeBatch(DispatchContext context, RequestQueue requests, long[] into) {
+        ticks.add(context.getTick());
+        return super.takeBatch(context, requests, into);
+      }
+    };
+  }
+
+  /**
+   * Step a building until its first elevator is taking requests again
+   * and return the highest floor it reached on the way.
+   */
+  private static int stepUntilTakingRequests(Building building) {
+    int highest = 0;
+    do {
+      building.step();
+      ElevatorReport elevator = building.getBuildingReport().getElevatorReports()[0];
+      highest = Math.max(highest, elevator.getCurrentFloor());
+    } while (!building.getBuildingReport().getElevatorReports()[0].isTakingRequests());
+    return highest;
+  }
+
+  /**
+   * Test that under LOOK an elevator goes back down after its last stop
+   * instead of running on to the top floor.
+   */
+  @Test
+  public void testLookTurnsAtLastStop() {
+    Building building = new Building(10, 1, 3);
+    building.setTravelMode(TravelMode.LOOK);
+    assertEquals(TravelMode.LOOK, building.getTravelMode());
+    building.startElevatorSystem();
+    building.addRequests(new Request(1, 3));
+    assertEquals(3, stepUntilTakingRequests(building));
+    assertEquals(0, building.getBuildingReport().getElevatorReports()[0].getCurrentFloor());
+  }
+
+  /**
+   * Test that under LOOK an elevator still runs to the top floor
+   * when somebody is waiting to go down as it sets off.
+   */
+  @Test
+  public void testLookRunsOnWhileOthersWait() {
+    Building building = new Building(10, 1, 3);
+    building.setTravelMode(TravelMode.LOOK);
+    building.startElevatorSystem();
+    building.addRequests(new Request(1, 3));
+    building.addRequests(new Request(5, 2));
+    assertEquals(9, stepUntilTakingRequests(building));
+    //and picks it up there
+    building.step();
+    assertEquals(0, building.getBuildingReport().getDownRequests().size());
+  }
+
+  /**
+   * Test that the travel mode can only be changed while the building is out of service.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testTravelModeWhileRunning() {
+    this.building1.startElevatorSystem();
+    this.building1.setTravelMode(TravelMode.LOOK);
+  }
+
+  /**
+   * Test that under LOOK both engines agree and that advancing the building
+   * gives the same reports as stepping it.
+   */
+  @Test
+  public void testLookAdvanceToSameAsStepping() {
+    Building stepped = new Building(12, 4, 5, SimulationEngine.ELEVATOR_OBJECTS);
+    Building advanced = new Building(12, 4, 5, SimulationEngine.FLEET_STATE);
+    stepped.setTravelMode(TravelMode.LOOK);
+    advanced.setTravelMode(TravelMode.LOOK);
+    Random random = new Random(17);
+    stepped.startElevatorSystem();
+    advanced.startElevatorSystem();
+    for (int round = 0; round < 400; round++) {
+      int burst = random.nextInt(4) == 0 ? random.nextInt(10) : 0;
+      for (int i = 0; i < burst; i++) {
+        int start = random.nextInt(12);
+        int end = (start + 1 + random.nextInt(11)) % 12;
+        stepped.addRequests(new Request(start, end));
+        advanced.addRequests(new Request(start, end));
+      }
+      long target = stepped.getTick() + random.nextInt(80);
+      while (stepped.getTick() < target) {
+        stepped.step();
+      }
+      advanced.advanceTo(target);
+      assertEquals(withoutElevatorIds(stepped.getBuildingReport().toString()),
+          withoutElevatorIds(advanced.getBuildingReport().toString()));
+    }
+  }
+
+  /**
+   * Test that under adaptive dwell an elevator nobody is waiting for sets off at once.
+   */
+  @Test
+  public void testAdaptiveDwellSetsOffEmpty() {
+    Building building = new Building(10, 1, 3);
+    building.setDwellPolicy(DwellPolicy.ADAPTIVE);
+    assertEquals(DwellPolicy.ADAPTIVE, building.getDwellPolicy());
+    building.startElevatorSystem();
+    building.step();
+    ElevatorReport elevator = building.getBuildingReport().getElevatorReports()[0];
+    assertEquals(1, elevator.getCurrentFloor());
+    assertFalse(elevator.isTakingRequests());
+    assertEquals("Visits: 0, Dwell: 0, Saved: 5, Held: 0",
+        building.getDwellStatistics(0).toString());
+  }
+
+  /**
+   * Test that under adaptive dwell a part-full elevator is held while requests keep arriving,
+   * and a full one sets off at once.
+   */
+  @Test
+  public void testAdaptiveDwellHoldsWhileRequestsArrive() {
+    Building building = new Building(10, 1, 3);
+    building.setDwellPolicy(DwellPolicy.ADAPTIVE);
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, 5));
+    building.step();
+    building.addRequests(new Request(1, 5));
+    building.step();
+    //the last request arrived two steps ago, so the elevator is held one more step
+    building.step();
+    assertEquals(2, building.getBuildingReport().getUpRequests().size());
+    assertEquals(0, building.getBuildingReport().getElevatorReports()[0].getCurrentFloor());
+    building.step();
+    assertEquals(0, building.getBuildingReport().getUpRequests().size());
+    DwellStatistics statistics = building.getDwellStatistics(0);
+    assertEquals(3, statistics.getHeldTicks());
+    assertEquals(1, statistics.getVisits());
+    assertEquals(3, statistics.getDwellTicks());
+
+    Building full = new Building(10, 1, 3);
+    full.setDwellPolicy(DwellPolicy.ADAPTIVE);
+    full.startElevatorSystem();
+    full.addRequests(Arrays.asList(new Request(0, 5), new Request(1, 5), new Request(2, 5)));
+    full.step();
+    assertEquals(0, full.getBuildingReport().getUpRequests().size());
+    assertEquals(0, full.getDwellStatistics(0).getHeldTicks());
+  }
+
+  /**
+   * Test that under the fixed dwell policy there are no dwell statistics
+   * and that the policy cannot be changed while the building is running.
+   */
+  @Test
+  public void testFixedDwell() {
+    assertEquals(DwellPolicy.FIXED, this.building1.getDwellPolicy());
+    this.building1.startElevatorSystem();
+    this.building1.step(20);
+    assertEquals(0, this.building1.getDwellStatistics(1).getVisits());
+    try {
+      this.building1.setDwellPolicy(DwellPolicy.ADAPTIVE);
+      fail("changed the dwell policy while running");
+    } catch (IllegalStateException e) {
+      assertEquals("Elevator system is not out of service, cannot change dwell policy.",
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Test that there are no dwell statistics for an elevator that does not exist.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testDwellStatisticsOutOfRange() {
+    this.building1.getDwellStatistics(-1);
+  }
+}
@@ -0,0 +1,95 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This is the unit test class for the MpscRequestQueue class.
+ */
+public class MpscRequestQueueTest {
+
+  private MpscRequestQueue queue;
+
+  /**
+   * Set up the test fixture.
+   */
+  @Before
+  public void setUp() {
+    this.queue = new MpscRequestQueue();
+  }
+
+  /**
+   * Test that a new queue is empty and drains nothing.
+   */
+  @Test
+  public void testNewQueueIsEmpty() {
+    assertTrue(this.queue.isEmpty());
+    assertEquals(0, this.queue.drain(request -> { }));
+  }
+
+  /**
+   * Test that requests from one thread are drained in the order they were offered.
+   */
+  @Test
+  public void testDrainInOrder() {
+    this.queue.offer(new Request(0, 1));
+    this.queue.offer(new Request(2, 1));
+    this.queue.offer(new Request(3, 4));
+    assertFalse(this.queue.isEmpty());
+    List<Request> drained = new ArrayList<>();
+    assertEquals(3, this.queue.drain(drained::add));
+    assertTrue(this.queue.isEmpty());
+    assertEquals("0->1", drained.get(0).toString());
+    assertEquals("2->1", drained.get(1).toString());
+    assertEquals("3->4", drained.get(2).toString());
+
+    this.queue.offer(new Request(5, 6));
+    drained.clear();
+    assertEquals(1, this.queue.drain(drained::add));
+    assertEquals("5->6", drained.get(0).toString());
+  }
+
+  /**
+   * Test that no request is lost or reordered when many threads offer
+   * while another thread keeps draining.
+   */
+  @Test
+  public void testManyProducers() throws InterruptedException {
+    final int producers = 8;
+    final int perProducer = 20000;
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      threads[p] = new Thread(() -> {
+        for (int i = 0; i < perProducer; i++) {
+          this.queue.offer(new Request(producer, i));
+        }
+      });
+      threads[p].start();
+    }
+
+    int[] next = new int[producers];
+    int total = 0;
+    while (total < producers * perProducer) {
+      total += this.queue.drain(request -> {
+        //every producer's requests arrive in the order it offered them
+        assertEquals(next[request.getStartFloor()], request.getEndFloor());
+        next[request.getStartFloor()]++;
+      });
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(this.queue.isEmpty());
+    for (int p = 0; p < producers; p++) {
+      assertEquals(perProducer, next[p]);
+    }
+  }
+}
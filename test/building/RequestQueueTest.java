@@ -0,0 +1,182 @@
+package building;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.PackedRequest;
+import scanerzus.Request;
+
+/**
+ * This is the unit test class for the RequestQueue class.
+ */
+public class RequestQueueTest {
+
+  private RequestQueue queue;
+
+  /**
+   * Set up the test fixture.
+   */
+  @Before
+  public void setUp() {
+    this.queue = new RequestQueue();
+  }
+
+  /**
+   * Test that a new queue is empty.
+   */
+  @Test
+  public void testNewQueueIsEmpty() {
+    assertTrue(this.queue.isEmpty());
+    assertEquals(0, this.queue.size());
+    assertEquals(0, this.queue.asList().size());
+  }
+
+  /**
+   * Test that requests come out of the queue in the order they were added.
+   */
+  @Test
+  public void testPollBatchIsFirstInFirstOut() {
+    this.queue.add(new Request(1, 2));
+    this.queue.add(new Request(3, 6));
+    this.queue.add(new Request(5, 7));
+    List<Request> batch = this.queue.pollBatch(2);
+    assertEquals(2, batch.size());
+    assertEquals("1->2", batch.get(0).toString());
+    assertEquals("3->6", batch.get(1).toString());
+    assertEquals(1, this.queue.size());
+    assertEquals("5->7", this.queue.asList().get(0).toString());
+  }
+
+  /**
+   * Test that a batch is never larger than the queue.
+   */
+  @Test
+  public void testPollBatchLargerThanQueue() {
+    this.queue.add(new Request(1, 2));
+    List<Request> batch = this.queue.pollBatch(5);
+    assertEquals(1, batch.size());
+    assertTrue(this.queue.isEmpty());
+    assertEquals(0, this.queue.pollBatch(5).size());
+  }
+
+  /**
+   * Test that the queue keeps its order when the ring buffer wraps around and grows.
+   */
+  @Test
+  public void testWrapAroundAndGrow() {
+    int next = 0;
+    int expected = 0;
+    for (int round = 0; round < 50; round++) {
+      for (int i = 0; i < 7; i++) {
+        this.queue.add(new Request(next, next + 1));
+        next++;
+      }
+      for (Request request : this.queue.pollBatch(3)) {
+        assertEquals(expected, request.getStartFloor());
+        expected++;
+      }
+    }
+    assertEquals(next - expected, this.queue.size());
+    for (int i = 0; i < this.queue.size(); i++) {
+      assertEquals(expected + i, this.queue.asList().get(i).getStartFloor());
+    }
+  }
+
+  /**
+   * Test that the view follows the queue and cannot be modified.
+   */
+  @Test(expected = UnsupportedOperationException.class)
+  public void testViewIsReadOnly() {
+    List<Request> view = this.queue.asList();
+    this.queue.add(new Request(1, 2));
+    assertEquals(1, view.size());
+    view.remove(0);
+  }
+
+  /**
+   * Test that an index outside the view throws an exception.
+   */
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testViewIndexOutOfBounds() {
+    this.queue.add(new Request(1, 2));
+    this.queue.asList().get(1);
+  }
+
+  /**
+   * Test the clear method.
+   */
+  @Test
+  public void testClear() {
+    this.queue.add(new Request(1, 2));
+    this.queue.add(new Request(2, 3));
+    this.queue.clear();
+    assertTrue(this.queue.isEmpty());
+    this.queue.add(new Request(4, 5));
+    assertFalse(this.queue.isEmpty());
+    assertEquals("4->5", this.queue.asList().get(0).toString());
+  }
+
+  /**
+   * Test that a large backlog drains completely in capacity sized batches.
+   */
+  @Test
+  public void testLargeBacklogDrains() {
+    Request request = new Request(0, 1);
+    for (int i = 0; i < 1_000_000; i++) {
+      this.queue.add(request);
+    }
+    int drained = 0;
+    while (!this.queue.isEmpty()) {
+      drained += this.queue.pollBatch(20).size();
+    }
+    assertEquals(1_000_000, drained);
+  }
+
+  /**
+   * Test that making room for a batch keeps the requests in order.
+   */
+  @Test
+  public void testEnsureRoomFor() {
+    for (int i = 0; i < 10; i++) {
+      this.queue.add(new Request(i, i + 1));
+    }
+    this.queue.pollBatch(5);
+    this.queue.ensureRoomFor(100);
+    for (int i = 10; i < 110; i++) {
+      this.queue.add(new Request(i, i + 1));
+    }
+    assertEquals(105, this.queue.size());
+    List<Request> all = this.queue.pollBatch(200);
+    for (int i = 0; i < 105; i++) {
+      assertEquals(i + 5, all.get(i).getStartFloor());
+    }
+  }
+
+  /**
+   * Test that packed requests come out whole and in order, also across the end of the ring.
+   */
+  @Test
+  public void testPollBatchPacked() {
+    for (int i = 0; i < 12; i++) {
+      this.queue.add(PackedRequest.pack(i, i + 1, 1000 + i));
+    }
+    long[] batch = new long[8];
+    assertEquals(8, this.queue.pollBatch(8, batch));
+    for (int i = 12; i < 20; i++) {
+      this.queue.add(PackedRequest.pack(i, i + 1, 1000 + i));
+    }
+    assertEquals(PackedRequest.pack(8, 9, 1008), this.queue.get(0));
+    assertEquals(8, this.queue.pollBatch(8, batch));
+    for (int i = 0; i < 8; i++) {
+      assertEquals(8 + i, PackedRequest.startFloor(batch[i]));
+      assertEquals(1008 + i, PackedRequest.arrivalTick(batch[i], 2000));
+    }
+    assertEquals(4, this.queue.pollBatch(8, batch));
+    assertTrue(this.queue.isEmpty());
+  }
+
+}
@@ -0,0 +1,337 @@
+package building;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import building.enums.ElevatorSystemStatus;
+import building.enums.RequestRejection;
+import building.enums.SimulationEngine;
+import elevator.ElevatorReport;
+import elevator.SpeedProfile;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.Request;
+
+/**
+ * This is the unit test class for the ZonedBuilding and Zone classes.
+ */
+public class ZonedBuildingTest {
+
+  private ZonedBuilding building;
+
+  /**
+   * Set up the test fixture: ten floors in three zones of one elevator each.
+   */
+  @Before
+  public void setUp() {
+    this.building = new ZonedBuilding(10, 5, Zone.split(10, 3, 1));
+  }
+
+  /**
+   * Test that the floors above the ground floor are split into zones next to each other.
+   */
+  @Test
+  public void testSplit() {
+    List<Zone> zones = this.building.getZones();
+    assertEquals(3, zones.size());
+    assertEquals("Floors 1-3, 1 elevators", zones.get(0).toString());
+    assertEquals("Floors 4-6, 1 elevators", zones.get(1).toString());
+    assertEquals("Floors 7-9, 1 elevators", zones.get(2).toString());
+    assertTrue(zones.get(1).serves(0));
+    assertTrue(zones.get(1).serves(5));
+    assertFalse(zones.get(1).serves(3));
+  }
+
+  /**
+   * Test that every bank runs from the ground floor to the top of its zone.
+   */
+  @Test
+  public void testBanks() {
+    assertEquals(4, this.building.getBank(0).getBuildingReport().getNumFloors());
+    assertEquals(7, this.building.getBank(1).getBuildingReport().getNumFloors());
+    assertEquals(10, this.building.getBank(2).getBuildingReport().getNumFloors());
+    BuildingReport report = this.building.getBuildingReport();
+    assertEquals(10, report.getNumFloors());
+    assertEquals(3, report.getNumElevators());
+    assertEquals(3, report.getElevatorReports().length);
+    assertEquals(ElevatorSystemStatus.outOfService, report.getSystemStatus());
+  }
+
+  /**
+   * Test that the lowest zone of a split gets at least two floors.
+   */
+  @Test
+  public void testSplitLowestZone() {
+    List<Zone> zones = Zone.split(10, 8, 1);
+    assertEquals(8, zones.size());
+    assertEquals("Floors 1-2, 1 elevators", zones.get(0).toString());
+    assertEquals("Floors 9-9, 1 elevators", zones.get(7).toString());
+    new ZonedBuilding(10, 5, zones);
+    try {
+      Zone.split(10, 9, 1);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Number of zones should be in [1,8].", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a zone with only floor 1 is not accepted, as its bank would have two floors.
+   */
+  @Test
+  public void testZoneOfFirstFloorOnly() {
+    try {
+      new ZonedBuilding(10, 5, Arrays.asList(new Zone(1, 1, 1), new Zone(2, 9, 1)));
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Highest floor of a zone should be at least 2.", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that the elevator reports of a building taller than 64 floors cover every floor.
+   */
+  @Test
+  public void testReportOfTallBuilding() {
+    ZonedBuilding tall = new ZonedBuilding(96, 5, Zone.split(96, 4, 2),
+        SimulationEngine.FLEET_STATE, new BuildingLimits(96, 8, 5));
+    tall.startElevatorSystem();
+    tall.addRequests(new Request(0, 20));
+    tall.addRequests(new Request(0, 90));
+    tall.step();
+    BuildingReport report = tall.getBuildingReport();
+    assertEquals(96, report.getNumFloors());
+    ElevatorReport[] elevators = report.getElevatorReports();
+    assertEquals(8, elevators.length);
+    for (ElevatorReport elevator : elevators) {
+      assertEquals(96, elevator.getFloorRequests().length);
+      for (int floor = 0; floor < 96; floor++) {
+        assertEquals(elevator.getFloorRequests()[floor], elevator.isFloorRequested(floor));
+      }
+    }
+    assertTrue(elevators[0].isFloorRequested(20));
+    assertTrue(elevators[6].isFloorRequested(90));
+    assertFalse(elevators[6].isFloorRequested(20));
+  }
+
+  /**
+   * Test that a request goes to the bank that serves both of its floors.
+   */
+  @Test
+  public void testRouting() {
+    this.building.startElevatorSystem();
+    this.building.addRequests(new Request(0, 5));
+    this.building.addRequests(new Request(8, 0));
+    this.building.addRequests(new Request(3, 1));
+    assertEquals("[0->5]",
+        this.building.getBank(1).getBuildingReport().getUpRequests().toString());
+    assertEquals("[8->0]",
+        this.building.getBank(2).getBuildingReport().getDownRequests().toString());
+    assertEquals("[3->1]",
+        this.building.getBank(0).getBuildingReport().getDownRequests().toString());
+    assertEquals(1, this.building.getBuildingReport().getUpRequests().size());
+    assertEquals(2, this.building.getBuildingReport().getDownRequests().size());
+  }
+
+  /**
+   * Test that a request between two zones is not accepted.
+   */
+  @Test
+  public void testRequestBetweenZones() {
+    this.building.startElevatorSystem();
+    try {
+      this.building.addRequests(new Request(2, 8));
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("No zone serves both floors.", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a batch routes the valid requests and reports the others.
+   */
+  @Test
+  public void testAddRequestsBatch() {
+    this.building.startElevatorSystem();
+    RequestBatchReport report = this.building.addRequests(
+        Arrays.asList(new Request(2, 8), null, new Request(0, 9), new Request(0, 10)));
+    assertEquals(1, report.getAcceptedCount());
+    assertArrayEquals(new int[] {0, 1, 3}, report.getRejectedIndices());
+    assertArrayEquals(new RequestRejection[] {RequestRejection.NO_ZONE,
+        RequestRejection.MISSING, RequestRejection.OUT_OF_RANGE}, report.getRejectionReasons());
+    report = this.building.addRequests(new int[] {4, 5}, new int[] {6, 5});
+    assertEquals(1, report.getAcceptedCount());
+    assertArrayEquals(new RequestRejection[] {RequestRejection.SAME_FLOOR},
+        report.getRejectionReasons());
+    assertEquals("[0->9]",
+        this.building.getBank(2).getBuildingReport().getUpRequests().toString());
+    assertEquals("[4->6]",
+        this.building.getBank(1).getBuildingReport().getUpRequests().toString());
+  }
+
+  /**
+   * Test that an elevator of the high zone runs past the low floors without stopping.
+   */
+  @Test
+  public void testExpressRun() {
+    this.building.startElevatorSystem();
+    this.building.addRequests(new Request(0, 8));
+    ElevatorReport elevator;
+    do {
+      this.building.step();
+      elevator = this.building.getBank(2).getBuildingReport().getElevatorReports()[0];
+      if (elevator.getCurrentFloor() > 0 && elevator.getCurrentFloor() < 7) {
+        assertTrue(elevator.isDoorClosed());
+      }
+    } while (elevator.getCurrentFloor() != 8 || elevator.isDoorClosed());
+    assertEquals(this.building.getTick(), this.building.getBank(0).getTick());
+  }
+
+  /**
+   * Test that fast elevators in the high zone get to their floor in fewer steps.
+   */
+  @Test
+  public void testExpressSpeed() {
+    ZonedBuilding express = new ZonedBuilding(10, 5, Zone.split(10, 3, 1));
+    express.setSpeedProfile(2, new SpeedProfile(3, 1));
+    assertEquals(3, express.getBank(2).getSpeedProfile(0).getFloorsPerTick());
+    assertEquals(1, express.getBank(1).getSpeedProfile(0).getFloorsPerTick());
+    long local = ticksToOpenAt(this.building, 8);
+    long fast = ticksToOpenAt(express, 8);
+    // one floor a step is 8 moves, the ramp is 1, 2, 2, 2, 1
+    assertEquals(local - 3, fast);
+  }
+
+  private static long ticksToOpenAt(ZonedBuilding building, int floor) {
+    building.startElevatorSystem();
+    building.addRequests(new Request(0, floor));
+    ElevatorReport elevator;
+    do {
+      building.step();
+      elevator = building.getBank(2).getBuildingReport().getElevatorReports()[0];
+    } while (elevator.getCurrentFloor() != floor || elevator.isDoorClosed());
+    return building.getTick();
+  }
+
+  /**
+   * Test that the waits of all the banks are merged, as if they were recorded in one.
+   */
+  @Test
+  public void testMergedLatency() {
+    this.building.setRecordingWaitTimes(true);
+    this.building.startElevatorSystem();
+    this.building.addRequests(new Request(0, 2));
+    this.building.addRequests(new Request(0, 8));
+    this.building.addRequests(new Request(5, 0));
+    this.building.step(60);
+    LatencyStatistics wait = this.building.getWaitLatency();
+    assertEquals(3, wait.getCount());
+    assertEquals(this.building.getAverageWaitTicks(), wait.getMean(), 1e-9);
+    long longest = 0;
+    for (int zone = 0; zone < 3; zone++) {
+      longest = Math.max(longest, this.building.getBank(zone).getLongestWaitTicks());
+    }
+    assertEquals(longest, wait.getMax());
+    assertEquals(3, this.building.getRideLatency().getCount());
+  }
+
+  /**
+   * Test that the bank of a trip is the zone serving its floor above the ground floor,
+   * and that there is none for a trip between two zones.
+   */
+  @Test
+  public void testBankOf() {
+    assertEquals(0, this.building.bankOf(0, 2));
+    assertEquals(2, this.building.bankOf(9, 0));
+    assertEquals(1, this.building.bankOf(4, 6));
+    assertEquals(-1, this.building.bankOf(3, 4));
+  }
+
+  /**
+   * Test that finding the bank of a trip with a floor outside the building throws an exception.
+   */
+  @Test
+  public void testBankOfOutOfRange() {
+    try {
+      this.building.bankOf(0, 10);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Floor should be in [0,9].", e.getMessage());
+    }
+    try {
+      this.building.bankOf(-1, 3);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Floor should be in [0,9].", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a building that is not running does not accept requests.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testRequestNotRunning() {
+    this.building.addRequests(new Request(0, 5));
+  }
+
+  /**
+   * Test that stopping the building stops every bank.
+   */
+  @Test
+  public void testStop() {
+    this.building.startElevatorSystem();
+    assertEquals(ElevatorSystemStatus.running, this.building.getSystemStatus());
+    this.building.addRequests(new Request(0, 5));
+    this.building.step(3);
+    this.building.stopElevatorSystem();
+    assertEquals(ElevatorSystemStatus.stopping, this.building.getSystemStatus());
+    assertTrue(this.building.getBuildingReport().getUpRequests().isEmpty());
+    this.building.advanceTo(100);
+    assertEquals(ElevatorSystemStatus.outOfService, this.building.getSystemStatus());
+  }
+
+  /**
+   * Test that zones leaving a floor out are not accepted.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZonesMissFloor() {
+    new ZonedBuilding(10, 5, Arrays.asList(new Zone(1, 4, 1), new Zone(6, 9, 1)));
+  }
+
+  /**
+   * Test that zones sharing a floor are not accepted.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZonesShareFloor() {
+    new ZonedBuilding(10, 5, Arrays.asList(new Zone(1, 5, 1), new Zone(5, 9, 1)));
+  }
+
+  /**
+   * Test that a zone above the top floor is not accepted.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZoneAboveTopFloor() {
+    new ZonedBuilding(10, 5, Arrays.asList(new Zone(1, 10, 1)));
+  }
+
+  /**
+   * Test that a zone must start above the ground floor.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testZoneFromGroundFloor() {
+    new Zone(0, 5, 1);
+  }
+
+  /**
+   * Test that a bank out of range throws an exception.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBankOutOfRange() {
+    this.building.getBank(3);
+  }
+}
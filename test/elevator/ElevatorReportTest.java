@@ -56,6 +56,17 @@ public class ElevatorReportTest {
     assertArrayEquals(new boolean[]{false, true, true}, report.getFloorRequests());
   }
 
+  @Test
+  public void getFloorRequestsCopied() {
+    boolean[] requests = {true, false, false};
+    ElevatorReport copied = new ElevatorReport(1, 0, Direction.UP, true, requests,
+        0, 0, false, false);
+    requests[1] = true;
+    copied.getFloorRequests()[2] = true;
+    assertArrayEquals(new boolean[]{true, false, false}, copied.getFloorRequests());
+    assertFalse(copied.isFloorRequested(1));
+  }
+
   @Test
   public void getDirection() {
     assertEquals(Direction.STOPPED, report.getDirection());
@@ -3,6 +3,7 @@ package elevator;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import building.enums.Direction;
 import java.util.ArrayList;
@@ -1047,4 +1048,176 @@ public class ElevatorTest {
 
   }
 
-}
\ No newline at end of file
+
+  /**
+   * test that an elevator midrun picks up requests ahead of it on the way,
+   * opening its door at their start and end floors.
+   */
+  @Test
+  public void elevatorPicksUpRequestsAheadMidRun() {
+    elevatorTenFloors10Capacity.start();
+    for (int i = 0; i < 7; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(2, 4));
+    elevatorTenFloors10Capacity.processRequests(requests);
+    assertTrue(elevatorTenFloors10Capacity.getFloorRequests()[2]);
+    assertTrue(elevatorTenFloors10Capacity.getFloorRequests()[4]);
+
+    // the door opens at floor 2 without moving
+    elevatorTenFloors10Capacity.step();
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertFalse(elevatorTenFloors10Capacity.isDoorClosed());
+
+    // the door is open, so floor 2 is not ahead anymore
+    try {
+      elevatorTenFloors10Capacity.processRequests(requests);
+      fail("a request from the floor the door is open at should be refused");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    assertEquals(Direction.UP, elevatorTenFloors10Capacity.getDirection());
+  }
+
+  /**
+   * test that an elevator midrun refuses requests going the other way.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void elevatorThrowsExceptionWhenRequestGoesTheOtherWayMidRun() {
+    elevatorTenFloors10Capacity.start();
+    for (int i = 0; i < 7; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(6, 3));
+    elevatorTenFloors10Capacity.processRequests(requests);
+  }
+
+  /**
+   * test that an elevator told to turn at its last stop goes back down after it
+   * instead of running on to the top floor.
+   */
+  @Test
+  public void elevatorTurnsAtLastStop() {
+    elevatorTenFloors10Capacity.start();
+    for (int i = 0; i < 5; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(1, 3));
+    elevatorTenFloors10Capacity.processRequests(requests);
+    elevatorTenFloors10Capacity.turnAtLastStop();
+
+    // 1 move, 4 steps at floor 1, 2 moves, 4 steps at floor 3
+    for (int i = 0; i < 11; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(3, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertTrue(elevatorTenFloors10Capacity.isDoorClosed());
+
+    // turning around and moving down is one step
+    elevatorTenFloors10Capacity.step();
+    assertEquals(2, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertEquals(Direction.DOWN, elevatorTenFloors10Capacity.getDirection());
+
+    elevatorTenFloors10Capacity.step();
+    elevatorTenFloors10Capacity.step();
+    elevatorTenFloors10Capacity.step();
+    assertEquals(0, elevatorTenFloors10Capacity.getCurrentFloor());
+    assertTrue(elevatorTenFloors10Capacity.isTakingRequests());
+
+    // the next run goes to the top again unless it is told otherwise
+    elevatorTenFloors10Capacity.processRequests(requests);
+    for (int i = 0; i < 30 && !elevatorTenFloors10Capacity.isTakingRequests(); i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+  }
+
+  /**
+   * test that telling an elevator to turn at its last stop does nothing
+   * unless it has just set off from the bottom or top floor with requests.
+   */
+  @Test
+  public void elevatorIgnoresTurnAtLastStopMidRun() {
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.turnAtLastStop();
+    for (int i = 0; i < 7; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(3, 4));
+    elevatorTenFloors10Capacity.processRequests(requests);
+    elevatorTenFloors10Capacity.turnAtLastStop();
+    for (int i = 0; i < 20; i++) {
+      elevatorTenFloors10Capacity.step();
+    }
+    assertEquals(9, elevatorTenFloors10Capacity.getCurrentFloor());
+  }
+
+  /**
+   * test that changing the wait at the bottom floor to 0 sets the elevator off at once,
+   * and that the wait can only be changed while the elevator is taking requests.
+   */
+  @Test
+  public void elevatorSetEndWait() {
+    elevatorTenFloors10Capacity.start();
+    elevatorTenFloors10Capacity.setEndWait(1);
+    assertEquals(1, elevatorTenFloors10Capacity.getEndWaitTimer());
+    elevatorTenFloors10Capacity.setEndWait(0);
+    assertFalse(elevatorTenFloors10Capacity.isTakingRequests());
+    assertEquals(Direction.UP, elevatorTenFloors10Capacity.getDirection());
+    elevatorTenFloors10Capacity.step();
+    assertEquals(1, elevatorTenFloors10Capacity.getCurrentFloor());
+    try {
+      elevatorTenFloors10Capacity.setEndWait(5);
+      fail("the wait of a moving elevator should not change");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  /**
+   * test that an elevator with a ramp speeds up to its top speed and slows down
+   * so it stops exactly at every floor it was asked to.
+   */
+  @Test
+  public void elevatorSpeedProfileStopsAtRequestedFloors() {
+    Elevator elevator = new Elevator(30, 5);
+    elevator.setSpeedProfile(new SpeedProfile(4, 1));
+    elevator.start();
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 10));
+    requests.add(new Request(10, 25));
+    elevator.processRequests(requests);
+    List<Integer> floors = new ArrayList<>();
+    List<Integer> openedAt = new ArrayList<>();
+    int steps = 0;
+    while (elevator.getCurrentFloor() != 25 || elevator.isDoorClosed()) {
+      int before = elevator.getCurrentFloor();
+      boolean wasClosed = elevator.isDoorClosed();
+      elevator.step();
+      if (elevator.getCurrentFloor() != before) {
+        floors.add(elevator.getCurrentFloor());
+      }
+      if (wasClosed && !elevator.isDoorClosed()) {
+        openedAt.add(elevator.getCurrentFloor());
+      }
+      steps++;
+    }
+    assertEquals("[1, 3, 6, 8, 9, 10, 11, 13, 16, 19, 22, 24, 25]", floors.toString());
+    assertEquals("[0, 10, 25]", openedAt.toString());
+    // 13 moves and two stops of 4 steps, one floor a step would need 25 moves
+    assertEquals(22, steps);
+  }
+
+  /**
+   * test that an elevator must have a speed profile.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void elevatorSpeedProfileNull() {
+    elevatorTenFloors10Capacity.setSpeedProfile(null);
+  }
+}
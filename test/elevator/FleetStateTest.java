@@ -0,0 +1,383 @@
+package elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import building.enums.Direction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import scanerzus.PackedRequest;
+import scanerzus.Request;
+
+/**
+ * This is the unit test class for the FleetState class.
+ * The fleet state must behave exactly like a fleet of Elevator objects.
+ */
+public class FleetStateTest {
+
+  private FleetState fleetState;
+  private ElevatorFleet elevatorFleet;
+
+  /**
+   * Set up the test fixture.
+   */
+  @Before
+  public void setUp() {
+    this.fleetState = new FleetState(4, 10, 5);
+    this.elevatorFleet = new ElevatorFleet(4, 10, 5);
+  }
+
+  /**
+   * Test that an exception is thrown when the number of floors is out of range.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorFloorsOutOfRange() {
+    new FleetState(2, 31, 5);
+  }
+
+  /**
+   * Test that an exception is thrown when the capacity is out of range.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructorCapacityOutOfRange() {
+    new FleetState(2, 10, 2);
+  }
+
+  /**
+   * Test that a new fleet is out of service on the ground floor.
+   */
+  @Test
+  public void testNewFleet() {
+    assertEquals(4, this.fleetState.size());
+    for (int i = 0; i < 4; i++) {
+      assertEquals(0, this.fleetState.getCurrentFloor(i));
+      assertEquals(Direction.STOPPED, this.fleetState.getDirection(i));
+      assertTrue(this.fleetState.isDoorClosed(i));
+      assertFalse(this.fleetState.isTakingRequests(i));
+      assertTrue(this.fleetState.getElevatorStatus(i).isOutOfService());
+    }
+  }
+
+  /**
+   * Test that the elevator ids of a fleet are consecutive.
+   */
+  @Test
+  public void testElevatorIds() {
+    int first = this.fleetState.getElevatorStatus(0).getElevatorId();
+    for (int i = 1; i < 4; i++) {
+      assertEquals(first + i, this.fleetState.getElevatorStatus(i).getElevatorId());
+    }
+  }
+
+  /**
+   * Test that the door and end wait times of a fleet are those of Elevator objects,
+   * and that they are the times the door stays open and the elevator waits.
+   */
+  @Test
+  public void testDoorAndEndWaitTimes() {
+    for (int i = 0; i < 4; i++) {
+      assertEquals(this.elevatorFleet.getDoorOpenTime(i), this.fleetState.getDoorOpenTime(i));
+      assertEquals(this.elevatorFleet.getEndWaitTime(i), this.fleetState.getEndWaitTime(i));
+    }
+    this.fleetState.start();
+    assertEquals(this.fleetState.getEndWaitTime(0), this.fleetState.getEndWaitTimer(0));
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 3));
+    this.fleetState.processRequests(0, requests);
+    this.fleetState.step();
+    assertEquals(this.fleetState.getDoorOpenTime(0), this.fleetState.getDoorOpenTimer(0));
+  }
+
+  /**
+   * Test that processing requests behind an elevator in the middle of a run
+   * throws an exception.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testProcessRequestsMidRun() {
+    this.fleetState.start();
+    for (int i = 0; i < 7; i++) {
+      this.fleetState.step();
+    }
+    List<Request> requests = new ArrayList<>();
+    requests.add(new Request(0, 5));
+    this.fleetState.processRequests(0, requests);
+  }
+
+  /**
+   * Test that requests ahead of an elevator in the middle of a run are picked up on the way,
+   * the same as an Elevator does.
+   */
+  @Test
+  public void testProcessRequestsAheadMidRun() {
+    Elevator elevator = new Elevator(10, 5);
+    FleetState fleet = new FleetState(1, 10, 5);
+    elevator.start();
+    fleet.start();
+    for (int i = 0; i < 7; i++) {
+      elevator.step();
+      fleet.step();
+    }
+    assertEquals(2, fleet.getCurrentFloor(0));
+    long[] requests = {PackedRequest.pack(2, 4, 0), PackedRequest.pack(6, 9, 0)};
+    elevator.processRequests(requests, 2);
+    fleet.processRequests(0, requests, 2);
+    for (int i = 0; i < 30; i++) {
+      assertEquals(elevator.getElevatorStatus().toString(),
+          fleet.getElevatorStatus(0).toString());
+      elevator.step();
+      fleet.step();
+    }
+  }
+
+  /**
+   * Test that the fleet state and the elevator objects report the same thing
+   * for every elevator at every step of a long random run,
+   * including taking the fleet out of service and starting it again.
+   */
+  @Test
+  public void testSameAsElevatorObjects() {
+    Random random = new Random(42);
+    this.fleetState.start();
+    this.elevatorFleet.start();
+    for (int tick = 0; tick < 5000; tick++) {
+      if (tick % 1000 == 600) {
+        this.fleetState.takeOutOfService();
+        this.elevatorFleet.takeOutOfService();
+      }
+      if (tick % 1000 == 700) {
+        this.fleetState.start();
+        this.elevatorFleet.start();
+      }
+      for (int i = 0; i < 4; i++) {
+        int floor = this.elevatorFleet.getCurrentFloor(i);
+        if (this.elevatorFleet.isTakingRequests(i) && (floor == 0 || floor == 9)
+            && random.nextInt(3) == 0) {
+          List<Request> requests = randomRequests(random, floor == 0);
+          this.fleetState.processRequests(i, requests);
+          this.elevatorFleet.processRequests(i, requests);
+        }
+      }
+      this.fleetState.step();
+      this.elevatorFleet.step();
+      for (int i = 0; i < 4; i++) {
+        assertSameElevator(i);
+      }
+    }
+  }
+
+  private List<Request> randomRequests(Random random, boolean up) {
+    List<Request> requests = new ArrayList<>();
+    int count = random.nextInt(6);
+    for (int i = 0; i < count; i++) {
+      int start = random.nextInt(9);
+      int end = start + 1 + random.nextInt(9 - start);
+      requests.add(up ? new Request(start, end) : new Request(end, start));
+    }
+    return requests;
+  }
+
+  private void assertSameElevator(int i) {
+    ElevatorReport expected = this.elevatorFleet.getElevatorStatus(i);
+    ElevatorReport actual = this.fleetState.getElevatorStatus(i);
+    assertEquals(expected.toString(), actual.toString());
+    assertEquals(expected.getCurrentFloor(), actual.getCurrentFloor());
+    assertEquals(expected.getDirection(), actual.getDirection());
+    assertEquals(expected.isDoorClosed(), actual.isDoorClosed());
+    assertEquals(expected.getDoorOpenTimer(), actual.getDoorOpenTimer());
+    assertEquals(expected.getEndWaitTimer(), actual.getEndWaitTimer());
+    assertEquals(expected.isOutOfService(), actual.isOutOfService());
+    assertEquals(expected.isTakingRequests(), actual.isTakingRequests());
+    for (int floor = 0; floor < 10; floor++) {
+      assertEquals(expected.isFloorRequested(floor), actual.isFloorRequested(floor));
+    }
+  }
+
+  /**
+   * Test that running the elevators forward many steps at once gives the same result
+   * as stepping them, for both kinds of fleet.
+   */
+  @Test
+  public void testAdvanceSameAsStepping() {
+    Random random = new Random(3);
+    FleetState jumping = new FleetState(4, 10, 5);
+    ElevatorFleet jumpingObjects = new ElevatorFleet(4, 10, 5);
+    this.elevatorFleet.start();
+    jumping.start();
+    jumpingObjects.start();
+    for (int round = 0; round < 300; round++) {
+      if (round % 100 == 70) {
+        this.elevatorFleet.takeOutOfService();
+        jumping.takeOutOfService();
+        jumpingObjects.takeOutOfService();
+      }
+      if (round % 100 == 90) {
+        this.elevatorFleet.start();
+        jumping.start();
+        jumpingObjects.start();
+      }
+      for (int i = 0; i < 4; i++) {
+        int floor = this.elevatorFleet.getCurrentFloor(i);
+        if (this.elevatorFleet.isTakingRequests(i) && (floor == 0 || floor == 9)) {
+          List<Request> requests = randomRequests(random, floor == 0);
+          this.elevatorFleet.processRequests(i, requests);
+          jumping.processRequests(i, requests);
+          jumpingObjects.processRequests(i, requests);
+        }
+      }
+      int ticks = 1 + random.nextInt(60);
+      for (int t = 0; t < ticks; t++) {
+        this.elevatorFleet.step();
+      }
+      for (int i = 0; i < 4; i++) {
+        jumping.advance(i, ticks);
+        jumpingObjects.advance(i, ticks);
+        assertEquals(this.elevatorFleet.getElevatorStatus(i).toString(),
+            jumping.getElevatorStatus(i).toString());
+        assertEquals(this.elevatorFleet.getElevatorStatus(i).toString(),
+            jumpingObjects.getElevatorStatus(i).toString());
+      }
+    }
+  }
+
+  /**
+   * Test that elevators told to turn at their last stop behave the same in both kinds of fleet,
+   * whether they are stepped or run forward many steps at once.
+   */
+  @Test
+  public void testTurnAtLastStopSameAsElevatorObjects() {
+    Random random = new Random(7);
+    FleetState jumping = new FleetState(4, 10, 5);
+    this.fleetState.start();
+    this.elevatorFleet.start();
+    jumping.start();
+    for (int round = 0; round < 300; round++) {
+      for (int i = 0; i < 4; i++) {
+        int floor = this.elevatorFleet.getCurrentFloor(i);
+        if (this.elevatorFleet.isTakingRequests(i) && (floor == 0 || floor == 9)) {
+          List<Request> requests = randomRequests(random, floor == 0);
+          this.fleetState.processRequests(i, requests);
+          this.elevatorFleet.processRequests(i, requests);
+          jumping.processRequests(i, requests);
+          if (random.nextBoolean()) {
+            this.fleetState.turnAtLastStop(i);
+            this.elevatorFleet.turnAtLastStop(i);
+            jumping.turnAtLastStop(i);
+          }
+        }
+      }
+      int ticks = 1 + random.nextInt(40);
+      for (int t = 0; t < ticks; t++) {
+        this.fleetState.step();
+        this.elevatorFleet.step();
+        for (int i = 0; i < 4; i++) {
+          assertSameElevator(i);
+        }
+      }
+      for (int i = 0; i < 4; i++) {
+        jumping.advance(i, ticks);
+        assertEquals(this.elevatorFleet.getElevatorStatus(i).toString(),
+            jumping.getElevatorStatus(i).toString());
+      }
+    }
+  }
+
+  /**
+   * Test counting the steps until an elevator takes requests at the top and bottom floors.
+   */
+  @Test
+  public void testTicksUntilTakingRequestsAt() {
+    this.fleetState.start();
+    assertEquals(0, this.fleetState.ticksUntilTakingRequestsAt(0, 0));
+    // wait 5 steps, run 9 floors and start waiting at the top
+    assertEquals(15, this.fleetState.ticksUntilTakingRequestsAt(0, 9));
+    for (int t = 0; t < 15; t++) {
+      this.fleetState.step();
+    }
+    assertTrue(this.fleetState.isTakingRequests(0));
+    assertEquals(9, this.fleetState.getCurrentFloor(0));
+    assertEquals(15, this.fleetState.ticksUntilTakingRequestsAt(0, 0));
+    this.fleetState.takeOutOfService();
+    assertEquals(Long.MAX_VALUE, this.fleetState.ticksUntilTakingRequestsAt(0, 0));
+  }
+
+  /**
+   * Test that elevators of different speeds behave the same in both kinds of fleet,
+   * whether they are stepped or run forward many steps at once,
+   * and that they take requests at the ground floor on the step that was counted.
+   */
+  @Test
+  public void testSpeedProfilesSameAsElevatorObjects() {
+    SpeedProfile[] profiles = {SpeedProfile.LOCAL, new SpeedProfile(3),
+        new SpeedProfile(4, 1), new SpeedProfile(6, 2)};
+    Random random = new Random(11);
+    FleetState stepped = new FleetState(4, 30, 5);
+    ElevatorFleet objects = new ElevatorFleet(4, 30, 5);
+    FleetState jumping = new FleetState(4, 30, 5);
+    for (int i = 0; i < 4; i++) {
+      stepped.setSpeedProfile(i, profiles[i]);
+      objects.setSpeedProfile(i, profiles[i]);
+      jumping.setSpeedProfile(i, profiles[i]);
+    }
+    stepped.start();
+    objects.start();
+    jumping.start();
+    for (int round = 0; round < 400; round++) {
+      if (round % 100 == 70) {
+        stepped.takeOutOfService();
+        objects.takeOutOfService();
+        jumping.takeOutOfService();
+      }
+      if (round % 100 == 90) {
+        stepped.start();
+        objects.start();
+        jumping.start();
+      }
+      long[] until = new long[4];
+      for (int i = 0; i < 4; i++) {
+        int floor = stepped.getCurrentFloor(i);
+        if (stepped.isTakingRequests(i) && (floor == 0 || floor == 29)) {
+          long[] requests = new long[random.nextInt(4)];
+          for (int r = 0; r < requests.length; r++) {
+            int start = random.nextInt(29);
+            int end = start + 1 + random.nextInt(29 - start);
+            requests[r] = floor == 0 ? PackedRequest.pack(start, end, 0)
+                : PackedRequest.pack(end, start, 0);
+          }
+          stepped.processRequests(i, requests, requests.length);
+          objects.processRequests(i, requests, requests.length);
+          jumping.processRequests(i, requests, requests.length);
+          if (random.nextBoolean()) {
+            stepped.turnAtLastStop(i);
+            objects.turnAtLastStop(i);
+            jumping.turnAtLastStop(i);
+          }
+        }
+        until[i] = stepped.ticksUntilTakingRequestsAt(i, 0);
+        assertEquals(until[i], objects.ticksUntilTakingRequestsAt(i, 0));
+      }
+      //now and then a long run, so empty round trips are skipped too
+      int ticks = random.nextInt(10) == 0 ? 500 + random.nextInt(500) : 1 + random.nextInt(60);
+      for (int t = 0; t < ticks; t++) {
+        for (int i = 0; i < 4; i++) {
+          boolean taking = stepped.isTakingRequests(i) && stepped.getCurrentFloor(i) == 0;
+          assertEquals(t == until[i], t <= until[i] && taking);
+        }
+        stepped.step();
+        objects.step();
+        for (int i = 0; i < 4; i++) {
+          assertEquals(objects.getElevatorStatus(i).toString(),
+              stepped.getElevatorStatus(i).toString());
+        }
+      }
+      for (int i = 0; i < 4; i++) {
+        jumping.advance(i, ticks);
+        assertEquals(stepped.getElevatorStatus(i).toString(),
+            jumping.getElevatorStatus(i).toString());
+      }
+    }
+  }
+}
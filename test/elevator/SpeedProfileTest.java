@@ -0,0 +1,104 @@
+package elevator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the SpeedProfile class.
+ */
+public class SpeedProfileTest {
+
+  /**
+   * Test that a profile without a ramp runs at top speed right up to its stop.
+   */
+  @Test
+  public void testNoRamp() {
+    SpeedProfile profile = new SpeedProfile(5);
+    assertEquals(5, profile.getAcceleration());
+    assertEquals(5, profile.move(0, 12));
+    assertEquals(2, profile.move(5, 2));
+    assertEquals(3, profile.ticksToTravel(12));
+    assertEquals(12, SpeedProfile.LOCAL.ticksToTravel(12));
+    assertEquals("5 floors a step, speeding up by 5", profile.toString());
+  }
+
+  /**
+   * Test that counting the steps of a run gives the same as moving step by step,
+   * never passing the stop and never changing speed by more than the acceleration.
+   */
+  @Test
+  public void testTicksToTravelSameAsMoving() {
+    for (int top = 1; top <= 8; top++) {
+      for (int acceleration = 1; acceleration <= top; acceleration++) {
+        SpeedProfile profile = new SpeedProfile(top, acceleration);
+        for (int floors = 0; floors < 200; floors++) {
+          int left = floors;
+          int speed = 0;
+          long ticks = 0;
+          while (left > 0) {
+            int move = profile.move(speed, left);
+            assertTrue(move >= 1 && move <= left && move <= top);
+            assertTrue(Math.abs(move - speed) <= acceleration);
+            speed = move;
+            left -= move;
+            ticks++;
+          }
+          assertTrue(speed <= acceleration);
+          assertEquals(ticks, profile.ticksToTravel(floors));
+        }
+      }
+    }
+  }
+
+  /**
+   * Test that an elevator at any speed can stop at a stop its stopping distance ahead
+   * without changing speed by more than the acceleration, and that no closer stop will do.
+   */
+  @Test
+  public void testStoppingDistance() {
+    for (int top = 1; top <= 8; top++) {
+      for (int acceleration = 1; acceleration <= top; acceleration++) {
+        SpeedProfile profile = new SpeedProfile(top, acceleration);
+        for (int speed = 0; speed <= top; speed++) {
+          int distance = profile.stoppingDistance(speed);
+          assertEquals(speed <= acceleration, distance == 0);
+          int left = distance;
+          int moved = speed;
+          while (left > 0) {
+            int move = profile.move(moved, left);
+            assertTrue(Math.abs(move - moved) <= acceleration);
+            moved = move;
+            left -= move;
+          }
+          assertTrue(moved <= acceleration);
+          //slowing down as fast as it can, it runs exactly the stopping distance
+          int slowest = 0;
+          for (int next = speed - acceleration; next > 0; next -= acceleration) {
+            slowest += next;
+          }
+          assertEquals(slowest, distance);
+        }
+      }
+    }
+    assertEquals(21, new SpeedProfile(8, 1).stoppingDistance(7));
+    assertEquals(0, SpeedProfile.LOCAL.stoppingDistance(1));
+  }
+
+  /**
+   * Test that a top speed out of range throws an exception.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTopSpeedOutOfRange() {
+    new SpeedProfile(SpeedProfile.MAX_FLOORS_PER_TICK + 1);
+  }
+
+  /**
+   * Test that an acceleration above the top speed throws an exception.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAccelerationOutOfRange() {
+    new SpeedProfile(3, 4);
+  }
+}
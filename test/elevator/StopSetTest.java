@@ -0,0 +1,132 @@
+package elevator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the StopSet class.
+ */
+public class StopSetTest {
+
+  private StopSet tenFloors;
+  private StopSet tallBuilding;
+
+  /**
+   * Set up the test fixture.
+   */
+  @Before
+  public void setUp() {
+    this.tenFloors = new StopSet(10);
+    this.tallBuilding = new StopSet(200);
+  }
+
+  /**
+   * Test adding, checking and removing stops.
+   */
+  @Test
+  public void testAddContainsRemove() {
+    assertTrue(this.tenFloors.isEmpty());
+    this.tenFloors.add(3);
+    this.tenFloors.add(9);
+    assertTrue(this.tenFloors.contains(3));
+    assertTrue(this.tenFloors.contains(9));
+    assertFalse(this.tenFloors.contains(4));
+    this.tenFloors.remove(3);
+    assertFalse(this.tenFloors.contains(3));
+    assertFalse(this.tenFloors.isEmpty());
+  }
+
+  /**
+   * Test that clearing the set removes every stop, in one word and in several.
+   */
+  @Test
+  public void testClear() {
+    this.tenFloors.add(0);
+    this.tenFloors.add(9);
+    this.tenFloors.clear();
+    assertTrue(this.tenFloors.isEmpty());
+    this.tallBuilding.add(5);
+    this.tallBuilding.add(150);
+    this.tallBuilding.clear();
+    assertTrue(this.tallBuilding.isEmpty());
+  }
+
+  /**
+   * Test finding the next stop above and below a floor.
+   */
+  @Test
+  public void testNextAboveAndBelow() {
+    this.tenFloors.add(2);
+    this.tenFloors.add(6);
+    assertEquals(2, this.tenFloors.nextAbove(0));
+    assertEquals(6, this.tenFloors.nextAbove(2));
+    assertEquals(-1, this.tenFloors.nextAbove(6));
+    assertEquals(-1, this.tenFloors.nextAbove(9));
+    assertEquals(6, this.tenFloors.nextBelow(9));
+    assertEquals(2, this.tenFloors.nextBelow(6));
+    assertEquals(-1, this.tenFloors.nextBelow(2));
+    assertEquals(-1, this.tenFloors.nextBelow(0));
+  }
+
+  /**
+   * Test finding the next stop across word boundaries.
+   */
+  @Test
+  public void testNextAcrossWords() {
+    this.tallBuilding.add(1);
+    this.tallBuilding.add(64);
+    this.tallBuilding.add(199);
+    assertEquals(64, this.tallBuilding.nextAbove(1));
+    assertEquals(64, this.tallBuilding.nextAbove(63));
+    assertEquals(199, this.tallBuilding.nextAbove(64));
+    assertEquals(64, this.tallBuilding.nextBelow(199));
+    assertEquals(1, this.tallBuilding.nextBelow(64));
+    assertEquals(64, this.tallBuilding.nextBelow(128));
+  }
+
+  /**
+   * Test that the boolean view follows the set.
+   */
+  @Test
+  public void testToBooleanArray() {
+    this.tenFloors.add(1);
+    assertTrue(this.tenFloors.toBooleanArray()[1]);
+    this.tenFloors.remove(1);
+    this.tenFloors.add(4);
+    boolean[] expected = new boolean[10];
+    expected[4] = true;
+    assertArrayEquals(expected, this.tenFloors.toBooleanArray());
+  }
+
+  /**
+   * Test that a snapshot does not change when the set does.
+   */
+  @Test
+  public void testSnapshot() {
+    this.tenFloors.add(7);
+    long[] snapshot = this.tenFloors.snapshot();
+    this.tenFloors.clear();
+    assertEquals(1L << 7, snapshot[0]);
+    assertNotSame(snapshot, this.tenFloors.snapshot());
+  }
+
+  /**
+   * Test packing an array of booleans.
+   */
+  @Test
+  public void testPack() {
+    boolean[] floors = new boolean[70];
+    floors[0] = true;
+    floors[65] = true;
+    long[] packed = StopSet.pack(floors);
+    assertEquals(2, packed.length);
+    assertEquals(1L, packed[0]);
+    assertEquals(2L, packed[1]);
+  }
+}
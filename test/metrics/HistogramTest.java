@@ -0,0 +1,167 @@
+package metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the Histogram class.
+ */
+public class HistogramTest {
+
+  /**
+   * Test that small values have a bucket each, so their percentiles are exact.
+   */
+  @Test
+  public void testExactSmallValues() {
+    Histogram histogram = new Histogram(1000, 10);
+    for (int value = 1000; value >= 1; value--) {
+      histogram.record(value);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(500.5, histogram.getMean(), 1e-9);
+    assertEquals(1, histogram.getMin());
+    assertEquals(1000, histogram.getMax());
+    assertEquals(500, histogram.getValueAtPercentile(50));
+    assertEquals(900, histogram.getValueAtPercentile(90));
+    assertEquals(990, histogram.getValueAtPercentile(99));
+    assertEquals(999, histogram.getValueAtPercentile(99.9));
+    assertEquals(1000, histogram.getValueAtPercentile(100));
+    assertEquals("Count: 1000, Mean: 500.5, Max: 1000, P50: 500, P90: 900, P99: 990, "
+        + "P99.9: 999", histogram.toString());
+  }
+
+  /**
+   * Test that every value falls in a bucket that holds it, no wider than the precision,
+   * and that the buckets follow each other without gaps.
+   */
+  @Test
+  public void testBuckets() {
+    Histogram histogram = new Histogram(Long.MAX_VALUE, 4);
+    long previousHighest = -1;
+    int last = histogram.bucketIndex(Long.MAX_VALUE);
+    for (int i = 0; i <= last; i++) {
+      long lowest = histogram.lowestValueAt(i);
+      long highest = histogram.highestValueAt(i);
+      assertEquals(previousHighest + 1, lowest);
+      assertEquals(i, histogram.bucketIndex(lowest));
+      assertEquals(i, histogram.bucketIndex(highest));
+      assertTrue(highest - lowest <= lowest / 8);
+      previousHighest = highest;
+    }
+    assertEquals(Long.MAX_VALUE, previousHighest);
+  }
+
+  /**
+   * Test that percentiles of large random values are within the precision of the histogram.
+   */
+  @Test
+  public void testPercentilesWithinPrecision() {
+    Histogram histogram = new Histogram(1L << 40);
+    Random random = new Random(9);
+    long[] values = new long[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 25);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+      long exact = values[(int) Math.round(percentile / 100 * values.length) - 1];
+      long read = histogram.getValueAtPercentile(percentile);
+      assertTrue(read >= exact && read <= exact + exact / 128);
+    }
+  }
+
+  /**
+   * Test that values above the highest trackable value are counted with it,
+   * while the largest value is kept exactly.
+   */
+  @Test
+  public void testAboveHighestTrackableValue() {
+    Histogram histogram = new Histogram(100);
+    histogram.record(3);
+    histogram.record(5000);
+    histogram.record(9000);
+    assertEquals(3, histogram.getValueAtPercentile(30));
+    assertEquals(100, histogram.getValueAtPercentile(50));
+    assertEquals(9000, histogram.getMax());
+    assertEquals(0, new Histogram(100).getValueAtPercentile(50));
+  }
+
+  /**
+   * Test that histograms recorded by several threads at once merge into the same counts.
+   */
+  @Test
+  public void testMergeAcrossThreads() throws InterruptedException {
+    Histogram shared = new Histogram(1 << 20);
+    Histogram merged = new Histogram(1 << 20);
+    Thread[] threads = new Thread[4];
+    Histogram[] own = new Histogram[threads.length];
+    for (int t = 0; t < threads.length; t++) {
+      Histogram histogram = new Histogram(1 << 20);
+      own[t] = histogram;
+      int seed = t;
+      threads[t] = new Thread(() -> {
+        Random random = new Random(seed);
+        for (int i = 0; i < 50000; i++) {
+          long value = random.nextInt(1 << 20);
+          histogram.record(value);
+          shared.record(value);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (Histogram histogram : own) {
+      merged.add(histogram);
+    }
+    assertEquals(200000, shared.getCount());
+    assertEquals(shared.toString(), merged.toString());
+    assertEquals(shared.getMin(), merged.getMin());
+  }
+
+  /**
+   * Test that an interval snapshot only holds what was recorded since the last one,
+   * and that a snapshot does not change when more is recorded.
+   */
+  @Test
+  public void testSnapshots() {
+    Histogram histogram = new Histogram(1000);
+    histogram.record(10);
+    histogram.record(20);
+    Histogram first = histogram.intervalSnapshot();
+    histogram.record(500);
+    Histogram all = histogram.snapshot();
+    Histogram second = histogram.intervalSnapshot();
+    histogram.record(7);
+    assertEquals(2, first.getCount());
+    assertEquals(15, first.getMean(), 1e-9);
+    assertEquals(20, first.getMax());
+    assertEquals(1, second.getCount());
+    assertEquals(500, second.getValueAtPercentile(50), 500 / 128);
+    assertEquals(3, all.getCount());
+    assertEquals(4, histogram.getCount());
+    assertEquals(7, histogram.intervalSnapshot().getMin());
+  }
+
+  /**
+   * Test that histograms of different shapes cannot be added.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddDifferentShape() {
+    new Histogram(1000).add(new Histogram(1000, 4));
+  }
+
+  /**
+   * Test that a negative value cannot be recorded.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeValue() {
+    new Histogram(1000).record(-1);
+  }
+}
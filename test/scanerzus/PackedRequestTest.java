@@ -0,0 +1,46 @@
+package scanerzus;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the PackedRequest class.
+ */
+public class PackedRequestTest {
+
+  /**
+   * Test that the floors of a request come back out of the packed long.
+   */
+  @Test
+  public void testFloors() {
+    long packed = PackedRequest.pack(12, 3, 77);
+    assertEquals(12, PackedRequest.startFloor(packed));
+    assertEquals(3, PackedRequest.endFloor(packed));
+    assertEquals("12->3", PackedRequest.toRequest(packed).toString());
+
+    packed = PackedRequest.pack(new Request(0, PackedRequest.MAX_FLOOR), -1);
+    assertEquals(0, PackedRequest.startFloor(packed));
+    assertEquals(PackedRequest.MAX_FLOOR, PackedRequest.endFloor(packed));
+
+    packed = PackedRequest.pack(PackedRequest.MAX_FLOOR, 0, Long.MAX_VALUE);
+    assertEquals(PackedRequest.MAX_FLOOR, PackedRequest.startFloor(packed));
+    assertEquals(0, PackedRequest.endFloor(packed));
+  }
+
+  /**
+   * Test that the arrival tick is rebuilt from its low bits and the current tick.
+   */
+  @Test
+  public void testArrivalTick() {
+    long packed = PackedRequest.pack(1, 2, 100);
+    assertEquals(100, PackedRequest.arrivalTick(packed, 100));
+    assertEquals(100, PackedRequest.arrivalTick(packed, 5000));
+
+    long arrival = (7L << 32) + 0xFFFFFFF0L;
+    packed = PackedRequest.pack(29, 0, arrival);
+    //the current tick has wrapped past the low 32 bits of the arrival tick
+    assertEquals(arrival, PackedRequest.arrivalTick(packed, arrival + 0x20));
+    assertEquals(arrival, PackedRequest.arrivalTick(packed, arrival + 0xFFFFFFFFL));
+  }
+}
@@ -0,0 +1,57 @@
+package scanerzus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * This is the unit test class for the RequestCache class and Request.of.
+ */
+public class RequestCacheTest {
+
+  /**
+   * Test that the cache hands out the same request for the same floors.
+   */
+  @Test
+  public void testSameInstance() {
+    RequestCache cache = new RequestCache(10);
+    assertSame(cache.get(3, 7), cache.get(3, 7));
+    assertSame(cache.get(9, 0), cache.get(PackedRequest.pack(9, 0, 12)));
+    assertEquals("3->7", cache.get(3, 7).toString());
+    assertSame(Request.of(29, 1), Request.of(29, 1));
+  }
+
+  /**
+   * Test that floors outside the table still get a request with those floors.
+   */
+  @Test
+  public void testOutsideTable() {
+    RequestCache cache = new RequestCache(10);
+    assertNotSame(cache.get(10, 2), cache.get(10, 2));
+    assertEquals("10->2", cache.get(10, 2).toString());
+    assertEquals("-1->2", cache.get(-1, 2).toString());
+    assertEquals("300->2", new RequestCache(1000).get(300, 2).toString());
+  }
+
+  /**
+   * Test that requests are equal when their floors are.
+   */
+  @Test
+  public void testEquals() {
+    assertEquals(new Request(4, 5), Request.of(4, 5));
+    assertEquals(new Request(4, 5).hashCode(), Request.of(4, 5).hashCode());
+    assertNotEquals(new Request(4, 5), new Request(5, 4));
+    assertNotEquals(new Request(4, 5), "4->5");
+  }
+
+  /**
+   * Test that a negative number of floors is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeFloors() {
+    new RequestCache(-1);
+  }
+}